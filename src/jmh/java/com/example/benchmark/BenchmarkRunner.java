@@ -0,0 +1,37 @@
+package com.example.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Runs the JMH benchmarks once per thread count in -Dbench.threads (default "1,4").
+// Arguments are regular JMH command-line options and may arrive as one string from
+// Maven, e.g. "-f 1 -wi 3 GameServiceBenchmark". Results are written to
+// target/jmh-threads-<n>.json for each thread count.
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>();
+        for (String arg : args) {
+            options.addAll(Arrays.asList(arg.trim().split("\\s+")));
+        }
+        options.removeIf(String::isEmpty);
+        CommandLineOptions commandLine = new CommandLineOptions(options.toArray(new String[0]));
+
+        for (String threads : System.getProperty("bench.threads", "1,4").split(",")) {
+            int threadCount = Integer.parseInt(threads.trim());
+            ChainedOptionsBuilder builder = new OptionsBuilder()
+                .parent(commandLine)
+                .threads(threadCount)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-threads-" + threadCount + ".json");
+            new Runner(builder.build()).run();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.benchmark;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Game.makeMove, including win/draw detection on every move. A Game only takes
+// nine moves, so each invocation plays a whole game and the score is per move
+// (game construction and joins are amortized into it).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+
+    // X wins on the left column after five moves
+    private static final int[] WIN_SEQUENCE = {0, 1, 3, 4, 6};
+
+    // X O X / X O O / O X X: all nine cells, no line
+    private static final int[] DRAW_SEQUENCE = {0, 1, 2, 4, 3, 5, 7, 6, 8};
+
+    private Player x;
+    private Player o;
+
+    @Setup
+    public void setUp() {
+        x = new Player("X", "x@example.com");
+        o = new Player("O", "o@example.com");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(5)
+    public void makeMoveUntilWin(Blackhole blackhole) {
+        blackhole.consume(play(WIN_SEQUENCE));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(9)
+    public void makeMoveUntilDraw(Blackhole blackhole) {
+        blackhole.consume(play(DRAW_SEQUENCE));
+    }
+
+    private Game.GameStatus play(int[] sequence) {
+        Game game = new Game("Benchmark");
+        game.addPlayer(x);
+        game.addPlayer(o);
+        for (int i = 0; i < sequence.length; i++) {
+            game.makeMove(i % 2 == 0 ? x : o, sequence[i]);
+        }
+        return game.getStatus();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.benchmark;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import com.example.service.ValidationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Status and player lookups in GameService over a populated store.
+// About a third of the games are waiting, active and completed respectively.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int games;
+
+    private GameService gameService;
+    private List<String> playerIds;
+
+    @Setup
+    public void setUp() {
+        PlayerService playerService = new PlayerService(new ValidationService());
+        gameService = new GameService(playerService);
+        playerIds = new ArrayList<>();
+
+        // Every player takes part in about ten games
+        int playerCount = Math.max(2, games / 5);
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < playerCount; i++) {
+            Player player = playerService.createPlayer("Player " + i, "player" + i + "@example.com");
+            players.add(player);
+            playerIds.add(player.getId());
+        }
+
+        for (int i = 0; i < games; i++) {
+            Game game = gameService.createGame("Game " + i);
+            int stage = i % 3;
+            if (stage == 0) {
+                continue;
+            }
+            Player x = players.get(i % playerCount);
+            Player o = players.get((i + 1) % playerCount);
+            gameService.addPlayerToGame(game.getId(), x);
+            gameService.addPlayerToGame(game.getId(), o);
+            if (stage == 2) {
+                // X wins on the top row
+                int[] sequence = {0, 3, 1, 4, 2};
+                for (int m = 0; m < sequence.length; m++) {
+                    gameService.makeMove(game.getId(), (m % 2 == 0 ? x : o).getId(), sequence[m]);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Game> findByStatus() {
+        return gameService.findByStatus(Game.GameStatus.ACTIVE);
+    }
+
+    @Benchmark
+    public List<Game> getGamesByPlayer() {
+        String playerId = playerIds.get(ThreadLocalRandom.current().nextInt(playerIds.size()));
+        return gameService.getGamesByPlayer(playerId);
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.benchmark;
+
+import com.example.model.BoardConverter;
+import com.example.model.Game;
+import com.example.model.Move;
+import com.example.model.MoveHistoryConverter;
+import com.example.model.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Storing and loading one finished game in H2, with the statements Hibernate issues
+// for each table layout: "legacy" keeps the board in a game_board table (one row
+// per occupied cell) and the moves in a moves table; "packed" keeps both as
+// columns of the games row. Loading reads the row plus, for legacy, the two
+// collections, as JpaGameStore.initialize used to.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GameTableLayoutBenchmark {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static final int STORED_GAMES = 10_000;
+
+    @Param({"legacy", "packed"})
+    public String layout;
+
+    private final BoardConverter boardConverter = new BoardConverter();
+    private final MoveHistoryConverter moveHistoryConverter = new MoveHistoryConverter();
+
+    private String url;
+    private Game game;
+    private List<String> storedIds;
+
+    @Setup
+    public void setUp() throws SQLException {
+        url = "jdbc:h2:mem:layout-" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE games (id VARCHAR(255) PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                + "status VARCHAR(255) NOT NULL, board VARCHAR(9), move_history VARCHAR(255), "
+                + "created_at TIMESTAMP(6) NOT NULL, updated_at TIMESTAMP(6) NOT NULL)");
+            statement.execute("CREATE TABLE game_board (game_id VARCHAR(255) NOT NULL REFERENCES games, "
+                + "cell_index INT NOT NULL, cell_value VARCHAR(255), PRIMARY KEY (game_id, cell_index))");
+            statement.execute("CREATE TABLE moves (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "game_id VARCHAR(255) NOT NULL REFERENCES games, player_id VARCHAR(255) NOT NULL, "
+                + "row_position INT NOT NULL, col_position INT NOT NULL, move_number INT NOT NULL, "
+                + "position INT NOT NULL, symbol VARCHAR(255) NOT NULL, created_at TIMESTAMP(6) NOT NULL)");
+            statement.execute("CREATE INDEX moves_game ON moves (game_id)");
+        }
+
+        // X wins on the left column; five moves, five occupied cells
+        Player x = new Player("X", "x@example.com");
+        Player o = new Player("O", "o@example.com");
+        game = new Game("Layout Game");
+        game.addPlayer(x);
+        game.addPlayer(o);
+        int[] sequence = {0, 1, 3, 4, 6};
+        for (int m = 0; m < sequence.length; m++) {
+            game.makeMove(m % 2 == 0 ? x : o, sequence[m]);
+        }
+
+        storedIds = new ArrayList<>(STORED_GAMES);
+        try (Connection connection = DriverManager.getConnection(url)) {
+            for (int i = 0; i < STORED_GAMES; i++) {
+                String id = "game-" + i;
+                insert(connection, id);
+                storedIds.add(id);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadConnection {
+        Connection connection;
+
+        @Setup
+        public void open(GameTableLayoutBenchmark benchmark) throws SQLException {
+            connection = DriverManager.getConnection(benchmark.url);
+        }
+
+        @TearDown
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public String insertGame(ThreadConnection thread) throws SQLException {
+        String id = UUID.randomUUID().toString();
+        insert(thread.connection, id);
+        return id;
+    }
+
+    @Benchmark
+    public int loadGame(ThreadConnection thread) throws SQLException {
+        String id = storedIds.get(ThreadLocalRandom.current().nextInt(storedIds.size()));
+        return load(thread.connection, id);
+    }
+
+    private void insert(Connection connection, String id) throws SQLException {
+        boolean packed = layout.equals("packed");
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO games (id, name, status, board, move_history, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            statement.setString(1, id);
+            statement.setString(2, game.getName());
+            statement.setString(3, game.getStatus().name());
+            statement.setString(4, packed ? boardConverter.convertToDatabaseColumn(game.getBoard()) : null);
+            statement.setString(5, packed ? moveHistoryConverter.convertToDatabaseColumn(game.getMoves()) : null);
+            statement.setObject(6, game.getCreatedAt());
+            statement.setObject(7, game.getUpdatedAt());
+            statement.executeUpdate();
+        }
+        if (packed) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO game_board (game_id, cell_index, cell_value) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < 9; i++) {
+                if (game.getBoard().get(i) != null) {
+                    statement.setString(1, id);
+                    statement.setInt(2, i);
+                    statement.setString(3, game.getBoard().get(i));
+                    statement.executeUpdate();
+                }
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO moves (game_id, player_id, row_position, col_position, move_number, position, "
+                    + "symbol, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (Move move : game.getMoves()) {
+                statement.setString(1, id);
+                statement.setString(2, move.getPlayerId());
+                statement.setInt(3, move.getRow());
+                statement.setInt(4, move.getCol());
+                statement.setInt(5, move.getMoveNumber());
+                statement.setInt(6, move.getPosition());
+                statement.setString(7, move.getSymbol());
+                statement.setObject(8, move.getCreatedAt());
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    // Returns moves plus cells loaded, so the reads cannot be optimized away
+    private int load(Connection connection, String id) throws SQLException {
+        List<String> board;
+        int moves;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id, name, status, board, move_history, created_at, updated_at FROM games WHERE id = ?")) {
+            statement.setString(1, id);
+            try (ResultSet row = statement.executeQuery()) {
+                row.next();
+                board = boardConverter.convertToEntityAttribute(row.getString(4));
+                moves = moveHistoryConverter.convertToEntityAttribute(row.getString(5)).size();
+            }
+        }
+        if (layout.equals("packed")) {
+            return moves + board.size();
+        }
+        board = new ArrayList<>(Arrays.asList(new String[9]));
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT cell_index, cell_value FROM game_board WHERE game_id = ?")) {
+            statement.setString(1, id);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    board.set(rows.getInt(1), rows.getString(2));
+                }
+            }
+        }
+        moves = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id, player_id, row_position, col_position, move_number, position, symbol, created_at "
+                    + "FROM moves WHERE game_id = ? ORDER BY move_number")) {
+            statement.setString(1, id);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    rows.getObject(8);
+                    moves++;
+                }
+            }
+        }
+        return moves + board.size();
+    }
+}
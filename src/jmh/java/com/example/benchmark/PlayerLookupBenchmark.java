@@ -0,0 +1,41 @@
+package com.example.benchmark;
+
+import com.example.model.Player;
+import com.example.service.PlayerService;
+import com.example.service.ValidationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// PlayerService.findByEmail over a populated store, with mixed-case lookups
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlayerLookupBenchmark {
+
+    @Param({"1000", "100000"})
+    public int players;
+
+    private PlayerService playerService;
+    private String[] emails;
+
+    @Setup
+    public void setUp() {
+        playerService = new PlayerService(new ValidationService());
+        emails = new String[players];
+        for (int i = 0; i < players; i++) {
+            playerService.createPlayer("Player " + i, "player" + i + "@example.com");
+            emails[i] = (i % 2 == 0 ? "Player" : "player") + i + "@Example.com";
+        }
+    }
+
+    @Benchmark
+    public Optional<Player> findByEmail() {
+        return playerService.findByEmail(emails[ThreadLocalRandom.current().nextInt(emails.length)]);
+    }
+}
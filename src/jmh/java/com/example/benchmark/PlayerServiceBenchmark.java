@@ -0,0 +1,56 @@
+package com.example.benchmark;
+
+import com.example.model.PaginatedResponse;
+import com.example.model.Player;
+import com.example.service.PlayerService;
+import com.example.service.ValidationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Leaderboard pages in PlayerService over a populated store
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlayerServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "100000"})
+    public int players;
+
+    @Param({"winrate", "wins"})
+    public String sortBy;
+
+    private PlayerService playerService;
+    private int pages;
+
+    @Setup
+    public void setUp() {
+        playerService = new PlayerService(new ValidationService());
+        Random random = new Random(42);
+        for (int i = 0; i < players; i++) {
+            Player player = playerService.createPlayer("Player " + i, "player" + i + "@example.com");
+            int games = 1 + random.nextInt(20);
+            for (int g = 0; g < games; g++) {
+                playerService.updatePlayerStats(player.getId(), random.nextBoolean(), false, 3 + random.nextInt(3));
+            }
+        }
+        pages = (players + PAGE_SIZE - 1) / PAGE_SIZE;
+    }
+
+    @Benchmark
+    public PaginatedResponse<Player> leaderboardFirstPage() {
+        return playerService.getLeaderboardPaginated(0, PAGE_SIZE, sortBy);
+    }
+
+    @Benchmark
+    public PaginatedResponse<Player> leaderboardRandomPage() {
+        return playerService.getLeaderboardPaginated(ThreadLocalRandom.current().nextInt(pages), PAGE_SIZE, sortBy);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.benchmark;
+
+import com.example.config.RateLimitingConfig.RateLimitingFilter;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+// RateLimitingFilter.doFilterInternal (through doFilter) with limits high enough
+// that every request is admitted, spread over a given number of client addresses
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitingFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        @Param({"1", "10000"})
+        public int clients;
+
+        RateLimitingFilter filter;
+
+        @Setup
+        public void setUp() {
+            filter = new RateLimitingFilter(true, Integer.MAX_VALUE, Integer.MAX_VALUE, 0);
+        }
+
+        @TearDown
+        public void tearDown() {
+            filter.destroy();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PerThread {
+        MockHttpServletRequest[] requests;
+        MockHttpServletResponse response;
+        int next;
+
+        @Setup
+        public void setUp(Shared shared) {
+            requests = new MockHttpServletRequest[shared.clients];
+            for (int i = 0; i < shared.clients; i++) {
+                requests[i] = new MockHttpServletRequest("GET", "/api/games/leaderboard");
+                requests[i].setRemoteAddr("10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF));
+            }
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public int doFilter(Shared shared, PerThread state) throws Exception {
+        MockHttpServletRequest request = state.requests[state.next];
+        state.next = (state.next + 1) % state.requests.length;
+        shared.filter.doFilter(request, state.response, NO_OP_CHAIN);
+        return state.response.getStatus();
+    }
+}
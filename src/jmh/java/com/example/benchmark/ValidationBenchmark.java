@@ -0,0 +1,55 @@
+package com.example.benchmark;
+
+import com.example.service.ValidationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// ValidationService name and email checks over a pool of valid inputs
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+
+    @Param({"100", "10000"})
+    public int inputs;
+
+    private ValidationService validationService;
+    private String[] names;
+    private String[] emails;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        validationService = new ValidationService();
+        names = new String[inputs];
+        emails = new String[inputs];
+        for (int i = 0; i < inputs; i++) {
+            names[i] = "Player_" + i + " the-" + (i % 7 == 0 ? "Great" : "Bold");
+            emails[i] = "first.last+" + i + "@mail" + (i % 13) + ".example.com";
+        }
+    }
+
+    @Benchmark
+    public String validatePlayerName() {
+        String name = names[advance()];
+        validationService.validatePlayerName(name);
+        return name;
+    }
+
+    @Benchmark
+    public String validatePlayerEmail() {
+        String email = emails[advance()];
+        validationService.validatePlayerEmail(email);
+        return email;
+    }
+
+    private int advance() {
+        int index = next;
+        next = index + 1 == inputs ? 0 : index + 1;
+        return index;
+    }
+}
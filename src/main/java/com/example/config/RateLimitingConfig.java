@@ -1,5 +1,9 @@
 package com.example.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,9 +15,13 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 @Configuration
 public class RateLimitingConfig {
@@ -27,6 +35,9 @@ public class RateLimitingConfig {
     @Value("${rate.limiting.requests-per-hour:1000}")
     private int requestsPerHour;
     
+    @Value("${rate.limiting.eviction-interval-seconds:60}")
+    private long evictionIntervalSeconds;
+    
     @Value("${spring.profiles.active:default}")
     private String activeProfile;
 
@@ -34,23 +45,57 @@ public class RateLimitingConfig {
     public RateLimitingFilter rateLimitingFilter() {
         // Disable rate limiting for test profile
         boolean enabled = rateLimitingEnabled && !"test".equals(activeProfile);
-        return new RateLimitingFilter(enabled, requestsPerMinute, requestsPerHour);
+        return new RateLimitingFilter(enabled, requestsPerMinute, requestsPerHour, evictionIntervalSeconds);
     }
     
 
-    public static class RateLimitingFilter extends OncePerRequestFilter {
+    // Also a MeterBinder, so Spring registers its metrics once a registry exists
+    public static class RateLimitingFilter extends OncePerRequestFilter implements MeterBinder {
+        
+        private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+        private static final long NANOS_PER_HOUR = TimeUnit.HOURS.toNanos(1);
         
         private final boolean enabled;
         private final int maxRequestsPerMinute;
         private final int maxRequestsPerHour;
         
-        // Store request counts per IP address
-        private final ConcurrentHashMap<String, ClientRequestInfo> clientRequests = new ConcurrentHashMap<>();
+        // 429 bodies are built once rather than per rejected request
+        private final byte[] minuteLimitBody;
+        private final byte[] hourLimitBody;
+        
+        // Token buckets per client IP address; idle clients are evicted in the background
+        private final ConcurrentHashMap<String, ClientLimits> clientRequests = new ConcurrentHashMap<>();
+        private final ScheduledExecutorService evictor;
+        
+        // Rejections per window, exposed as counters
+        private final LongAdder minuteRejections = new LongAdder();
+        private final LongAdder hourRejections = new LongAdder();
         
         public RateLimitingFilter(boolean enabled, int maxRequestsPerMinute, int maxRequestsPerHour) {
+            this(enabled, maxRequestsPerMinute, maxRequestsPerHour, 60);
+        }
+        
+        public RateLimitingFilter(boolean enabled, int maxRequestsPerMinute, int maxRequestsPerHour,
+                                  long evictionIntervalSeconds) {
             this.enabled = enabled;
             this.maxRequestsPerMinute = maxRequestsPerMinute;
             this.maxRequestsPerHour = maxRequestsPerHour;
+            this.minuteLimitBody = ("{\"error\":\"Rate limit exceeded. Maximum " +
+                maxRequestsPerMinute + " requests per minute allowed.\"}").getBytes(StandardCharsets.UTF_8);
+            this.hourLimitBody = ("{\"error\":\"Rate limit exceeded. Maximum " +
+                maxRequestsPerHour + " requests per hour allowed.\"}").getBytes(StandardCharsets.UTF_8);
+            
+            if (enabled && evictionIntervalSeconds > 0) {
+                this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "rate-limit-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                this.evictor.scheduleWithFixedDelay(this::evictIdleClients,
+                    evictionIntervalSeconds, evictionIntervalSeconds, TimeUnit.SECONDS);
+            } else {
+                this.evictor = null;
+            }
         }
         
         @Override
@@ -63,7 +108,6 @@ public class RateLimitingConfig {
                 return;
             }
             
-            String clientIp = getClientIpAddress(request);
             String endpoint = request.getRequestURI();
             
             // Skip rate limiting for health check endpoints
@@ -72,39 +116,44 @@ public class RateLimitingConfig {
                 return;
             }
             
-            ClientRequestInfo clientInfo = clientRequests.computeIfAbsent(clientIp, 
-                k -> new ClientRequestInfo());
+            String clientIp = getClientIpAddress(request);
+            long now = System.nanoTime();
             
-            LocalDateTime now = LocalDateTime.now();
+            ClientLimits limits = clientRequests.get(clientIp);
+            if (limits == null) {
+                limits = clientRequests.computeIfAbsent(clientIp, k -> new ClientLimits(now));
+            }
             
             // Check minute-based rate limit
-            if (!clientInfo.canMakeRequest(now, maxRequestsPerMinute, 60)) {
-                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-                response.setContentType("application/json");
-                response.getWriter().write("{\"error\":\"Rate limit exceeded. Maximum " + 
-                    maxRequestsPerMinute + " requests per minute allowed.\"}");
+            if (!limits.perMinute.tryAcquire(now)) {
+                minuteRejections.increment();
+                reject(response, minuteLimitBody);
                 return;
             }
             
-            // Check hour-based rate limit
-            if (!clientInfo.canMakeRequest(now, maxRequestsPerHour, 3600)) {
-                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-                response.setContentType("application/json");
-                response.getWriter().write("{\"error\":\"Rate limit exceeded. Maximum " + 
-                    maxRequestsPerHour + " requests per hour allowed.\"}");
+            // Check hour-based rate limit; give the minute token back if this one fails
+            if (!limits.perHour.tryAcquire(now)) {
+                limits.perMinute.release();
+                hourRejections.increment();
+                reject(response, hourLimitBody);
                 return;
             }
             
-            // Record the request
-            clientInfo.recordRequest(now);
-            
             filterChain.doFilter(request, response);
         }
         
+        private void reject(HttpServletResponse response, byte[] body) throws IOException {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setContentType("application/json");
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+        
         private String getClientIpAddress(HttpServletRequest request) {
             String xForwardedFor = request.getHeader("X-Forwarded-For");
             if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-                return xForwardedFor.split(",")[0].trim();
+                int comma = xForwardedFor.indexOf(',');
+                return comma < 0 ? xForwardedFor.trim() : xForwardedFor.substring(0, comma).trim();
             }
             
             String xRealIp = request.getHeader("X-Real-IP");
@@ -115,42 +164,101 @@ public class RateLimitingConfig {
             return request.getRemoteAddr();
         }
         
-        // Clean up old entries periodically (simple cleanup)
-        private void cleanupOldEntries() {
-            LocalDateTime cutoff = LocalDateTime.now().minusHours(1);
-            clientRequests.entrySet().removeIf(entry -> 
-                entry.getValue().getLastRequestTime().isBefore(cutoff));
+        // Drop clients whose buckets have refilled completely. Forgetting them is
+        // lossless: a fresh entry would start with exactly the same allowance.
+        void evictIdleClients() {
+            evictIdleClients(System.nanoTime());
+        }
+        
+        void evictIdleClients(long now) {
+            clientRequests.forEach((clientIp, limits) -> {
+                if (limits.isIdle(now)) {
+                    clientRequests.remove(clientIp, limits);
+                }
+            });
         }
         
+        // Number of clients currently tracked
+        public int getTrackedClientCount() {
+            return clientRequests.size();
+        }
+        
+        @Override
+        public void bindTo(MeterRegistry registry) {
+            Gauge.builder("ratelimit.clients", clientRequests, ConcurrentHashMap::size)
+                .description("Clients with rate-limit state")
+                .register(registry);
+            FunctionCounter.builder("ratelimit.rejections", minuteRejections, LongAdder::sum)
+                .description("Requests rejected with 429")
+                .tag("window", "minute")
+                .register(registry);
+            FunctionCounter.builder("ratelimit.rejections", hourRejections, LongAdder::sum)
+                .description("Requests rejected with 429")
+                .tag("window", "hour")
+                .register(registry);
+        }
+        
+        @Override
+        public void destroy() {
+            if (evictor != null) {
+                evictor.shutdownNow();
+            }
+        }
+        
+        private final class ClientLimits {
+            private final TokenBucket perMinute;
+            private final TokenBucket perHour;
+            
+            private ClientLimits(long now) {
+                this.perMinute = new TokenBucket(maxRequestsPerMinute, NANOS_PER_MINUTE, now);
+                this.perHour = new TokenBucket(maxRequestsPerHour, NANOS_PER_HOUR, now);
+            }
+            
+            private boolean isIdle(long now) {
+                return perMinute.isFull(now) && perHour.isFull(now);
+            }
+        }
     }
     
-    private static class ClientRequestInfo {
-        private final AtomicInteger requestCount = new AtomicInteger(0);
-        private LocalDateTime windowStart;
-        private LocalDateTime lastRequestTime;
-        
-        public ClientRequestInfo() {
-            this.windowStart = LocalDateTime.now();
-            this.lastRequestTime = LocalDateTime.now();
+    // Lock-free token bucket in its GCRA form: the whole state is one "theoretical
+    // arrival time" on the monotonic nanoTime clock, advanced by CAS per request.
+    // Holds up to `capacity` tokens and refills one token every period / capacity.
+    public static final class TokenBucket {
+        private final long nanosPerToken;
+        private final long burstTolerance;
+        private final AtomicLong theoreticalArrival;
+        
+        public TokenBucket(int capacity, long periodNanos, long now) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("Capacity must be positive");
+            }
+            this.nanosPerToken = Math.max(1, periodNanos / capacity);
+            this.burstTolerance = nanosPerToken * (capacity - 1L);
+            this.theoreticalArrival = new AtomicLong(now);
         }
         
-        public boolean canMakeRequest(LocalDateTime now, int maxRequests, int windowSeconds) {
-            // Reset window if it has expired
-            if (windowStart.plusSeconds(windowSeconds).isBefore(now)) {
-                requestCount.set(0);
-                windowStart = now;
+        // Take one token if available
+        public boolean tryAcquire(long now) {
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long base = tat - now > 0 ? tat : now;
+                if (base - now > burstTolerance) {
+                    return false;
+                }
+                if (theoreticalArrival.compareAndSet(tat, base + nanosPerToken)) {
+                    return true;
+                }
             }
-            
-            return requestCount.get() < maxRequests;
         }
         
-        public void recordRequest(LocalDateTime now) {
-            requestCount.incrementAndGet();
-            lastRequestTime = now;
+        // Return a token taken by tryAcquire
+        public void release() {
+            theoreticalArrival.addAndGet(-nanosPerToken);
         }
         
-        public LocalDateTime getLastRequestTime() {
-            return lastRequestTime;
+        // True when the bucket holds its full capacity again
+        public boolean isFull(long now) {
+            return theoreticalArrival.get() - now <= 0;
         }
     }
 }
@@ -1,19 +1,268 @@
 package com.example.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.filter.CommonsRequestLoggingFilter;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 
 @Configuration
 public class RequestLoggingConfig {
 
+    @Value("${request.logging.enabled:true}")
+    private boolean enabled;
+
+    @Value("${request.logging.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${request.logging.slow-threshold-ms:500}")
+    private long slowThresholdMillis;
+
+    @Value("${request.logging.always-log-min-status:500}")
+    private int alwaysLogMinStatus;
+
+    @Value("${request.logging.queue-capacity:10000}")
+    private int queueCapacity;
+
     @Bean
-    public CommonsRequestLoggingFilter requestLoggingFilter() {
-        CommonsRequestLoggingFilter filter = new CommonsRequestLoggingFilter();
-        filter.setIncludeQueryString(true);
-        filter.setIncludePayload(true);
-        filter.setMaxPayloadLength(1000);
-        filter.setIncludeHeaders(true);
-        return filter;
+    public AccessLogFilter accessLogFilter() {
+        return new AccessLogFilter(enabled, sampleRate, slowThresholdMillis, alwaysLogMinStatus, queueCapacity);
+    }
+
+    // Structured access log. The request thread only decides whether to log and
+    // enqueues a small immutable entry; formatting and writing happen on a single
+    // background thread. The queue is bounded, and entries that do not fit are
+    // dropped and counted rather than slowing requests down.
+    public static class AccessLogFilter extends OncePerRequestFilter implements MeterBinder, Ordered {
+
+        private static final Logger ACCESS_LOG = LoggerFactory.getLogger("com.example.access");
+        private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+        private final boolean enabled;
+        private final double sampleRate;
+        private final long slowThresholdNanos;
+        private final int alwaysLogMinStatus;
+        private final int queueCapacity;
+        private final Consumer<String> sink;
+
+        private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder written = new LongAdder();
+
+        private final Thread writer;
+        private volatile boolean running = true;
+
+        public AccessLogFilter(boolean enabled, double sampleRate, long slowThresholdMillis,
+                               int alwaysLogMinStatus, int queueCapacity) {
+            this(enabled, sampleRate, slowThresholdMillis, alwaysLogMinStatus, queueCapacity, ACCESS_LOG::info, true);
+        }
+
+        AccessLogFilter(boolean enabled, double sampleRate, long slowThresholdMillis, int alwaysLogMinStatus,
+                        int queueCapacity, Consumer<String> sink, boolean startWriter) {
+            if (sampleRate < 0 || sampleRate > 1) {
+                throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+            }
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("Queue capacity must be positive");
+            }
+            this.enabled = enabled;
+            this.sampleRate = sampleRate;
+            this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+            this.alwaysLogMinStatus = alwaysLogMinStatus;
+            this.queueCapacity = queueCapacity;
+            this.sink = sink;
+
+            if (enabled && startWriter) {
+                this.writer = new Thread(this::writeLoop, "access-log-writer");
+                this.writer.setDaemon(true);
+                this.writer.start();
+            } else {
+                this.writer = null;
+            }
+        }
+
+        // Run outermost so rate-limited and failed requests are logged too
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            if (!enabled) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                filterChain.doFilter(request, response);
+                failed = false;
+            } finally {
+                long durationNanos = System.nanoTime() - start;
+                // An exception escaping the chain ends up as a 500
+                int status = failed ? 500 : response.getStatus();
+                String reason = reasonToLog(status, durationNanos);
+                if (reason != null) {
+                    enqueue(new Entry(System.currentTimeMillis(), request.getMethod(), request.getRequestURI(),
+                        request.getQueryString(), status, durationNanos, request.getRemoteAddr(), reason));
+                }
+            }
+        }
+
+        // Why a request should be logged, or null to skip it
+        String reasonToLog(int status, long durationNanos) {
+            if (status >= alwaysLogMinStatus) {
+                return "error";
+            }
+            if (durationNanos >= slowThresholdNanos) {
+                return "slow";
+            }
+            if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                return "sampled";
+            }
+            return null;
+        }
+
+        // Reserve a slot before publishing so the queue never exceeds its capacity
+        boolean enqueue(Entry entry) {
+            if (queued.incrementAndGet() > queueCapacity) {
+                queued.decrementAndGet();
+                dropped.increment();
+                return false;
+            }
+            queue.offer(entry);
+            return true;
+        }
+
+        // Write everything currently queued; returns the number of entries written
+        int drain() {
+            int count = 0;
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                queued.decrementAndGet();
+                try {
+                    sink.accept(entry.format());
+                    written.increment();
+                } catch (RuntimeException e) {
+                    // A failing appender must not kill the writer thread
+                    dropped.increment();
+                }
+                count++;
+            }
+            return count;
+        }
+
+        private void writeLoop() {
+            while (running) {
+                if (drain() == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            drain();
+        }
+
+        public long getDroppedCount() {
+            return dropped.sum();
+        }
+
+        public long getWrittenCount() {
+            return written.sum();
+        }
+
+        public int getQueuedCount() {
+            return queued.get();
+        }
+
+        @Override
+        public void bindTo(MeterRegistry registry) {
+            Gauge.builder("accesslog.queued", queued, AtomicInteger::get)
+                .description("Access log entries waiting to be written")
+                .register(registry);
+            FunctionCounter.builder("accesslog.written", written, LongAdder::sum)
+                .description("Access log entries written")
+                .register(registry);
+            FunctionCounter.builder("accesslog.dropped", dropped, LongAdder::sum)
+                .description("Access log entries dropped because the queue was full")
+                .register(registry);
+        }
+
+        // Stop the writer after flushing what is already queued
+        @Override
+        public void destroy() {
+            running = false;
+            if (writer != null) {
+                LockSupport.unpark(writer);
+                try {
+                    writer.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        // One access log line, captured on the request thread and formatted by the writer
+        static final class Entry {
+            private final long timestampMillis;
+            private final String method;
+            private final String uri;
+            private final String query;
+            private final int status;
+            private final long durationNanos;
+            private final String client;
+            private final String reason;
+
+            Entry(long timestampMillis, String method, String uri, String query, int status,
+                  long durationNanos, String client, String reason) {
+                this.timestampMillis = timestampMillis;
+                this.method = method;
+                this.uri = uri;
+                this.query = query;
+                this.status = status;
+                this.durationNanos = durationNanos;
+                this.client = client;
+                this.reason = reason;
+            }
+
+            String format() {
+                StringBuilder line = new StringBuilder(160)
+                    .append("ts=").append(Instant.ofEpochMilli(timestampMillis))
+                    .append(" method=").append(method)
+                    .append(" uri=\"").append(uri);
+                if (query != null) {
+                    line.append('?').append(query);
+                }
+                return line.append('"')
+                    .append(" status=").append(status)
+                    .append(" duration_ms=").append(String.format(Locale.ROOT, "%.3f", durationNanos / 1e6))
+                    .append(" client=").append(client)
+                    .append(" reason=").append(reason)
+                    .toString();
+            }
+        }
     }
 }
@@ -0,0 +1,24 @@
+package com.example.config;
+
+import com.example.websocket.GamePlayHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+// Game play over WebSocket at /ws/games (see GamePlayHandler)
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final GamePlayHandler gamePlayHandler;
+
+    public WebSocketConfig(GamePlayHandler gamePlayHandler) {
+        this.gamePlayHandler = gamePlayHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(gamePlayHandler, "/ws/games");
+    }
+}
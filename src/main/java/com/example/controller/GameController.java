@@ -1,31 +1,59 @@
 package com.example.controller;
 
+import com.example.events.GameUpdateBroadcaster;
 import com.example.model.Game;
+import com.example.model.GameSnapshot;
 import com.example.model.Player;
+import com.example.model.CursorPage;
+import com.example.model.MoveBatchResult;
+import com.example.model.MoveCommand;
 import com.example.model.PaginatedResponse;
 import com.example.service.GameService;
+import com.example.service.MoveBatchService;
 import com.example.service.PlayerService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/games")
 public class GameController {
     
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
     private final GameService gameService;
     private final PlayerService playerService;
+    private final GameUpdateBroadcaster broadcaster;
+    private final MoveBatchService moveBatchService;
+    
+    // Writes one snapshot per line of a stream without closing the stream
+    private final ObjectWriter snapshotWriter;
     
     @Autowired
-    public GameController(GameService gameService, PlayerService playerService) {
+    public GameController(GameService gameService, PlayerService playerService, GameUpdateBroadcaster broadcaster,
+                          MoveBatchService moveBatchService, ObjectMapper objectMapper) {
         this.gameService = gameService;
         this.playerService = playerService;
+        this.broadcaster = broadcaster;
+        this.moveBatchService = moveBatchService;
+        this.snapshotWriter = objectMapper.writerFor(GameSnapshot.class)
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
     
     // Create a new game
@@ -39,17 +67,19 @@ public class GameController {
         }
     }
     
-    // Get game by ID
+    // Get game by ID (served from the latest immutable snapshot)
     @GetMapping("/{id}")
-    public ResponseEntity<Game> getGame(@PathVariable String id) {
+    public ResponseEntity<GameSnapshot> getGame(@PathVariable String id) {
         return gameService.findById(id)
+            .map(Game::getSnapshot)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
     
-    // Get all games
+    // Get all games. List endpoints return the games' immutable snapshots: a
+    // read-only view with the same fields as the game plus moveCount and version.
     @GetMapping
-    public ResponseEntity<List<Game>> getAllGames(
+    public ResponseEntity<List<GameSnapshot>> getAllGames(
             @RequestParam(required = false) String status) {
         List<Game> games;
         if (status != null) {
@@ -62,7 +92,96 @@ public class GameController {
         } else {
             games = gameService.findAll();
         }
-        return ResponseEntity.ok(games);
+        return ResponseEntity.ok(snapshots(games));
+    }
+    
+    // Get one page of games, newest first, optionally by status
+    @GetMapping("/paginated")
+    public ResponseEntity<PaginatedResponse<GameSnapshot>> getGamesPaginated(
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            Game.GameStatus gameStatus = status == null ? null : Game.GameStatus.valueOf(status.toUpperCase());
+            PaginatedResponse<Game> games = gameService.getGamesPaginated(gameStatus, page, size);
+            return ResponseEntity.ok(new PaginatedResponse<>(snapshots(games.getContent()), games.getPage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Stream every game (optionally by status) as newline-delimited JSON, one
+    // snapshot per line, newest first. Games are loaded and written a batch at a
+    // time, so memory stays flat however many games there are.
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamGames(
+            @RequestParam(required = false) String status) {
+        Game.GameStatus gameStatus;
+        try {
+            gameStatus = status == null ? null : Game.GameStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                gameService.forEachGame(gameStatus, game -> {
+                    try {
+                        snapshotWriter.writeValue(out, game.getSnapshot());
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+    
+    // Get games by cursor, newest first, optionally by status: pass the previous
+    // page's nextCursor to get the next one. The total is only included on request.
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<GameSnapshot>> getGamesByCursor(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            Game.GameStatus gameStatus = status == null ? null : Game.GameStatus.valueOf(status.toUpperCase());
+            CursorPage<Game> page = gameService.getGamesPage(gameStatus, cursor, size, includeTotal);
+            return ResponseEntity.ok(page.map(Game::getSnapshot));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Server-Sent Events for one game, instead of polling its board and status: a
+    // "game" event with the snapshot whenever a player joins or a move is made. The
+    // event id is the game's sequence; a reconnecting client sends it back as
+    // Last-Event-ID and gets the current state again only if it is newer. A finished
+    // game the client has already seen answers 204, which stops EventSource
+    // reconnecting.
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamGameEvents(
+            @PathVariable String id,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        Long lastSequence;
+        try {
+            lastSequence = lastEventId == null || lastEventId.isBlank() ? null : Long.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<GameSnapshot> snapshot = gameService.findSnapshotById(id);
+        if (snapshot.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (GameUpdateBroadcaster.isUpToDate(snapshot.get(), lastSequence)) {
+            return ResponseEntity.noContent().build();
+        }
+        SseEmitter emitter = broadcaster.subscribe(id, lastSequence,
+            () -> gameService.findSnapshotById(id).orElse(null));
+        return ResponseEntity.ok(emitter);
     }
     
     // Add player to game
@@ -94,6 +213,17 @@ public class GameController {
         }
     }
     
+    // Make moves across many games in one request. Always 200 for a well-formed
+    // batch; each move's outcome is in its own result.
+    @PostMapping("/moves/batch")
+    public ResponseEntity<MoveBatchResult> makeMoves(@RequestBody BatchMoveRequest request) {
+        try {
+            return ResponseEntity.ok(moveBatchService.makeMoves(request.getMoves()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Get game status
     @GetMapping("/{id}/status")
     public ResponseEntity<Map<String, String>> getGameStatus(@PathVariable String id) {
@@ -160,31 +290,31 @@ public class GameController {
     
     // Get active games
     @GetMapping("/active")
-    public ResponseEntity<List<Game>> getActiveGames() {
+    public ResponseEntity<List<GameSnapshot>> getActiveGames() {
         List<Game> games = gameService.getActiveGames();
-        return ResponseEntity.ok(games);
+        return ResponseEntity.ok(snapshots(games));
     }
     
     // Get waiting games
     @GetMapping("/waiting")
-    public ResponseEntity<List<Game>> getWaitingGames() {
+    public ResponseEntity<List<GameSnapshot>> getWaitingGames() {
         List<Game> games = gameService.getWaitingGames();
-        return ResponseEntity.ok(games);
+        return ResponseEntity.ok(snapshots(games));
     }
     
     // Get completed games
     @GetMapping("/completed")
-    public ResponseEntity<List<Game>> getCompletedGames() {
+    public ResponseEntity<List<GameSnapshot>> getCompletedGames() {
         List<Game> games = gameService.getCompletedGames();
-        return ResponseEntity.ok(games);
+        return ResponseEntity.ok(snapshots(games));
     }
     
     // Get games by player
     @GetMapping("/player/{playerId}")
-    public ResponseEntity<List<Game>> getGamesByPlayer(@PathVariable String playerId) {
+    public ResponseEntity<List<GameSnapshot>> getGamesByPlayer(@PathVariable String playerId) {
         try {
             List<Game> games = gameService.getGamesByPlayer(playerId);
-            return ResponseEntity.ok(games);
+            return ResponseEntity.ok(snapshots(games));
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -241,6 +371,21 @@ public class GameController {
         }
     }
     
+    // Get leaderboard pages by cursor: pass the previous page's nextCursor to get
+    // the next one. The ranked player count is only included on request.
+    @GetMapping("/leaderboard/cursor")
+    public ResponseEntity<CursorPage<Player>> getLeaderboardByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "winrate") String sortBy,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(playerService.getLeaderboardAfter(cursor, size, sortBy, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Clear all games (for testing purposes)
     @DeleteMapping("/clear")
     public ResponseEntity<Void> clearAllGames() {
@@ -248,6 +393,14 @@ public class GameController {
         return ResponseEntity.ok().build();
     }
     
+    private static List<GameSnapshot> snapshots(List<Game> games) {
+        List<GameSnapshot> snapshots = new ArrayList<>(games.size());
+        for (Game game : games) {
+            snapshots.add(game.getSnapshot());
+        }
+        return snapshots;
+    }
+    
     // Request/Response DTOs
     public static class CreateGameRequest {
         @NotBlank(message = "Game name is required")
@@ -277,6 +430,20 @@ public class GameController {
         }
     }
     
+    // Items are not bean-validated here: each is checked when applied, so a bad
+    // move gets its own result instead of failing the whole batch
+    public static class BatchMoveRequest {
+        private List<MoveCommand> moves;
+        
+        public List<MoveCommand> getMoves() {
+            return moves;
+        }
+        
+        public void setMoves(List<MoveCommand> moves) {
+            this.moves = moves;
+        }
+    }
+    
     public static class MakeMoveRequest {
         @NotBlank(message = "Player ID is required")
         @Pattern(regexp = "^[a-zA-Z0-9-]+$", message = "Player ID must contain only alphanumeric characters and hyphens")
@@ -2,17 +2,28 @@ package com.example.controller;
 
 import com.example.model.Player;
 import com.example.model.PlayerStats;
+import com.example.model.CursorPage;
 import com.example.model.PaginatedResponse;
+import com.example.model.PlayerRegistration;
+import com.example.model.RegistrationBatchResult;
+import com.example.service.GameService;
 import com.example.service.PlayerService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -22,9 +33,19 @@ public class PlayerController {
     
     private final PlayerService playerService;
     
+    private final GameService gameService;
+    
+    // Reads bulk registrations one at a time from a JSON array or NDJSON body
+    private final ObjectReader registrationReader;
+    private final int maxRegistrations;
+    
     @Autowired
-    public PlayerController(PlayerService playerService) {
+    public PlayerController(PlayerService playerService, GameService gameService, ObjectMapper objectMapper,
+                            @Value("${players.import.max-size:100000}") int maxRegistrations) {
         this.playerService = playerService;
+        this.gameService = gameService;
+        this.registrationReader = objectMapper.readerFor(PlayerRegistration.class);
+        this.maxRegistrations = maxRegistrations;
     }
     
     // Create a new player
@@ -38,6 +59,23 @@ public class PlayerController {
         }
     }
     
+    // Register many players in one request, from a JSON array or NDJSON (one
+    // player per line). The body is consumed as it is read rather than buffered,
+    // and each player gets its own result; 400 only if nothing could be read.
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    public ResponseEntity<RegistrationBatchResult> registerPlayers(InputStream body) {
+        try (MappingIterator<PlayerRegistration> registrations = registrationReader.readValues(body)) {
+            RegistrationBatchResult result = playerService.registerPlayers(registrations, maxRegistrations);
+            if (result.getError() != null && result.getResults().isEmpty()) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            // The body does not even start as JSON
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Get player by ID
     @GetMapping("/{id}")
     public ResponseEntity<Player> getPlayer(@PathVariable String id) {
@@ -67,11 +105,15 @@ public class PlayerController {
         }
     }
     
-    // Delete player
+    // Delete player; 409 while they are still in a game
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePlayer(@PathVariable String id) {
-        boolean deleted = playerService.deletePlayer(id);
-        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        try {
+            boolean deleted = gameService.deletePlayer(id);
+            return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
     
     // Get player statistics
@@ -129,6 +171,21 @@ public class PlayerController {
         }
     }
     
+    // Get leaderboard pages by cursor: pass the previous page's nextCursor to get
+    // the next one. The ranked player count is only included on request.
+    @GetMapping("/leaderboard/cursor")
+    public ResponseEntity<CursorPage<Player>> getLeaderboardByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "winrate") String sortBy,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(playerService.getLeaderboardAfter(cursor, size, sortBy, includeTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     // Clear all players (for testing purposes)
     @DeleteMapping("/clear")
     public ResponseEntity<Void> clearAllPlayers() {
@@ -0,0 +1,266 @@
+package com.example.events;
+
+import com.example.model.Game;
+import com.example.model.GameSnapshot;
+import com.example.model.Move;
+import com.example.model.Player;
+import com.example.service.GameEventListener;
+import com.example.util.BackgroundExecutors;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Pushes game state to Server-Sent Event subscribers, so clients no longer poll the
+// board, status and current-player endpoints. Each event carries the game's latest
+// snapshot, with the game's sequence (players joined plus moves made) as its event
+// id; a reconnecting client sends it back as Last-Event-ID and only gets the state
+// again if it has changed since.
+//
+// Game events arrive under the game's lock, so they only record the newest snapshot
+// per subscriber and hand the write to a small sender pool. A slow subscriber then
+// skips intermediate states instead of holding up moves or other subscribers.
+@Component
+public class GameUpdateBroadcaster implements GameEventListener, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameUpdateBroadcaster.class);
+
+    private final long timeoutMs;
+    private final long reconnectMs;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeat;
+
+    public GameUpdateBroadcaster(@Value("${events.sse.timeout-ms:300000}") long timeoutMs,
+                                 @Value("${events.sse.heartbeat-seconds:15}") long heartbeatSeconds,
+                                 @Value("${events.sse.reconnect-ms:2000}") long reconnectMs,
+                                 @Value("${events.sse.sender-threads:4}") int senderThreads,
+                                 @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.timeoutMs = timeoutMs;
+        this.reconnectMs = reconnectMs;
+        this.sender = BackgroundExecutors.workers("sse-sender", senderThreads, virtualThreads);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    // Position of a snapshot in its game's history; unlike the snapshot version it
+    // is the same whichever store loaded the game
+    public static long sequence(GameSnapshot snapshot) {
+        return snapshot.getPlayers().size() + snapshot.getMoveCount();
+    }
+
+    // Whether a client that has seen the given sequence can ever get another event
+    public static boolean isUpToDate(GameSnapshot snapshot, Long lastSequence) {
+        return isFinished(snapshot) && lastSequence != null && lastSequence >= sequence(snapshot);
+    }
+
+    // Subscribe to a game. Its current snapshot is read once the subscriber is
+    // registered, so no change can fall in between, and is sent at once unless the
+    // client has already seen it.
+    public SseEmitter subscribe(String gameId, Long lastSequence, Supplier<GameSnapshot> current) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(gameId, emitter, lastSequence == null ? -1 : lastSequence);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        // Sets are added to and emptied sets removed inside compute, so a subscriber
+        // can never land in a set that was just dropped from the map
+        subscribers.compute(gameId, (id, set) -> {
+            Set<Subscriber> gameSubscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            gameSubscribers.add(subscriber);
+            return gameSubscribers;
+        });
+        subscriberCount.incrementAndGet();
+        GameSnapshot snapshot = current.get();
+        if (snapshot == null) {
+            subscriber.close();
+        } else {
+            subscriber.offer(snapshot);
+        }
+        return emitter;
+    }
+
+    @Override
+    public void gameCreated(Game game) {
+        publish(game.getSnapshot());
+    }
+
+    @Override
+    public void playerJoined(Game game, Player player) {
+        publish(game.getSnapshot());
+    }
+
+    @Override
+    public void moveMade(Game game, Move move) {
+        publish(game.getSnapshot());
+    }
+
+    @Override
+    public void gameDeleted(String gameId) {
+        Set<Subscriber> gameSubscribers = subscribers.get(gameId);
+        if (gameSubscribers != null) {
+            List.copyOf(gameSubscribers).forEach(Subscriber::close);
+        }
+    }
+
+    @Override
+    public void gamesCleared() {
+        List.copyOf(subscribers.keySet()).forEach(this::gameDeleted);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sse.subscribers", subscriberCount, AtomicInteger::get)
+            .description("Open game event streams")
+            .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        gamesCleared();
+        sender.shutdown();
+    }
+
+    private void publish(GameSnapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        Set<Subscriber> gameSubscribers = subscribers.get(snapshot.getId());
+        if (gameSubscribers != null) {
+            gameSubscribers.forEach(subscriber -> subscriber.offer(snapshot));
+        }
+    }
+
+    // A comment line keeps idle connections from being closed by proxies
+    private void sendHeartbeats() {
+        for (Set<Subscriber> gameSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : gameSubscribers) {
+                try {
+                    sender.execute(subscriber::heartbeat);
+                } catch (RejectedExecutionException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.gameId, (id, set) -> {
+            if (set.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static boolean isFinished(GameSnapshot snapshot) {
+        return snapshot.getStatus() == Game.GameStatus.COMPLETED || snapshot.getStatus() == Game.GameStatus.DRAW;
+    }
+
+    private final class Subscriber {
+        private final String gameId;
+        private final SseEmitter emitter;
+        // Newest snapshot not sent yet; at most one drain runs at a time
+        private final AtomicReference<GameSnapshot> pending = new AtomicReference<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Only touched by the running drain
+        private long sentSequence;
+        private boolean reconnectSent;
+
+        private Subscriber(String gameId, SseEmitter emitter, long sentSequence) {
+            this.gameId = gameId;
+            this.emitter = emitter;
+            this.sentSequence = sentSequence;
+        }
+
+        private void offer(GameSnapshot snapshot) {
+            pending.accumulateAndGet(snapshot,
+                (current, offered) -> current == null || sequence(offered) > sequence(current) ? offered : current);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    close();
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                GameSnapshot snapshot = pending.getAndSet(null);
+                if (snapshot != null && !closed.get() && sequence(snapshot) > sentSequence) {
+                    send(snapshot);
+                }
+                draining.set(false);
+            } while (pending.get() != null && draining.compareAndSet(false, true));
+        }
+
+        private void send(GameSnapshot snapshot) {
+            try {
+                SseEmitter.SseEventBuilder event = SseEmitter.event()
+                    .id(Long.toString(sequence(snapshot)))
+                    .name("game")
+                    .data(snapshot);
+                if (!reconnectSent) {
+                    event.reconnectTime(reconnectMs);
+                    reconnectSent = true;
+                }
+                emitter.send(event);
+                sentSequence = sequence(snapshot);
+                // Nothing follows a finished game; the client stops on its final state
+                if (isFinished(snapshot)) {
+                    close();
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping event stream for game {}: {}", gameId, e.getMessage());
+                close();
+            }
+        }
+
+        private void heartbeat() {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("keepalive"));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                unsubscribe(this);
+                emitter.complete();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.journal;
+
+import java.util.Locale;
+
+// When the journal forces appended records to disk
+public enum FsyncPolicy {
+    // Every group commit is fsynced before the appending threads return
+    ALWAYS,
+    // Appends return once written; fsync runs at most once per interval
+    INTERVAL,
+    // Left to the operating system (and done on shutdown)
+    NEVER;
+
+    public static FsyncPolicy fromProperty(String value) {
+        if (value != null) {
+            for (FsyncPolicy policy : values()) {
+                if (policy.name().equals(value.trim().toUpperCase(Locale.ROOT))) {
+                    return policy;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid journal fsync policy. Supported values: 'always', 'interval', 'never'");
+    }
+}
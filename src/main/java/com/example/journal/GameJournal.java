@@ -0,0 +1,551 @@
+package com.example.journal;
+
+import com.example.model.Game;
+import com.example.model.Move;
+import com.example.model.Player;
+import com.example.service.GameEventListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Append-only binary journal of game and player events, replayed on startup to
+// rebuild the in-memory state. Appending threads only encode a record and queue
+// it; a single writer thread drains the queue and writes everything waiting with
+// one gathering FileChannel write (group commit). With fsync=always the appending
+// threads wait until their group is forced to disk, so one fsync covers every
+// record that arrived while the previous one was in progress.
+//
+// The journal is a sequence of numbered segment files. A segment is sealed (forced
+// and closed) when it reaches journal.segment-size-mb or when rotate() is called;
+// JournalSnapshotter folds sealed segments into a snapshot and deletes them, so
+// startup only replays the segments written after the latest snapshot.
+@Component
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class GameJournal implements GameEventListener, MeterBinder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameJournal.class);
+
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final int MAX_GROUP = 1024;
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Path directory;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final long segmentBytes;
+    private final BlockingQueue<Pending> queue;
+
+    // The active segment; switched only by the writer thread once it has started
+    private FileChannel channel;
+    private volatile long activeSegment;
+    // End of the intact records in the active segment when the journal was opened
+    private final long recoveredLength;
+
+    private final LongAdder records = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder groups = new LongAdder();
+    private final LongAdder fsyncs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rotations = new LongAdder();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+    // Events raised by the replay itself must not be journaled again
+    private volatile Thread replayThread;
+    // Only touched by the writer thread (and by destroy() once it has stopped)
+    private boolean unforced;
+    private long lastForce = System.nanoTime();
+
+    @Autowired
+    public GameJournal(@Value("${journal.directory:data/journal}") String directory,
+                       @Value("${journal.fsync:interval}") String fsyncPolicy,
+                       @Value("${journal.fsync-interval-ms:50}") long fsyncIntervalMillis,
+                       @Value("${journal.queue-capacity:65536}") int queueCapacity,
+                       @Value("${journal.segment-size-mb:64}") long segmentSizeMegabytes,
+                       @Value("${storage.mode:memory}") String storageMode) throws IOException {
+        this(checkStorageMode(storageMode, directory), FsyncPolicy.fromProperty(fsyncPolicy), fsyncIntervalMillis, queueCapacity,
+            segmentSizeMegabytes * 1024 * 1024);
+    }
+
+    // The journal is the memory store's persistence. The database modes already
+    // reload their state on startup, and replaying on top of it would apply every
+    // change twice, so that combination is refused before anything is opened.
+    private static Path checkStorageMode(String storageMode, String directory) {
+        if (!"memory".equals(storageMode)) {
+            throw new IllegalStateException("journal.enabled=true requires storage.mode=memory, not " + storageMode);
+        }
+        return Path.of(directory);
+    }
+
+    GameJournal(Path directory, FsyncPolicy fsyncPolicy, long fsyncIntervalMillis, int queueCapacity,
+                long segmentBytes) throws IOException {
+        if (fsyncIntervalMillis <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Fsync interval and queue capacity must be positive");
+        }
+        // Segments are memory-mapped whole, and one group may overshoot the limit
+        if (segmentBytes <= 0 || segmentBytes > MAX_SEGMENT_BYTES) {
+            throw new IllegalArgumentException("Journal segment size must be between 1 byte and 1024 MB");
+        }
+        this.directory = directory;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.segmentBytes = segmentBytes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Files.createDirectories(directory);
+        // Continue in the last segment, but never in one a snapshot already covers
+        List<Long> segments = segmentNumbers(directory);
+        long last = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        this.activeSegment = Math.max(last, SnapshotFile.latestCoveredSegment(directory));
+        Path file = segmentFile(directory, activeSegment);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        this.recoveredLength = scan(channel, channel.size(), null).length;
+        if (recoveredLength < channel.size()) {
+            // A crash mid-write leaves a torn record at the end; new records must
+            // follow the last intact one or they would never be replayed
+            logger.warn("Truncating {} bytes of incomplete records at the end of {}",
+                channel.size() - recoveredLength, file);
+            channel.truncate(recoveredLength);
+        }
+        channel.position(recoveredLength);
+
+        this.writer = new Thread(this::writeLoop, "journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Feed every intact record from the given segment onwards to the handler, in
+    // append order. Meant for startup, before anything is appended. A record the
+    // handler rejects is logged and skipped. Returns the number of records replayed.
+    public long replay(JournalHandler handler, long fromSegment) {
+        replayThread = Thread.currentThread();
+        try {
+            long replayed = read(fromSegment, activeSegment, handler);
+            if (fromSegment <= activeSegment) {
+                replayed += scan(channel, recoveredLength, handler).records;
+            }
+            return replayed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to replay journal in " + directory, e);
+        } finally {
+            replayThread = null;
+        }
+    }
+
+    // Feed the records of the sealed segments numbered fromSegment (inclusive) to
+    // toSegment (exclusive) to the handler. Safe alongside appends, which only ever
+    // go to the active segment. Returns the number of records read.
+    public long read(long fromSegment, long toSegment, JournalHandler handler) throws IOException {
+        long count = 0;
+        for (long number : segmentNumbers(directory)) {
+            if (number < fromSegment || number >= toSegment || number >= activeSegment) {
+                continue;
+            }
+            Path file = segmentFile(directory, number);
+            try (FileChannel sealed = FileChannel.open(file, StandardOpenOption.READ)) {
+                Scan scan = scan(sealed, sealed.size(), handler);
+                if (scan.length < sealed.size()) {
+                    logger.warn("Ignoring {} bytes of unreadable records at the end of {}",
+                        sealed.size() - scan.length, file);
+                }
+                count += scan.records;
+            }
+        }
+        return count;
+    }
+
+    // Walk the intact records at the start of a segment, feeding them to the handler
+    // if one is given, via a memory mapping of the first length bytes
+    private static Scan scan(FileChannel segment, long length, JournalHandler handler) throws IOException {
+        Scan scan = new Scan();
+        if (length == 0) {
+            return scan;
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Journal segment is too large to map");
+        }
+        MappedByteBuffer mapped = segment.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        int recordLength;
+        while ((recordLength = JournalCodec.validRecordLength(mapped)) > 0) {
+            if (handler != null) {
+                try {
+                    JournalCodec.decode(mapped, handler);
+                } catch (RuntimeException e) {
+                    logger.warn("Skipping journal record at offset {}: {}", mapped.position(), e.getMessage());
+                }
+            }
+            mapped.position(mapped.position() + recordLength);
+            scan.records++;
+        }
+        scan.length = mapped.position();
+        return scan;
+    }
+
+    // Seal the active segment and continue in a new one. The switch is queued behind
+    // the records already appended, so every earlier segment holds exactly the
+    // events before the switch. Returns the new active segment number.
+    public long rotate() {
+        CompletableFuture<Void> switched = new CompletableFuture<>();
+        enqueue(new Pending(null, switched));
+        try {
+            switched.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Journal rotation failed", e.getCause());
+        }
+        return activeSegment;
+    }
+
+    // Delete the sealed segments numbered below the given one, once a snapshot
+    // covers them. Returns the number of segments deleted.
+    public int deleteSegmentsBefore(long segment) throws IOException {
+        int deleted = 0;
+        for (long number : segmentNumbers(directory)) {
+            if (number < segment && number < activeSegment
+                    && Files.deleteIfExists(segmentFile(directory, number))) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    static Path segmentFile(Path directory, long number) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    // Numbers of the segment files in the directory, in ascending order
+    static List<Long> segmentNumbers(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                    name.length() - SEGMENT_SUFFIX.length())))
+                .sorted()
+                .toList();
+        }
+    }
+
+    @Override
+    public void playerCreated(Player player) {
+        append(JournalCodec.playerCreated(player.getId(), player.getName(), player.getEmail(), player.getCreatedAt()));
+    }
+
+    @Override
+    public void playerUpdated(Player player) {
+        append(JournalCodec.playerUpdated(player.getId(), player.getName(), player.getEmail()));
+    }
+
+    @Override
+    public void playerDeleted(String playerId) {
+        append(JournalCodec.playerDeleted(playerId));
+    }
+
+    @Override
+    public void playerStatsUpdated(String playerId, boolean won, boolean drawn, int movesMade) {
+        append(JournalCodec.playerStatsUpdated(playerId, won, drawn, movesMade));
+    }
+
+    @Override
+    public void playersCleared() {
+        append(JournalCodec.playersCleared());
+    }
+
+    @Override
+    public void gameCreated(Game game) {
+        append(JournalCodec.gameCreated(game.getId(), game.getName(), game.getCreatedAt()));
+    }
+
+    @Override
+    public void playerJoined(Game game, Player player) {
+        append(JournalCodec.playerJoined(game.getId(), player.getId()));
+    }
+
+    @Override
+    public void moveMade(Game game, Move move) {
+        append(JournalCodec.moveMade(game.getId(), move.getPlayerId(), move.getPosition()));
+    }
+
+    @Override
+    public void gameDeleted(String gameId) {
+        append(JournalCodec.gameDeleted(gameId));
+    }
+
+    @Override
+    public void gamesCleared() {
+        append(JournalCodec.gamesCleared());
+    }
+
+    // Queue a record for the writer; blocks while the queue is full. With
+    // fsync=always, also waits until the record is on disk.
+    private void append(ByteBuffer record) {
+        if (Thread.currentThread() == replayThread) {
+            return;
+        }
+        CompletableFuture<Void> durable = fsyncPolicy == FsyncPolicy.ALWAYS ? new CompletableFuture<>() : null;
+        enqueue(new Pending(record, durable));
+        if (durable != null) {
+            try {
+                durable.join();
+            } catch (CompletionException e) {
+                throw new IllegalStateException("Journal write failed", e.getCause());
+            }
+        }
+    }
+
+    private void enqueue(Pending pending) {
+        if (!running) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while journaling");
+        }
+    }
+
+    private void writeLoop() {
+        long pollNanos = fsyncPolicy == FsyncPolicy.INTERVAL ? fsyncIntervalNanos : IDLE_POLL_NANOS;
+        List<Pending> group = new ArrayList<>(MAX_GROUP);
+        while (running) {
+            try {
+                Pending first = queue.poll(pollNanos, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    group.add(first);
+                    queue.drainTo(group, MAX_GROUP - 1);
+                    writeBatch(group);
+                    group.clear();
+                }
+                if (fsyncPolicy == FsyncPolicy.INTERVAL && unforced
+                        && System.nanoTime() - lastForce >= fsyncIntervalNanos) {
+                    force();
+                }
+            } catch (IOException e) {
+                failures.increment();
+                logger.error("Failed to fsync journal segment {}", activeSegment, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Write a drained batch, switching segments wherever a rotation was queued
+    private void writeBatch(List<Pending> batch) {
+        int start = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i).record == null) {
+                if (i > start) {
+                    writeGroup(batch.subList(start, i));
+                }
+                startNextSegment(batch.get(i).durable);
+                start = i + 1;
+            }
+        }
+        if (start < batch.size()) {
+            writeGroup(batch.subList(start, batch.size()));
+        }
+    }
+
+    private void writeGroup(List<Pending> group) {
+        ByteBuffer[] buffers = new ByteBuffer[group.size()];
+        long size = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = group.get(i).record;
+            size += buffers[i].remaining();
+        }
+        long start = -1;
+        try {
+            start = channel.position();
+            long written = 0;
+            while (written < size) {
+                written += channel.write(buffers);
+            }
+            if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+                force();
+            } else {
+                unforced = true;
+            }
+            records.add(group.size());
+            bytes.add(size);
+            groups.increment();
+            for (Pending pending : group) {
+                if (pending.durable != null) {
+                    pending.durable.complete(null);
+                }
+            }
+            if (channel.position() >= segmentBytes) {
+                startNextSegment(null);
+            }
+        } catch (IOException e) {
+            failures.increment();
+            logger.error("Failed to append {} records to journal segment {}", group.size(), activeSegment, e);
+            discardPartialWrite(start);
+            for (Pending pending : group) {
+                if (pending.durable != null) {
+                    pending.durable.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    // Cut off a half-written group so later records still follow an intact one
+    private void discardPartialWrite(long start) {
+        if (start < 0) {
+            return;
+        }
+        try {
+            channel.truncate(start);
+            channel.position(start);
+        } catch (IOException e) {
+            logger.error("Failed to truncate journal segment {} after a failed write", activeSegment, e);
+        }
+    }
+
+    // Force and close the active segment and continue in the next one; a sealed
+    // segment is complete and durable. On failure the current segment stays active.
+    private void startNextSegment(CompletableFuture<Void> switched) {
+        long next = activeSegment + 1;
+        try {
+            force();
+            FileChannel nextChannel = FileChannel.open(segmentFile(directory, next), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.close();
+            channel = nextChannel;
+            activeSegment = next;
+            rotations.increment();
+            if (switched != null) {
+                switched.complete(null);
+            }
+        } catch (IOException e) {
+            failures.increment();
+            logger.error("Failed to start journal segment {}", next, e);
+            if (switched != null) {
+                switched.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void force() throws IOException {
+        channel.force(false);
+        fsyncs.increment();
+        unforced = false;
+        lastForce = System.nanoTime();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getActiveSegment() {
+        return activeSegment;
+    }
+
+    public long getRecordCount() {
+        return records.sum();
+    }
+
+    public long getGroupCount() {
+        return groups.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("journal.queued", queue, BlockingQueue::size)
+            .description("Journal records waiting for the writer")
+            .register(registry);
+        FunctionCounter.builder("journal.records", records, LongAdder::sum)
+            .description("Journal records written")
+            .register(registry);
+        FunctionCounter.builder("journal.bytes", bytes, LongAdder::sum)
+            .description("Journal bytes written")
+            .baseUnit("bytes")
+            .register(registry);
+        FunctionCounter.builder("journal.groups", groups, LongAdder::sum)
+            .description("Group commits; records / groups is the average group size")
+            .register(registry);
+        FunctionCounter.builder("journal.fsyncs", fsyncs, LongAdder::sum)
+            .description("Journal fsync calls")
+            .register(registry);
+        FunctionCounter.builder("journal.failures", failures, LongAdder::sum)
+            .description("Failed journal writes and fsyncs")
+            .register(registry);
+        FunctionCounter.builder("journal.rotations", rotations, LongAdder::sum)
+            .description("Journal segments sealed")
+            .register(registry);
+        Gauge.builder("journal.segment", this, GameJournal::getActiveSegment)
+            .description("Number of the active journal segment")
+            .register(registry);
+    }
+
+    // Stop the writer, write and fsync whatever is still queued, and close the file
+    @Override
+    public void destroy() throws IOException {
+        // No interrupt: it would close the FileChannel mid-write. The writer notices
+        // within one poll interval.
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static final class Pending {
+        // Null for a queued rotation
+        private final ByteBuffer record;
+        // Completed once the record is durable (null unless fsync=always), or once
+        // the rotation has switched segments
+        private final CompletableFuture<Void> durable;
+
+        private Pending(ByteBuffer record, CompletableFuture<Void> durable) {
+            this.record = record;
+            this.durable = durable;
+        }
+    }
+
+    private static final class Scan {
+        private long records;
+        // End of the intact prefix
+        private long length;
+    }
+}
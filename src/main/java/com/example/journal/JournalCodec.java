@@ -0,0 +1,224 @@
+package com.example.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Binary layout of journal records: [int body length][body][int CRC32 of body].
+// The body starts with a type byte. Ids are UUIDs stored as two longs, so the hot
+// records (joins and moves) have a fixed size; a move is 42 bytes on disk. Names
+// and emails are UTF-8 with an unsigned short length prefix.
+final class JournalCodec {
+
+    static final int HEADER_BYTES = Integer.BYTES;
+    static final int TRAILER_BYTES = Integer.BYTES;
+    static final int MAX_BODY_BYTES = 1 << 16;
+
+    private static final byte PLAYER_CREATED = 1;
+    private static final byte PLAYER_UPDATED = 2;
+    private static final byte PLAYER_DELETED = 3;
+    private static final byte PLAYER_STATS_UPDATED = 4;
+    private static final byte PLAYERS_CLEARED = 5;
+    private static final byte GAME_CREATED = 6;
+    private static final byte PLAYER_JOINED = 7;
+    private static final byte MOVE_MADE = 8;
+    private static final byte GAME_DELETED = 9;
+    private static final byte GAMES_CLEARED = 10;
+
+    private static final int TYPE_BYTES = 1;
+    static final int ID_BYTES = 2 * Long.BYTES;
+    static final int TIME_BYTES = Long.BYTES + Integer.BYTES;
+
+    private JournalCodec() {
+    }
+
+    static ByteBuffer playerCreated(String playerId, String name, String email, LocalDateTime createdAt) {
+        byte[] nameBytes = utf8(name);
+        byte[] emailBytes = utf8(email);
+        return frame(TYPE_BYTES + ID_BYTES + TIME_BYTES + stringBytes(nameBytes) + stringBytes(emailBytes), body -> {
+            body.put(PLAYER_CREATED);
+            putId(body, playerId);
+            putTime(body, createdAt);
+            putString(body, nameBytes);
+            putString(body, emailBytes);
+        });
+    }
+
+    static ByteBuffer playerUpdated(String playerId, String name, String email) {
+        byte[] nameBytes = utf8(name);
+        byte[] emailBytes = utf8(email);
+        return frame(TYPE_BYTES + ID_BYTES + stringBytes(nameBytes) + stringBytes(emailBytes), body -> {
+            body.put(PLAYER_UPDATED);
+            putId(body, playerId);
+            putString(body, nameBytes);
+            putString(body, emailBytes);
+        });
+    }
+
+    static ByteBuffer playerDeleted(String playerId) {
+        return idRecord(PLAYER_DELETED, playerId);
+    }
+
+    static ByteBuffer playerStatsUpdated(String playerId, boolean won, boolean drawn, int movesMade) {
+        return frame(TYPE_BYTES + ID_BYTES + 1 + Integer.BYTES, body -> {
+            body.put(PLAYER_STATS_UPDATED);
+            putId(body, playerId);
+            body.put((byte) ((won ? 1 : 0) | (drawn ? 2 : 0)));
+            body.putInt(movesMade);
+        });
+    }
+
+    static ByteBuffer playersCleared() {
+        return frame(TYPE_BYTES, body -> body.put(PLAYERS_CLEARED));
+    }
+
+    static ByteBuffer gameCreated(String gameId, String name, LocalDateTime createdAt) {
+        byte[] nameBytes = utf8(name);
+        return frame(TYPE_BYTES + ID_BYTES + TIME_BYTES + stringBytes(nameBytes), body -> {
+            body.put(GAME_CREATED);
+            putId(body, gameId);
+            putTime(body, createdAt);
+            putString(body, nameBytes);
+        });
+    }
+
+    static ByteBuffer playerJoined(String gameId, String playerId) {
+        return frame(TYPE_BYTES + 2 * ID_BYTES, body -> {
+            body.put(PLAYER_JOINED);
+            putId(body, gameId);
+            putId(body, playerId);
+        });
+    }
+
+    static ByteBuffer moveMade(String gameId, String playerId, int position) {
+        return frame(TYPE_BYTES + 2 * ID_BYTES + 1, body -> {
+            body.put(MOVE_MADE);
+            putId(body, gameId);
+            putId(body, playerId);
+            body.put((byte) position);
+        });
+    }
+
+    static ByteBuffer gameDeleted(String gameId) {
+        return idRecord(GAME_DELETED, gameId);
+    }
+
+    static ByteBuffer gamesCleared() {
+        return frame(TYPE_BYTES, body -> body.put(GAMES_CLEARED));
+    }
+
+    // Length of the complete record at the buffer's position, or -1 if what follows
+    // is not a whole, intact record (a torn or corrupted tail). Does not move the buffer.
+    static int validRecordLength(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < HEADER_BYTES + TRAILER_BYTES) {
+            return -1;
+        }
+        int bodyLength = buffer.getInt(start);
+        if (bodyLength <= 0 || bodyLength > MAX_BODY_BYTES
+                || buffer.remaining() < HEADER_BYTES + bodyLength + TRAILER_BYTES) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(start + HEADER_BYTES, bodyLength));
+        if ((int) crc.getValue() != buffer.getInt(start + HEADER_BYTES + bodyLength)) {
+            return -1;
+        }
+        return HEADER_BYTES + bodyLength + TRAILER_BYTES;
+    }
+
+    // Decode the record at the buffer's position, which must have been validated
+    static void decode(ByteBuffer record, JournalHandler handler) {
+        ByteBuffer body = record.slice(record.position() + HEADER_BYTES, record.getInt(record.position()));
+        byte type = body.get();
+        switch (type) {
+            case PLAYER_CREATED -> {
+                String playerId = getId(body);
+                LocalDateTime createdAt = getTime(body);
+                handler.playerCreated(playerId, getString(body), getString(body), createdAt);
+            }
+            case PLAYER_UPDATED -> handler.playerUpdated(getId(body), getString(body), getString(body));
+            case PLAYER_DELETED -> handler.playerDeleted(getId(body));
+            case PLAYER_STATS_UPDATED -> {
+                String playerId = getId(body);
+                byte flags = body.get();
+                handler.playerStatsUpdated(playerId, (flags & 1) != 0, (flags & 2) != 0, body.getInt());
+            }
+            case PLAYERS_CLEARED -> handler.playersCleared();
+            case GAME_CREATED -> {
+                String gameId = getId(body);
+                LocalDateTime createdAt = getTime(body);
+                handler.gameCreated(gameId, getString(body), createdAt);
+            }
+            case PLAYER_JOINED -> handler.playerJoined(getId(body), getId(body));
+            case MOVE_MADE -> handler.moveMade(getId(body), getId(body), body.get());
+            case GAME_DELETED -> handler.gameDeleted(getId(body));
+            case GAMES_CLEARED -> handler.gamesCleared();
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private static ByteBuffer idRecord(byte type, String id) {
+        return frame(TYPE_BYTES + ID_BYTES, body -> {
+            body.put(type);
+            putId(body, id);
+        });
+    }
+
+    private static ByteBuffer frame(int bodyLength, Consumer<ByteBuffer> writer) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + bodyLength + TRAILER_BYTES);
+        buffer.putInt(bodyLength);
+        writer.accept(buffer);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, bodyLength);
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    // Field encodings, shared with SnapshotFile
+    static void putId(ByteBuffer buffer, String id) {
+        UUID uuid = UUID.fromString(id);
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    static String getId(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong()).toString();
+    }
+
+    static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        buffer.putLong(time.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(time.getNano());
+    }
+
+    static LocalDateTime getTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    static byte[] utf8(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Value too long to journal");
+        }
+        return bytes;
+    }
+
+    static int stringBytes(byte[] bytes) {
+        return Short.BYTES + bytes.length;
+    }
+
+    static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.journal;
+
+import java.time.LocalDateTime;
+
+// Receives decoded journal records, in the order they were appended
+public interface JournalHandler {
+
+    void playerCreated(String playerId, String name, String email, LocalDateTime createdAt);
+
+    void playerUpdated(String playerId, String name, String email);
+
+    void playerDeleted(String playerId);
+
+    void playerStatsUpdated(String playerId, boolean won, boolean drawn, int movesMade);
+
+    void playersCleared();
+
+    void gameCreated(String gameId, String name, LocalDateTime createdAt);
+
+    void playerJoined(String gameId, String playerId);
+
+    void moveMade(String gameId, String playerId, int position);
+
+    void gameDeleted(String gameId);
+
+    void gamesCleared();
+}
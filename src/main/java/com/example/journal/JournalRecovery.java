@@ -0,0 +1,120 @@
+package com.example.journal;
+
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Rebuilds games and players at startup, before the web server starts taking
+// requests: loads the latest snapshot, then replays the journal segments written
+// after it. Records are applied through the services, so a replayed move updates
+// boards, indexes, stats and leaderboards exactly as it did live.
+@Component
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class JournalRecovery implements JournalHandler, SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalRecovery.class);
+
+    private final GameJournal journal;
+    private final JournalSnapshotter snapshotter;
+    private final GameService gameService;
+    private final PlayerService playerService;
+
+    @Autowired
+    public JournalRecovery(GameJournal journal, JournalSnapshotter snapshotter, GameService gameService,
+                           PlayerService playerService) {
+        this.journal = journal;
+        this.snapshotter = snapshotter;
+        this.gameService = gameService;
+        this.playerService = playerService;
+    }
+
+    // Apply records to the given services only, without startup recovery
+    JournalRecovery(GameService gameService, PlayerService playerService) {
+        this(null, null, gameService, playerService);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        SnapshotFile snapshot;
+        try {
+            snapshot = snapshotter.loadLatest(playerService, gameService);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load journal snapshot", e);
+        }
+        long loaded = System.nanoTime();
+        if (snapshot != null) {
+            logger.info("Loaded snapshot {} ({} players, {} games, {} bytes) in {} ms on {} threads",
+                snapshot.getFile(), snapshot.getPlayerCount(), snapshot.getGameCount(), snapshot.getSize(),
+                TimeUnit.NANOSECONDS.toMillis(loaded - start), snapshotter.getLoadThreads());
+        }
+        long fromSegment = snapshot == null ? 1 : snapshot.getCoveredSegment();
+        long replayed = journal.replay(this, fromSegment);
+        long end = System.nanoTime();
+        logger.info("Replayed {} journal records from segment {} onwards in {} ms; recovery took {} ms",
+            replayed, fromSegment, TimeUnit.NANOSECONDS.toMillis(end - loaded),
+            TimeUnit.NANOSECONDS.toMillis(end - start));
+        snapshotter.start(replayed == 0);
+    }
+
+    @Override
+    public void playerCreated(String playerId, String name, String email, LocalDateTime createdAt) {
+        playerService.restorePlayer(playerId, name, email, createdAt);
+    }
+
+    @Override
+    public void playerUpdated(String playerId, String name, String email) {
+        playerService.updatePlayer(playerId, name, email);
+    }
+
+    @Override
+    public void playerDeleted(String playerId) {
+        playerService.deletePlayer(playerId);
+    }
+
+    @Override
+    public void playerStatsUpdated(String playerId, boolean won, boolean drawn, int movesMade) {
+        playerService.updatePlayerStats(playerId, won, drawn, movesMade);
+    }
+
+    @Override
+    public void playersCleared() {
+        playerService.clearAllPlayers();
+    }
+
+    @Override
+    public void gameCreated(String gameId, String name, LocalDateTime createdAt) {
+        gameService.restoreGame(gameId, name, createdAt);
+    }
+
+    @Override
+    public void playerJoined(String gameId, String playerId) {
+        gameService.addPlayerToGame(gameId, playerService.findById(playerId)
+            .orElseThrow(() -> new IllegalArgumentException("Player not found")));
+    }
+
+    @Override
+    public void moveMade(String gameId, String playerId, int position) {
+        gameService.makeMove(gameId, playerId, position);
+    }
+
+    @Override
+    public void gameDeleted(String gameId) {
+        gameService.deleteGame(gameId);
+    }
+
+    @Override
+    public void gamesCleared() {
+        gameService.clearAllGames();
+    }
+}
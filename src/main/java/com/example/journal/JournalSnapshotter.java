@@ -0,0 +1,224 @@
+package com.example.journal;
+
+import com.example.repository.InMemoryGameStore;
+import com.example.repository.InMemoryPlayerStore;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import com.example.service.ValidationService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Writes periodic snapshots so startup loads one file and replays only the journal
+// tail. Live games and players change concurrently, and a finished game also
+// changes its players' stats, so copying them one at a time would not produce a
+// state that any journal position describes. Instead a snapshot seals the active
+// journal segment and folds the previous snapshot plus the sealed segments into a
+// private copy of the services, off the request path. That copy is exactly the
+// state at the start of the new segment; once written, the folded segments and
+// older snapshots are deleted.
+@Component
+@ConditionalOnProperty(name = "journal.enabled", havingValue = "true")
+public class JournalSnapshotter implements MeterBinder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalSnapshotter.class);
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private final GameJournal journal;
+    private final Path directory;
+    private final long intervalSeconds;
+    private final int loadThreads;
+    private final boolean snapshotOnShutdown;
+    private final int chunkSize;
+
+    private final LongAdder snapshots = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long lastSize;
+    private volatile long lastEntities;
+    private volatile double lastSeconds;
+
+    private ScheduledExecutorService scheduler;
+    private boolean started;
+    // Journal record count when the last snapshot was taken; -1 before the first
+    private long recordsAtLastSnapshot = -1;
+
+    @Autowired
+    public JournalSnapshotter(GameJournal journal,
+                              @Value("${journal.snapshot-interval-seconds:300}") long intervalSeconds,
+                              @Value("${journal.snapshot-load-threads:0}") int loadThreads,
+                              @Value("${journal.snapshot-on-shutdown:true}") boolean snapshotOnShutdown) {
+        this(journal, intervalSeconds, loadThreads, snapshotOnShutdown, CHUNK_SIZE);
+    }
+
+    JournalSnapshotter(GameJournal journal, long intervalSeconds, int loadThreads, boolean snapshotOnShutdown,
+                       int chunkSize) {
+        if (intervalSeconds < 0 || loadThreads < 0) {
+            throw new IllegalArgumentException("Snapshot interval and load threads cannot be negative");
+        }
+        this.journal = journal;
+        this.directory = journal.getDirectory();
+        this.intervalSeconds = intervalSeconds;
+        this.loadThreads = loadThreads > 0 ? loadThreads : Runtime.getRuntime().availableProcessors();
+        this.snapshotOnShutdown = snapshotOnShutdown;
+        this.chunkSize = chunkSize;
+    }
+
+    // Load the latest snapshot into the services; returns null if there is none
+    SnapshotFile loadLatest(PlayerService playerService, GameService gameService) throws IOException {
+        List<Long> covered = SnapshotFile.coveredSegments(directory);
+        if (covered.isEmpty()) {
+            return null;
+        }
+        Path file = SnapshotFile.fileFor(directory, covered.get(covered.size() - 1));
+        return SnapshotFile.load(file, playerService, gameService, loadThreads);
+    }
+
+    // Start the periodic snapshots; called once recovery has finished, because a
+    // snapshot deletes segments that recovery may still be reading. With an empty
+    // tail the latest snapshot is already current.
+    synchronized void start(boolean upToDate) {
+        if (started) {
+            return;
+        }
+        started = true;
+        if (upToDate) {
+            recordsAtLastSnapshot = journal.getRecordCount();
+        }
+        if (intervalSeconds == 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::snapshotIfChanged, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void snapshotIfChanged() {
+        try {
+            synchronized (this) {
+                if (journal.getRecordCount() == recordsAtLastSnapshot) {
+                    return;
+                }
+            }
+            takeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            failures.increment();
+            logger.error("Failed to write a journal snapshot to {}", directory, e);
+        }
+    }
+
+    // Seal the active segment and write a snapshot of everything before it
+    public synchronized SnapshotFile takeSnapshot() throws IOException {
+        long start = System.nanoTime();
+        long records = journal.getRecordCount();
+        long cut = journal.rotate();
+
+        PlayerService players = new PlayerService(new ValidationService(), new InMemoryPlayerStore(),
+            new SimpleMeterRegistry(), List.of());
+        GameService games = new GameService(players, new InMemoryGameStore(), new SimpleMeterRegistry(), List.of());
+        SnapshotFile previous = loadLatest(players, games);
+        long fromSegment = previous == null ? 1 : previous.getCoveredSegment();
+        long folded = journal.read(fromSegment, cut, new JournalRecovery(games, players));
+
+        long writeStart = System.nanoTime();
+        SnapshotFile snapshot = SnapshotFile.write(SnapshotFile.fileFor(directory, cut), cut,
+            players.findAll(), games.findAll(), chunkSize);
+        long writeNanos = System.nanoTime() - writeStart;
+
+        // Older snapshots and the folded segments are no longer needed
+        for (long covered : SnapshotFile.coveredSegments(directory)) {
+            if (covered < cut) {
+                Files.deleteIfExists(SnapshotFile.fileFor(directory, covered));
+            }
+        }
+        int deleted = journal.deleteSegmentsBefore(cut);
+
+        long entities = (long) snapshot.getPlayerCount() + snapshot.getGameCount();
+        double writeSeconds = Math.max(writeNanos, 1) / 1e9;
+        lastSize = snapshot.getSize();
+        lastEntities = entities;
+        lastSeconds = (System.nanoTime() - start) / 1e9;
+        recordsAtLastSnapshot = records;
+        snapshots.increment();
+        logger.info("Wrote snapshot {}: {} players and {} games, {} bytes in {} ms ({} entities/s, {} MB/s); "
+                + "folded {} journal records, deleted {} segments, {} ms in total",
+            snapshot.getFile(), snapshot.getPlayerCount(), snapshot.getGameCount(), snapshot.getSize(),
+            TimeUnit.NANOSECONDS.toMillis(writeNanos), Math.round(entities / writeSeconds),
+            String.format("%.1f", snapshot.getSize() / writeSeconds / (1024 * 1024)), folded, deleted,
+            Math.round(lastSeconds * 1000));
+        return snapshot;
+    }
+
+    public int getLoadThreads() {
+        return loadThreads;
+    }
+
+    public long getSnapshotCount() {
+        return snapshots.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("journal.snapshots", snapshots, LongAdder::sum)
+            .description("Snapshots written")
+            .register(registry);
+        FunctionCounter.builder("journal.snapshot.failures", failures, LongAdder::sum)
+            .description("Snapshots that failed")
+            .register(registry);
+        Gauge.builder("journal.snapshot.size", this, snapshotter -> snapshotter.lastSize)
+            .description("Size of the last snapshot")
+            .baseUnit("bytes")
+            .register(registry);
+        Gauge.builder("journal.snapshot.entities", this, snapshotter -> snapshotter.lastEntities)
+            .description("Players and games in the last snapshot")
+            .register(registry);
+        Gauge.builder("journal.snapshot.duration", this, snapshotter -> snapshotter.lastSeconds)
+            .description("Time taken by the last snapshot, folding included")
+            .baseUnit("seconds")
+            .register(registry);
+    }
+
+    // Stop the schedule and, for a fast next start, snapshot whatever changed since
+    // the last one. Runs before the journal closes, since this bean depends on it.
+    @Override
+    public void destroy() {
+        ScheduledExecutorService running;
+        boolean recovered;
+        synchronized (this) {
+            running = scheduler;
+            recovered = started;
+        }
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (snapshotOnShutdown && recovered) {
+            snapshotIfChanged();
+        }
+    }
+}
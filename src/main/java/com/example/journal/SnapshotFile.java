@@ -0,0 +1,460 @@
+package com.example.journal;
+
+import com.example.model.Game;
+import com.example.model.Move;
+import com.example.model.Player;
+import com.example.model.PlayerStats;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Point-in-time image of every player and game, equivalent to replaying all journal
+// segments numbered below coveredSegment. Layout:
+//   header: [long magic][int version][long coveredSegment][int players][int games]
+//   chunks: [byte kind][int count][int body length][body][int CRC32 of body] ...
+// All player chunks come before the game chunks. Chunks are independent, so they
+// are decoded in parallel on load; players first, since games link to them.
+// Players that were deleted but still appear in a game are written unregistered:
+// they are linked into their games but not put back into the player store.
+public final class SnapshotFile {
+
+    private static final long MAGIC = 0x5454_5453_4E41_5031L; // "TTTSNAP1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES + 2 * Integer.BYTES;
+    private static final int CHUNK_HEADER_BYTES = 1 + 2 * Integer.BYTES;
+
+    private static final byte PLAYER_CHUNK = 1;
+    private static final byte GAME_CHUNK = 2;
+
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+
+    private static final Game.GameStatus[] STATUSES = Game.GameStatus.values();
+
+    private final Path file;
+    private final long coveredSegment;
+    private final int playerCount;
+    private final int gameCount;
+    private final long size;
+
+    private SnapshotFile(Path file, long coveredSegment, int playerCount, int gameCount, long size) {
+        this.file = file;
+        this.coveredSegment = coveredSegment;
+        this.playerCount = playerCount;
+        this.gameCount = gameCount;
+        this.size = size;
+    }
+
+    static Path fileFor(Path directory, long coveredSegment) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, coveredSegment, SUFFIX));
+    }
+
+    // Covered segment numbers of the snapshots in the directory, in ascending order
+    static List<Long> coveredSegments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                .sorted()
+                .toList();
+        }
+    }
+
+    // First segment not covered by the latest snapshot, or 1 without one
+    static long latestCoveredSegment(Path directory) throws IOException {
+        List<Long> covered = coveredSegments(directory);
+        return covered.isEmpty() ? 1 : covered.get(covered.size() - 1);
+    }
+
+    // Write the players and games to the file via a temporary file and an atomic
+    // rename, so a crash mid-write never leaves a partial snapshot behind
+    static SnapshotFile write(Path file, long coveredSegment, Collection<Player> players, Collection<Game> games,
+                              int chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Snapshot chunk size must be positive");
+        }
+        Map<String, Player> written = new LinkedHashMap<>();
+        for (Player player : players) {
+            written.put(player.getId(), player);
+        }
+        Set<String> registered = new HashSet<>(written.keySet());
+        for (Game game : games) {
+            for (Player player : game.getPlayers()) {
+                written.putIfAbsent(player.getId(), player);
+            }
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        long size;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putLong(MAGIC).putInt(VERSION).putLong(coveredSegment)
+                .putInt(written.size()).putInt(games.size()).flip();
+            writeFully(channel, header);
+
+            List<ByteBuffer> records = new ArrayList<>(chunkSize);
+            for (Player player : written.values()) {
+                records.add(encodePlayer(player, registered.contains(player.getId())));
+                if (records.size() == chunkSize) {
+                    writeChunk(channel, PLAYER_CHUNK, records);
+                }
+            }
+            writeChunk(channel, PLAYER_CHUNK, records);
+            for (Game game : games) {
+                records.add(encodeGame(game));
+                if (records.size() == chunkSize) {
+                    writeChunk(channel, GAME_CHUNK, records);
+                }
+            }
+            writeChunk(channel, GAME_CHUNK, records);
+            channel.force(true);
+            size = channel.size();
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new SnapshotFile(file, coveredSegment, written.size(), games.size(), size);
+    }
+
+    // Load the snapshot into the services, decoding chunks on the given number of
+    // threads. Fails with IllegalStateException if the file is damaged.
+    static SnapshotFile load(Path file, PlayerService playerService, GameService gameService,
+                             int threads) throws IOException {
+        List<Chunk> playerChunks = new ArrayList<>();
+        List<Chunk> gameChunks = new ArrayList<>();
+        long coveredSegment;
+        int playerCount;
+        int gameCount;
+        long size;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            size = channel.size();
+            ByteBuffer header = readAt(channel, 0, HEADER_BYTES, file);
+            if (header.getLong() != MAGIC || header.getInt() != VERSION) {
+                throw new IllegalStateException("Not a snapshot file: " + file);
+            }
+            coveredSegment = header.getLong();
+            playerCount = header.getInt();
+            gameCount = header.getInt();
+
+            // Only the chunk headers are read here; the bodies are mapped, not copied
+            long position = HEADER_BYTES;
+            while (position < size) {
+                ByteBuffer chunkHeader = readAt(channel, position, CHUNK_HEADER_BYTES, file);
+                byte kind = chunkHeader.get();
+                int count = chunkHeader.getInt();
+                int length = chunkHeader.getInt();
+                long bodyStart = position + CHUNK_HEADER_BYTES;
+                if (length < 0 || bodyStart + length + Integer.BYTES > size) {
+                    throw new IllegalStateException("Truncated snapshot chunk in " + file);
+                }
+                Chunk chunk = new Chunk(count, channel.map(FileChannel.MapMode.READ_ONLY, bodyStart,
+                    length + Integer.BYTES));
+                if (kind == PLAYER_CHUNK) {
+                    playerChunks.add(chunk);
+                } else if (kind == GAME_CHUNK) {
+                    gameChunks.add(chunk);
+                } else {
+                    throw new IllegalStateException("Unknown snapshot chunk kind " + kind + " in " + file);
+                }
+                position = bodyStart + length + Integer.BYTES;
+            }
+        }
+
+        Map<String, Player> players = new ConcurrentHashMap<>(playerCount);
+        AtomicInteger playersLoaded = new AtomicInteger();
+        AtomicInteger gamesLoaded = new AtomicInteger();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            runAll(executor, playerChunks, chunk -> {
+                ByteBuffer body = chunk.verifiedBody(file);
+                for (int i = 0; i < chunk.count; i++) {
+                    boolean registered = body.get() != 0;
+                    Player player = decodePlayer(body);
+                    players.put(player.getId(), player);
+                    if (registered) {
+                        playerService.restorePlayer(player);
+                    }
+                }
+                playersLoaded.addAndGet(chunk.count);
+            });
+            runAll(executor, gameChunks, chunk -> {
+                ByteBuffer body = chunk.verifiedBody(file);
+                for (int i = 0; i < chunk.count; i++) {
+                    gameService.restoreGame(decodeGame(body, players));
+                }
+                gamesLoaded.addAndGet(chunk.count);
+            });
+        } finally {
+            executor.shutdown();
+        }
+        if (playersLoaded.get() != playerCount || gamesLoaded.get() != gameCount) {
+            throw new IllegalStateException("Snapshot " + file + " is missing chunks");
+        }
+        return new SnapshotFile(file, coveredSegment, playerCount, gameCount, size);
+    }
+
+    // Record layout: [registered][id][createdAt][updatedAt][name][email][5 int, 3 double stats]
+    private static ByteBuffer encodePlayer(Player player, boolean registered) {
+        byte[] name = JournalCodec.utf8(player.getName());
+        byte[] email = JournalCodec.utf8(player.getEmail());
+        PlayerStats stats = player.getStats();
+        ByteBuffer record = ByteBuffer.allocate(1 + JournalCodec.ID_BYTES + 2 * JournalCodec.TIME_BYTES
+            + JournalCodec.stringBytes(name) + JournalCodec.stringBytes(email)
+            + 5 * Integer.BYTES + 3 * Double.BYTES);
+        record.put((byte) (registered ? 1 : 0));
+        JournalCodec.putId(record, player.getId());
+        JournalCodec.putTime(record, player.getCreatedAt());
+        JournalCodec.putTime(record, player.getUpdatedAt());
+        JournalCodec.putString(record, name);
+        JournalCodec.putString(record, email);
+        synchronized (stats) {
+            record.putInt(stats.getGamesPlayed()).putInt(stats.getGamesWon()).putInt(stats.getGamesLost())
+                .putInt(stats.getGamesDrawn()).putInt(stats.getTotalMoves())
+                .putDouble(stats.getAverageMovesPerWin()).putDouble(stats.getWinRate())
+                .putDouble(stats.getEfficiency());
+        }
+        return record.flip();
+    }
+
+    private static Player decodePlayer(ByteBuffer body) {
+        String id = JournalCodec.getId(body);
+        Player player = new Player();
+        player.setId(id);
+        player.setCreatedAt(JournalCodec.getTime(body));
+        player.setUpdatedAt(JournalCodec.getTime(body));
+        player.setName(JournalCodec.getString(body));
+        player.setEmail(JournalCodec.getString(body));
+        player.setStats(new PlayerStats(body.getInt(), body.getInt(), body.getInt(), body.getInt(), body.getInt(),
+            body.getDouble(), body.getDouble(), body.getDouble()));
+        return player;
+    }
+
+    // Record layout: [id][status][createdAt][updatedAt][name][player count][player ids]
+    // [current player index][winner index][move count][moves: player index, position, time]
+    // The board is not stored; it is rebuilt from the moves.
+    private static ByteBuffer encodeGame(Game game) {
+        byte[] name = JournalCodec.utf8(game.getName());
+        List<Player> players = game.getPlayers();
+        List<Move> moves = game.getMoves();
+        ByteBuffer record = ByteBuffer.allocate(JournalCodec.ID_BYTES + 1 + 2 * JournalCodec.TIME_BYTES
+            + JournalCodec.stringBytes(name) + 1 + players.size() * JournalCodec.ID_BYTES + 3
+            + moves.size() * (2 + JournalCodec.TIME_BYTES));
+        JournalCodec.putId(record, game.getId());
+        record.put((byte) game.getStatus().ordinal());
+        JournalCodec.putTime(record, game.getCreatedAt());
+        JournalCodec.putTime(record, game.getUpdatedAt());
+        JournalCodec.putString(record, name);
+        record.put((byte) players.size());
+        for (Player player : players) {
+            JournalCodec.putId(record, player.getId());
+        }
+        record.put((byte) players.indexOf(game.getCurrentPlayer()));
+        record.put((byte) players.indexOf(game.getWinner()));
+        record.put((byte) moves.size());
+        for (Move move : moves) {
+            record.put((byte) indexOf(players, move.getPlayerId()));
+            record.put((byte) move.getPosition());
+            JournalCodec.putTime(record, move.getCreatedAt());
+        }
+        return record.flip();
+    }
+
+    private static Game decodeGame(ByteBuffer body, Map<String, Player> playersById) {
+        String id = JournalCodec.getId(body);
+        Game game = new Game();
+        game.setId(id);
+        game.setStatus(STATUSES[body.get()]);
+        game.setCreatedAt(JournalCodec.getTime(body));
+        game.setUpdatedAt(JournalCodec.getTime(body));
+        game.setName(JournalCodec.getString(body));
+        int playerCount = body.get();
+        List<Player> players = new ArrayList<>(2);
+        for (int i = 0; i < playerCount; i++) {
+            String playerId = JournalCodec.getId(body);
+            Player player = playersById.get(playerId);
+            if (player == null) {
+                throw new IllegalStateException("Snapshot game " + id + " refers to unknown player " + playerId);
+            }
+            players.add(player);
+        }
+        game.setPlayers(players);
+        int current = body.get();
+        int winner = body.get();
+        game.setCurrentPlayer(current < 0 ? null : players.get(current));
+        game.setWinner(winner < 0 ? null : players.get(winner));
+
+        int moveCount = body.get();
+        List<Move> moves = new ArrayList<>(moveCount);
+        List<String> board = new ArrayList<>(game.getBoard());
+        for (int i = 0; i < moveCount; i++) {
+            int playerIndex = body.get();
+            int position = body.get();
+            Player player = players.get(playerIndex);
+            String symbol = playerIndex == 0 ? "X" : "O";
+            Move move = new Move(id, player.getId(), position / 3, position % 3, i + 1);
+            move.setGame(game);
+            move.setPlayer(player);
+            move.setPosition(position);
+            move.setSymbol(symbol);
+            move.setCreatedAt(JournalCodec.getTime(body));
+            moves.add(move);
+            board.set(position, symbol);
+        }
+        game.setMoves(moves);
+        game.setBoard(board);
+        game.restoreDerivedState();
+        return game;
+    }
+
+    private static int indexOf(List<Player> players, String playerId) {
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i).getId().equals(playerId)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Move by a player who is not in the game");
+    }
+
+    // Write the collected records as one chunk and clear the list
+    private static void writeChunk(FileChannel channel, byte kind, List<ByteBuffer> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        int length = 0;
+        CRC32 crc = new CRC32();
+        for (ByteBuffer record : records) {
+            length += record.remaining();
+            crc.update(record.duplicate());
+        }
+        ByteBuffer[] buffers = new ByteBuffer[records.size() + 2];
+        buffers[0] = ByteBuffer.allocate(CHUNK_HEADER_BYTES).put(kind).putInt(records.size()).putInt(length).flip();
+        for (int i = 0; i < records.size(); i++) {
+            buffers[i + 1] = records.get(i);
+        }
+        buffers[buffers.length - 1] = ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue()).flip();
+        long total = CHUNK_HEADER_BYTES + (long) length + Integer.BYTES;
+        long written = 0;
+        while (written < total) {
+            written += channel.write(buffers);
+        }
+        records.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalStateException("Truncated snapshot file " + file);
+            }
+        }
+        return buffer.flip();
+    }
+
+    // Run the task for every chunk on the executor and wait for all of them
+    private static void runAll(ExecutorService executor, List<Chunk> chunks, ChunkTask task) throws IOException {
+        List<Future<Void>> futures = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            Callable<Void> callable = () -> {
+                task.load(chunk);
+                return null;
+            };
+            futures.add(executor.submit(callable));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading snapshot");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getCoveredSegment() {
+        return coveredSegment;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    private interface ChunkTask {
+        void load(Chunk chunk);
+    }
+
+    private static final class Chunk {
+        private final int count;
+        // Body followed by its CRC32
+        private final MappedByteBuffer mapped;
+
+        private Chunk(int count, MappedByteBuffer mapped) {
+            this.count = count;
+            this.mapped = mapped;
+        }
+
+        private ByteBuffer verifiedBody(Path file) {
+            int length = mapped.capacity() - Integer.BYTES;
+            ByteBuffer body = mapped.slice(0, length);
+            CRC32 crc = new CRC32();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != mapped.getInt(length)) {
+                throw new IllegalStateException("Corrupt snapshot chunk in " + file);
+            }
+            return body;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Stores the nine board cells as one CHAR(9) column, e.g. "XO-X-----", instead of
+// one game_board row per occupied cell. A missing value reads as an empty board.
+@Converter
+public class BoardConverter implements AttributeConverter<List<String>, String> {
+
+    private static final int CELLS = 9;
+    private static final char EMPTY = '-';
+
+    @Override
+    public String convertToDatabaseColumn(List<String> board) {
+        if (board == null) {
+            return null;
+        }
+        char[] cells = new char[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            String cell = i < board.size() ? board.get(i) : null;
+            cells[i] = cell == null ? EMPTY : cell.charAt(0);
+        }
+        return new String(cells);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(String column) {
+        List<String> board = new ArrayList<>(CELLS);
+        for (int i = 0; i < CELLS; i++) {
+            char cell = column != null && i < column.length() ? column.charAt(i) : EMPTY;
+            board.add(cell == 'X' ? "X" : cell == 'O' ? "O" : null);
+        }
+        return board;
+    }
+}
@@ -13,13 +13,18 @@ import jakarta.validation.constraints.Pattern;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Entity
-@Table(name = "games")
+// Newest-first orders for the cursor-paginated game listing, overall and by status
+@Table(name = "games", indexes = {
+    @Index(name = "idx_games_created", columnList = "created_at DESC, id"),
+    @Index(name = "idx_games_status_created", columnList = "status, created_at DESC, id")
+})
 public class Game {
     
+    // Assigned in the constructor so a game has its identity before it is stored
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
     
     @NotBlank(message = "Game name is required")
@@ -33,13 +38,29 @@ public class Game {
     @Column(nullable = false)
     private GameStatus status = GameStatus.WAITING;
     
+    // Packed into one column; every change to the board also changes updatedAt, so
+    // the row is always dirty and rewritten with it
     @NotNull(message = "Game board is required")
     @Size(min = 9, max = 9, message = "Game board must have exactly 9 cells")
-    @ElementCollection
-    @CollectionTable(name = "game_board", joinColumns = @JoinColumn(name = "game_id"))
-    @Column(name = "cell_value")
+    @Convert(converter = BoardConverter.class)
+    @Column(name = "board", length = 9)
     private List<String> board = new ArrayList<>();
     
+    // Bitboards: bit i is set when cell i holds that side's mark. These are the
+    // authoritative board state; the board list above mirrors them for JPA and JSON.
+    @Transient
+    @JsonIgnore
+    private int xMask;
+    
+    @Transient
+    @JsonIgnore
+    private int oMask;
+    
+    // Latest immutable view of this game, republished after every state change
+    @Transient
+    @JsonIgnore
+    private final AtomicReference<GameSnapshot> snapshot = new AtomicReference<>();
+    
     @NotNull(message = "Players list is required")
     @Size(max = 2, message = "A game can have at most 2 players")
     @ManyToMany
@@ -48,6 +69,7 @@ public class Game {
         joinColumns = @JoinColumn(name = "game_id"),
         inverseJoinColumns = @JoinColumn(name = "player_id")
     )
+    @OrderColumn(name = "player_order")
     private List<Player> players = new ArrayList<>();
     
     @ManyToOne
@@ -58,7 +80,9 @@ public class Game {
     @JoinColumn(name = "winner_id")
     private Player winner;
     
-    @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    // Packed into one column like the board, in move order
+    @Convert(converter = MoveHistoryConverter.class)
+    @Column(name = "move_history")
     @JsonIgnore
     private List<Move> moves = new ArrayList<>();
     
@@ -72,6 +96,30 @@ public class Game {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // All nine cells occupied
+    private static final int FULL_BOARD = 0x1FF;
+    
+    // Rows, columns and diagonals as cell masks
+    private static final int[] WIN_MASKS = {
+        0b000_000_111, 0b000_111_000, 0b111_000_000, // rows
+        0b001_001_001, 0b010_010_010, 0b100_100_100, // columns
+        0b100_010_001, 0b001_010_100                 // diagonals
+    };
+    
+    // WINNING[mask] is true when the mask contains any line; a single lookup per move
+    private static final boolean[] WINNING = new boolean[FULL_BOARD + 1];
+    
+    static {
+        for (int mask = 0; mask <= FULL_BOARD; mask++) {
+            for (int line : WIN_MASKS) {
+                if ((mask & line) == line) {
+                    WINNING[mask] = true;
+                    break;
+                }
+            }
+        }
+    }
+    
     // Game status enum
     public enum GameStatus {
         WAITING,    // Waiting for players to join
@@ -82,16 +130,17 @@ public class Game {
     
     // Default constructor
     public Game() {
-        this.id = java.util.UUID.randomUUID().toString();
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
-        initializeBoard();
+        this(null);
     }
     
     // Constructor with name
     public Game(String name) {
-        this();
+        this.id = java.util.UUID.randomUUID().toString();
         this.name = name;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+        initializeBoard();
+        publishSnapshot();
     }
     
     // Initialize empty 3x3 board
@@ -100,6 +149,53 @@ public class Game {
         for (int i = 0; i < 9; i++) {
             this.board.add(null);
         }
+        this.xMask = 0;
+        this.oMask = 0;
+    }
+    
+    // Rebuild derived state once a loaded game's players are initialized: pad the
+    // board to nine cells, link the moves to this game and to the player who made
+    // them (X is the first player), and rebuild the bitboards.
+    public void restoreDerivedState() {
+        if (board == null) {
+            board = new ArrayList<>();
+        }
+        while (board.size() < 9) {
+            board.add(null);
+        }
+        if (moves == null) {
+            moves = new ArrayList<>();
+        }
+        for (Move move : moves) {
+            int index = "X".equals(move.getSymbol()) ? 0 : 1;
+            Player player = index < players.size() ? players.get(index) : null;
+            move.setGame(this);
+            move.setGameId(id);
+            if (player != null) {
+                move.setPlayer(player);
+                move.setPlayerId(player.getId());
+            }
+        }
+        syncMasksFromBoard();
+        publishSnapshot();
+    }
+    
+    // Rebuild the bitboards from the board list (after JPA load or deserialization)
+    private void syncMasksFromBoard() {
+        int x = 0;
+        int o = 0;
+        if (board != null) {
+            for (int i = 0; i < board.size() && i < 9; i++) {
+                String cell = board.get(i);
+                if ("X".equals(cell)) {
+                    x |= 1 << i;
+                } else if ("O".equals(cell)) {
+                    o |= 1 << i;
+                }
+            }
+        }
+        this.xMask = x;
+        this.oMask = o;
     }
     
     // Add player to game
@@ -114,6 +210,7 @@ public class Game {
                 status = GameStatus.ACTIVE;
                 currentPlayer = players.get(0); // First player starts
             }
+            publishSnapshot();
             return true;
         }
         return false;
@@ -129,16 +226,24 @@ public class Game {
             return false; // Not player's turn
         }
         
-        if (position < 0 || position >= 9 || board.get(position) != null) {
+        if (position < 0 || position >= 9 || ((xMask | oMask) & (1 << position)) != 0) {
             return false; // Invalid position
         }
         
         // Make the move
-        String symbol = players.indexOf(player) == 0 ? "X" : "O";
+        boolean isX = player.equals(players.get(0));
+        String symbol = isX ? "X" : "O";
+        int bit = 1 << position;
+        int mask;
+        if (isX) {
+            mask = xMask |= bit;
+        } else {
+            mask = oMask |= bit;
+        }
         board.set(position, symbol);
         
         // Create move record
-        Move move = new Move();
+        Move move = new Move(id, player.getId(), position / 3, position % 3, moves.size() + 1);
         move.setGame(this);
         move.setPlayer(player);
         move.setPosition(position);
@@ -146,7 +251,7 @@ public class Game {
         moves.add(move);
         
         // Check for win or draw
-        if (checkWin(symbol)) {
+        if (checkWin(mask)) {
             status = GameStatus.COMPLETED;
             winner = player;
             // Update stats for completed game
@@ -165,52 +270,37 @@ public class Game {
             players.forEach(p -> p.getStats().incrementGamesDrawn());
         } else {
             // Switch turns
-            currentPlayer = players.get((players.indexOf(currentPlayer) + 1) % 2);
+            currentPlayer = isX ? players.get(1) : players.get(0);
         }
         
         updatedAt = LocalDateTime.now();
+        publishSnapshot();
         return true;
     }
     
-    // Check if a player has won
-    private boolean checkWin(String symbol) {
-        // Check rows
-        for (int i = 0; i < 9; i += 3) {
-            if (board.get(i) != null && board.get(i).equals(symbol) &&
-                board.get(i + 1) != null && board.get(i + 1).equals(symbol) &&
-                board.get(i + 2) != null && board.get(i + 2).equals(symbol)) {
-                return true;
-            }
-        }
-        
-        // Check columns
-        for (int i = 0; i < 3; i++) {
-            if (board.get(i) != null && board.get(i).equals(symbol) &&
-                board.get(i + 3) != null && board.get(i + 3).equals(symbol) &&
-                board.get(i + 6) != null && board.get(i + 6).equals(symbol)) {
-                return true;
-            }
-        }
-        
-        // Check diagonals
-        if (board.get(0) != null && board.get(0).equals(symbol) &&
-            board.get(4) != null && board.get(4).equals(symbol) &&
-            board.get(8) != null && board.get(8).equals(symbol)) {
-            return true;
-        }
-        
-        if (board.get(2) != null && board.get(2).equals(symbol) &&
-            board.get(4) != null && board.get(4).equals(symbol) &&
-            board.get(6) != null && board.get(6).equals(symbol)) {
-            return true;
-        }
-        
-        return false;
+    // Check if a side's bitboard contains a winning line
+    private static boolean checkWin(int mask) {
+        return WINNING[mask];
     }
     
     // Check if game is a draw
     private boolean checkDraw() {
-        return board.stream().allMatch(cell -> cell != null);
+        return (xMask | oMask) == FULL_BOARD;
+    }
+    
+    // Publish a new snapshot of the current state. Callers mutate the game under
+    // its lock, so a plain set is enough to keep versions strictly increasing.
+    public void publishSnapshot() {
+        GameSnapshot previous = snapshot.get();
+        long version = previous == null ? 1 : previous.getVersion() + 1;
+        snapshot.set(new GameSnapshot(version, id, name, status, xMask, oMask, players,
+            currentPlayer, winner, moves.size(), createdAt, updatedAt));
+    }
+    
+    // Latest published snapshot; safe to read without holding the game lock
+    @JsonIgnore
+    public GameSnapshot getSnapshot() {
+        return snapshot.get();
     }
     
     // Getters and Setters
@@ -244,6 +334,19 @@ public class Game {
     
     public void setBoard(List<String> board) {
         this.board = board;
+        syncMasksFromBoard();
+    }
+    
+    // Bitboard of cells held by X (first player)
+    @JsonIgnore
+    public int getXMask() {
+        return xMask;
+    }
+    
+    // Bitboard of cells held by O (second player)
+    @JsonIgnore
+    public int getOMask() {
+        return oMask;
     }
     
     public List<Player> getPlayers() {
@@ -293,4 +396,17 @@ public class Game {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    // Identity is the id, so copies loaded by different persistence contexts compare equal
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Game)) return false;
+        return id != null && id.equals(((Game) o).getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
 }
@@ -0,0 +1,121 @@
+package com.example.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+// Immutable, versioned view of a game's state. A new snapshot is published by Game
+// after every state change, so readers get a consistent view without locking.
+@JsonPropertyOrder({"id", "name", "status", "board", "players", "currentPlayer", "winner", "createdAt", "updatedAt", "moveCount", "version"})
+public final class GameSnapshot {
+
+    private final long version;
+    private final String id;
+    private final String name;
+    private final Game.GameStatus status;
+    private final Board board;
+    private final List<Player> players;
+    private final Player currentPlayer;
+    private final Player winner;
+    private final int moveCount;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private final LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private final LocalDateTime updatedAt;
+
+    public GameSnapshot(long version, String id, String name, Game.GameStatus status,
+                        int xMask, int oMask, List<Player> players, Player currentPlayer,
+                        Player winner, int moveCount, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.version = version;
+        this.id = id;
+        this.name = name;
+        this.status = status;
+        this.board = new Board(xMask, oMask);
+        this.players = List.copyOf(players);
+        this.currentPlayer = currentPlayer;
+        this.winner = winner;
+        this.moveCount = moveCount;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters
+    public long getVersion() {
+        return version;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Game.GameStatus getStatus() {
+        return status;
+    }
+
+    public List<String> getBoard() {
+        return board;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public Player getWinner() {
+        return winner;
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // Read-only list view over a pair of bitboards, so publishing a snapshot
+    // never copies the board cell by cell
+    private static final class Board extends AbstractList<String> implements RandomAccess {
+        private final int xMask;
+        private final int oMask;
+
+        private Board(int xMask, int oMask) {
+            this.xMask = xMask;
+            this.oMask = oMask;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < 0 || index >= 9) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            int bit = 1 << index;
+            if ((xMask & bit) != 0) {
+                return "X";
+            }
+            return (oMask & bit) != 0 ? "O" : null;
+        }
+
+        @Override
+        public int size() {
+            return 9;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.model;
+
+import java.util.List;
+
+// Results of a move batch, one per submitted move and in the same order, with
+// totals so clients can skip scanning a batch that fully succeeded
+public class MoveBatchResult {
+
+    private List<MoveResult> results;
+    private int accepted;
+    private int failed;
+
+    public MoveBatchResult() {}
+
+    public MoveBatchResult(List<MoveResult> results) {
+        this.results = results;
+        this.accepted = (int) results.stream()
+            .filter(result -> result.getStatus() == MoveResult.Status.ACCEPTED)
+            .count();
+        this.failed = results.size() - accepted;
+    }
+
+    public List<MoveResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<MoveResult> results) {
+        this.results = results;
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public void setAccepted(int accepted) {
+        this.accepted = accepted;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+}
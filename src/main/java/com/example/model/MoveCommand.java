@@ -0,0 +1,42 @@
+package com.example.model;
+
+// One move of a batch: which game, for which player, where. Checked item by item
+// when the batch is applied, so a bad entry fails on its own instead of the batch.
+public class MoveCommand {
+
+    private String gameId;
+    private String playerId;
+    private Integer position;
+
+    public MoveCommand() {}
+
+    public MoveCommand(String gameId, String playerId, Integer position) {
+        this.gameId = gameId;
+        this.playerId = playerId;
+        this.position = position;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    public void setPlayerId(String playerId) {
+        this.playerId = playerId;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+}
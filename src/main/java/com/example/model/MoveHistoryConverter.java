@@ -0,0 +1,65 @@
+package com.example.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Stores a game's moves as one column instead of one moves row per move. Each move
+// is its position, its symbol and its time in epoch microseconds (the precision the
+// moves table kept), comma separated in move order: "4X1700000000123456,0O...".
+// The game, player and player id are not stored; Game.restoreDerivedState links
+// them from the symbol once the game's players are loaded.
+@Converter
+public class MoveHistoryConverter implements AttributeConverter<List<Move>, String> {
+
+    private static final char SEPARATOR = ',';
+
+    @Override
+    public String convertToDatabaseColumn(List<Move> moves) {
+        if (moves == null || moves.isEmpty()) {
+            return null;
+        }
+        StringBuilder column = new StringBuilder(moves.size() * 19);
+        for (Move move : moves) {
+            if (column.length() > 0) {
+                column.append(SEPARATOR);
+            }
+            LocalDateTime time = move.getCreatedAt();
+            long micros = time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1000;
+            column.append(move.getPosition()).append(move.getSymbol()).append(micros);
+        }
+        return column.toString();
+    }
+
+    @Override
+    public List<Move> convertToEntityAttribute(String column) {
+        List<Move> moves = new ArrayList<>();
+        if (column == null || column.isEmpty()) {
+            return moves;
+        }
+        int start = 0;
+        while (start < column.length()) {
+            int end = column.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = column.length();
+            }
+            int position = column.charAt(start) - '0';
+            long micros = Long.parseLong(column, start + 2, end, 10);
+            Move move = new Move();
+            move.setPosition(position);
+            move.setRow(position / 3);
+            move.setCol(position % 3);
+            move.setMoveNumber(moves.size() + 1);
+            move.setSymbol(String.valueOf(column.charAt(start + 1)));
+            move.setCreatedAt(LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1000, ZoneOffset.UTC));
+            moves.add(move);
+            start = end + 1;
+        }
+        return moves;
+    }
+}
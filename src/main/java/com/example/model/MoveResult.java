@@ -0,0 +1,68 @@
+package com.example.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Outcome of one move of a batch, at the move's index in the request. message
+// explains any status other than ACCEPTED.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MoveResult {
+
+    public enum Status {
+        // Applied
+        ACCEPTED,
+        // Well-formed but not applied, e.g. the position is taken
+        REJECTED,
+        // Bad input, unknown game or a player not in the game
+        INVALID,
+        // Not allowed in the game's current state, e.g. out of turn
+        CONFLICT,
+        // Failed unexpectedly
+        ERROR
+    }
+
+    private int index;
+    private String gameId;
+    private Status status;
+    private String message;
+
+    public MoveResult() {}
+
+    public MoveResult(int index, String gameId, Status status, String message) {
+        this.index = index;
+        this.gameId = gameId;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -11,11 +12,15 @@ import jakarta.validation.constraints.NotNull;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "players")
+// The two leaderboard orders, so pages are read by seeking instead of sorting
+@Table(name = "players", indexes = {
+    @Index(name = "idx_players_win_rate", columnList = "win_rate DESC, games_won DESC, id"),
+    @Index(name = "idx_players_wins", columnList = "games_won DESC, win_rate DESC, id")
+})
 public class Player {
     
+    // Assigned in the constructor so a player has its identity before it is stored
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
     
     @NotBlank(message = "Player name is required")
@@ -30,6 +35,11 @@ public class Player {
     @Column(nullable = false, unique = true)
     private String email;
     
+    // Normalized email, unique across players; set by PlayerService
+    @JsonIgnore
+    @Column(name = "email_key", unique = true)
+    private String emailKey;
+    
     @NotNull(message = "Player stats are required")
     @Embedded
     private PlayerStats stats;
@@ -44,6 +54,12 @@ public class Player {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // Optimistic lock: concurrent games finishing for the same player retry
+    // instead of overwriting each other's stats
+    @Version
+    @JsonIgnore
+    private Long version;
+    
     // Default constructor
     public Player() {
         this.id = java.util.UUID.randomUUID().toString();
@@ -84,6 +100,15 @@ public class Player {
         this.email = email;
     }
     
+    @JsonIgnore
+    public String getEmailKey() {
+        return emailKey;
+    }
+    
+    public void setEmailKey(String emailKey) {
+        this.emailKey = emailKey;
+    }
+    
     public PlayerStats getStats() {
         return stats;
     }
@@ -107,10 +132,32 @@ public class Player {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
-    
+
+    @JsonIgnore
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Update timestamp when entity is modified
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
+    
+    // Identity is the id, so copies loaded by different persistence contexts compare equal
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Player)) return false;
+        return id != null && id.equals(((Player) o).getId());
+    }
+    
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
 }
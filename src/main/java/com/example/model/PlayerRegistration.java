@@ -0,0 +1,32 @@
+package com.example.model;
+
+// One player of a bulk registration. Checked item by item as the import is read,
+// so a bad entry fails on its own instead of the import.
+public class PlayerRegistration {
+
+    private String name;
+    private String email;
+
+    public PlayerRegistration() {}
+
+    public PlayerRegistration(String name, String email) {
+        this.name = name;
+        this.email = email;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
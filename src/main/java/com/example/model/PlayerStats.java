@@ -117,28 +117,29 @@ public class PlayerStats {
         this.efficiency = efficiency;
     }
     
-    // Helper methods to update stats
-    public void incrementGamesPlayed() {
+    // Helper methods to update stats. A player can finish several games at once,
+    // so updates are synchronized to avoid lost increments.
+    public synchronized void incrementGamesPlayed() {
         this.gamesPlayed++;
         updateWinRate();
     }
     
-    public void incrementGamesWon() {
+    public synchronized void incrementGamesWon() {
         this.gamesWon++;
         updateWinRate();
     }
     
-    public void incrementGamesLost() {
+    public synchronized void incrementGamesLost() {
         this.gamesLost++;
         updateWinRate();
     }
     
-    public void incrementGamesDrawn() {
+    public synchronized void incrementGamesDrawn() {
         this.gamesDrawn++;
         updateWinRate();
     }
     
-    public void addMoves(int moves) {
+    public synchronized void addMoves(int moves) {
         this.totalMoves += moves;
         updateAverageMovesPerWin();
     }
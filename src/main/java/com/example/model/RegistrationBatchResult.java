@@ -0,0 +1,60 @@
+package com.example.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+// Results of a bulk registration, one per player read and in input order, with
+// totals. error is set when the import stopped early (unreadable input or too
+// many players); the players before that point are registered as reported.
+public class RegistrationBatchResult {
+
+    private List<RegistrationResult> results;
+    private int created;
+    private int failed;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public RegistrationBatchResult() {}
+
+    public RegistrationBatchResult(List<RegistrationResult> results, String error) {
+        this.results = results;
+        this.created = (int) results.stream()
+            .filter(result -> result.getStatus() == RegistrationResult.Status.CREATED)
+            .count();
+        this.failed = results.size() - created;
+        this.error = error;
+    }
+
+    public List<RegistrationResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<RegistrationResult> results) {
+        this.results = results;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
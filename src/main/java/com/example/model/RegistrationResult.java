@@ -0,0 +1,76 @@
+package com.example.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Outcome of one player of a bulk registration, at its index in the input.
+// playerId is set when the player was created, message for any other status.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RegistrationResult {
+
+    public enum Status {
+        // Stored
+        CREATED,
+        // The email belongs to an existing player or appears earlier in the import
+        DUPLICATE,
+        // Missing or malformed name or email
+        INVALID,
+        // Failed unexpectedly
+        ERROR
+    }
+
+    private int index;
+    private String email;
+    private Status status;
+    private String playerId;
+    private String message;
+
+    public RegistrationResult() {}
+
+    public RegistrationResult(int index, String email, Status status, String playerId, String message) {
+        this.index = index;
+        this.email = email;
+        this.status = status;
+        this.playerId = playerId;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    public void setPlayerId(String playerId) {
+        this.playerId = playerId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
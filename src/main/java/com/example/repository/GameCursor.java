@@ -0,0 +1,78 @@
+package com.example.repository;
+
+import com.example.model.Game;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+// Position in the game listing, which runs newest first with game id breaking
+// ties: the creation time and id of the game a page ended with. Creation times
+// never change, so a page boundary stays put while games are played or added.
+// Also the key of the in-memory store's ordered indexes. Clients see it as an
+// opaque URL-safe token.
+public final class GameCursor implements Comparable<GameCursor> {
+
+    private static final byte TYPE = 'G';
+
+    private final LocalDateTime createdAt;
+    private final String gameId;
+
+    public GameCursor(LocalDateTime createdAt, String gameId) {
+        this.createdAt = createdAt;
+        this.gameId = gameId;
+    }
+
+    // Cursor just after a game
+    public static GameCursor after(Game game) {
+        return new GameCursor(game.getCreatedAt(), game.getId());
+    }
+
+    // Newest first, then by id
+    @Override
+    public int compareTo(GameCursor other) {
+        int cmp = other.createdAt.compareTo(createdAt);
+        return cmp != 0 ? cmp : gameId.compareTo(other.gameId);
+    }
+
+    public String encode() {
+        byte[] id = gameId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES + id.length)
+            .put(TYPE)
+            .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+            .putInt(createdAt.getNano())
+            .put(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    // Throws IllegalArgumentException for anything encode() did not produce
+    public static GameCursor decode(String token) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            if (buffer.get() != TYPE) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            byte[] id = new byte[buffer.remaining()];
+            buffer.get(id);
+            if (id.length == 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new GameCursor(createdAt, new String(id, StandardCharsets.UTF_8));
+        } catch (BufferUnderflowException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+}
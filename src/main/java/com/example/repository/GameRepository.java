@@ -1,17 +1,46 @@
 package com.example.repository;
 
 import com.example.model.Game;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface GameRepository extends JpaRepository<Game, String> {
     
+    // List queries that load each game's players, current player and winner in the
+    // same statement (one SQL statement however many games match, instead of one
+    // or more per game). Results are read-only: they are only turned into views.
+    
+    @Query("SELECT g FROM Game g")
+    @EntityGraph(attributePaths = {"players", "currentPlayer", "winner"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Game> findAllWithPlayers();
+    
+    @EntityGraph(attributePaths = {"players", "currentPlayer", "winner"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Game> findWithPlayersByStatus(Game.GameStatus status);
+    
+    // The player is matched in a subquery, so the fetched player lists stay complete
+    @Query("SELECT g FROM Game g WHERE g.id IN "
+        + "(SELECT pg.id FROM Game pg JOIN pg.players p WHERE p.id = :playerId)")
+    @EntityGraph(attributePaths = {"players", "currentPlayer", "winner"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Game> findWithPlayersByPlayerId(@Param("playerId") String playerId);
+    
+    @EntityGraph(attributePaths = {"players", "currentPlayer", "winner"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Game> findWithPlayersByIdIn(Collection<String> ids);
+    
     // Find games by status
     List<Game> findByStatus(Game.GameStatus status);
     
@@ -34,8 +63,11 @@ public interface GameRepository extends JpaRepository<Game, String> {
     // Find games updated in date range
     List<Game> findByUpdatedAtBetween(LocalDateTime startDate, LocalDateTime endDate);
     
-    // Find games with most moves
-    @Query("SELECT g FROM Game g ORDER BY SIZE(g.moves) DESC")
+    // Find games with most moves. Moves are packed comma-separated into the
+    // move_history column, so they are counted there rather than with SIZE().
+    @Query(value = "SELECT * FROM games ORDER BY CASE WHEN move_history IS NULL THEN 0 "
+        + "ELSE LENGTH(move_history) - LENGTH(REPLACE(move_history, ',', '')) + 1 END DESC",
+        nativeQuery = true)
     List<Game> findGamesByMoveCount();
     
     // Find games by name (case-insensitive)
@@ -0,0 +1,44 @@
+package com.example.repository;
+
+import com.example.model.Game;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Storage backend for games. GameService serializes mutations of a single game
+// (it holds the game's lock around insert, update and delete), so implementations
+// only need to be safe for concurrent access to different games and for readers.
+public interface GameStore {
+    
+    // Store a newly created game
+    void insert(Game game);
+    
+    Optional<Game> findById(String id);
+    
+    // Apply a mutation to a stored game and persist the result. Throws
+    // IllegalArgumentException if the game does not exist. The mutation may be
+    // re-run on a fresh copy if a concurrent change to its players is detected.
+    <T> T update(String id, Function<Game, T> mutation);
+    
+    boolean delete(String id);
+    
+    List<Game> findAll();
+    
+    List<Game> findByStatus(Game.GameStatus status);
+    
+    List<Game> findByPlayer(String playerId);
+    
+    // Up to limit games, newest first, starting right after the cursor (from the
+    // newest if it is null); all games if status is null
+    List<Game> findPage(Game.GameStatus status, GameCursor after, int limit);
+    
+    // Games [offset, offset + limit) in the same newest-first order
+    List<Game> findRange(Game.GameStatus status, int offset, int limit);
+    
+    long count();
+    
+    long countByStatus(Game.GameStatus status);
+    
+    void clear();
+}
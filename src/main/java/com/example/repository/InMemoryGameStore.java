@@ -0,0 +1,198 @@
+package com.example.repository;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Games held in memory. Stored games are the live objects: update() mutates them
+// in place and then refreshes the secondary indexes.
+@Component
+@ConditionalOnProperty(name = "storage.mode", havingValue = "memory", matchIfMissing = true)
+public class InMemoryGameStore implements GameStore {
+    
+    private final Map<String, Game> games = new ConcurrentHashMap<>();
+    
+    // Secondary indexes so status and player lookups cost O(result size). They are
+    // updated under the game's lock; readers re-check status to skip entries that
+    // are mid-transition between two status sets.
+    private final Map<Game.GameStatus, Set<Game>> gamesByStatus = new EnumMap<>(Game.GameStatus.class);
+    private final Map<String, Set<Game>> gamesByPlayer = new ConcurrentHashMap<>();
+    
+    // Newest-first orderings for cursor pages, overall and per status, so a page
+    // costs O(log n + page size) from any cursor. Keys never change: they are the
+    // creation time and id.
+    private final ConcurrentSkipListMap<GameCursor, Game> newestFirst = new ConcurrentSkipListMap<>();
+    private final Map<Game.GameStatus, ConcurrentSkipListMap<GameCursor, Game>> newestFirstByStatus =
+        new EnumMap<>(Game.GameStatus.class);
+    
+    public InMemoryGameStore() {
+        for (Game.GameStatus status : Game.GameStatus.values()) {
+            gamesByStatus.put(status, ConcurrentHashMap.newKeySet());
+            newestFirstByStatus.put(status, new ConcurrentSkipListMap<>());
+        }
+    }
+    
+    @Override
+    public void insert(Game game) {
+        games.put(game.getId(), game);
+        index(game);
+    }
+    
+    @Override
+    public Optional<Game> findById(String id) {
+        return Optional.ofNullable(games.get(id));
+    }
+    
+    @Override
+    public <T> T update(String id, Function<Game, T> mutation) {
+        Game game = games.get(id);
+        if (game == null) {
+            throw new IllegalArgumentException("Game not found");
+        }
+        try {
+            return mutation.apply(game);
+        } finally {
+            // Also on failure: a mutation may have changed the game before throwing
+            index(game);
+        }
+    }
+    
+    @Override
+    public boolean delete(String id) {
+        Game game = games.remove(id);
+        if (game == null) {
+            return false;
+        }
+        gamesByStatus.values().forEach(set -> set.remove(game));
+        GameCursor key = GameCursor.after(game);
+        newestFirst.remove(key);
+        newestFirstByStatus.values().forEach(ordered -> ordered.remove(key));
+        for (Player player : game.getPlayers()) {
+            gamesByPlayer.computeIfPresent(player.getId(), (playerId, playerGames) -> {
+                playerGames.remove(game);
+                return playerGames.isEmpty() ? null : playerGames;
+            });
+        }
+        return true;
+    }
+    
+    @Override
+    public List<Game> findAll() {
+        return new ArrayList<>(games.values());
+    }
+    
+    @Override
+    public List<Game> findByStatus(Game.GameStatus status) {
+        return gamesByStatus.get(status).stream()
+            .filter(game -> game.getStatus() == status)
+            .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Game> findByPlayer(String playerId) {
+        Set<Game> playerGames = gamesByPlayer.get(playerId);
+        return playerGames == null ? new ArrayList<>() : new ArrayList<>(playerGames);
+    }
+    
+    @Override
+    public List<Game> findPage(Game.GameStatus status, GameCursor after, int limit) {
+        ConcurrentSkipListMap<GameCursor, Game> ordered = ordered(status);
+        return collect(status, after == null ? ordered : ordered.tailMap(after, false), 0, limit);
+    }
+    
+    // Skipping to the offset walks the index, but never copies the games skipped
+    @Override
+    public List<Game> findRange(Game.GameStatus status, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must be non-negative");
+        }
+        return collect(status, ordered(status), offset, limit);
+    }
+    
+    private ConcurrentSkipListMap<GameCursor, Game> ordered(Game.GameStatus status) {
+        return status == null ? newestFirst : newestFirstByStatus.get(status);
+    }
+    
+    private static List<Game> collect(Game.GameStatus status, Map<GameCursor, Game> ordered, int offset, int limit) {
+        List<Game> page = new ArrayList<>(Math.min(limit, 64));
+        int skipped = 0;
+        for (Game game : ordered.values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            if (status != null && game.getStatus() != status) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(game);
+            }
+        }
+        return page;
+    }
+    
+    @Override
+    public long count() {
+        return games.size();
+    }
+    
+    // Filtered like findByStatus: a game changing status sits in both sets for a
+    // moment, and the raw set sizes would count it twice
+    @Override
+    public long countByStatus(Game.GameStatus status) {
+        return gamesByStatus.get(status).stream()
+            .filter(game -> game.getStatus() == status)
+            .count();
+    }
+    
+    @Override
+    public void clear() {
+        games.clear();
+        gamesByStatus.values().forEach(Set::clear);
+        newestFirst.clear();
+        newestFirstByStatus.values().forEach(Map::clear);
+        gamesByPlayer.clear();
+    }
+    
+    // Bring the indexes up to date with the game's current state. The game is added
+    // to its new status set before leaving the old one so it never vanishes.
+    private void index(Game game) {
+        Game.GameStatus current = game.getStatus();
+        gamesByStatus.get(current).add(game);
+        for (Map.Entry<Game.GameStatus, Set<Game>> entry : gamesByStatus.entrySet()) {
+            if (entry.getKey() != current) {
+                entry.getValue().remove(game);
+            }
+        }
+        GameCursor key = GameCursor.after(game);
+        newestFirst.put(key, game);
+        newestFirstByStatus.get(current).put(key, game);
+        for (Map.Entry<Game.GameStatus, ConcurrentSkipListMap<GameCursor, Game>> entry : newestFirstByStatus.entrySet()) {
+            if (entry.getKey() != current) {
+                entry.getValue().remove(key);
+            }
+        }
+        // Added inside compute, so a concurrent delete dropping the player's emptied
+        // set cannot leave the game in a set that is no longer in the map
+        for (Player player : game.getPlayers()) {
+            gamesByPlayer.compute(player.getId(), (playerId, playerGames) -> {
+                Set<Game> set = playerGames == null ? ConcurrentHashMap.newKeySet() : playerGames;
+                set.add(game);
+                return set;
+            });
+        }
+    }
+}
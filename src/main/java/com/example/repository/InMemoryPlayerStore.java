@@ -0,0 +1,199 @@
+package com.example.repository;
+
+import com.example.model.Player;
+import com.example.model.PlayerStats;
+import com.example.util.StripedLocks;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+// Players held in memory, with the leaderboards maintained incrementally
+@Component
+@ConditionalOnProperty(name = "storage.mode", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPlayerStore implements PlayerStore {
+    
+    private final Map<String, Player> players = new ConcurrentHashMap<>();
+    
+    // Email key -> owning player id. putIfAbsent makes the uniqueness check and the
+    // claim a single atomic step, so concurrent signups cannot both win.
+    private final Map<String, String> playerIdsByEmail = new ConcurrentHashMap<>();
+    
+    // Rankings for the two leaderboard orderings, refreshed whenever stats change
+    private final LeaderboardIndex winRateRanking = new LeaderboardIndex(LeaderboardIndex.BY_WIN_RATE);
+    private final LeaderboardIndex winsRanking = new LeaderboardIndex(LeaderboardIndex.BY_WINS);
+    
+    // Serializes profile changes, re-ranking and removal of one player
+    private final StripedLocks playerLocks = new StripedLocks(1024);
+    
+    @Override
+    public boolean insert(Player player) {
+        // Claim the email before the player becomes visible
+        if (playerIdsByEmail.putIfAbsent(player.getEmailKey(), player.getId()) != null) {
+            return false;
+        }
+        players.put(player.getId(), player);
+        return true;
+    }
+    
+    @Override
+    public boolean[] insertAll(List<Player> players) {
+        boolean[] stored = new boolean[players.size()];
+        for (int i = 0; i < stored.length; i++) {
+            stored[i] = insert(players.get(i));
+        }
+        return stored;
+    }
+    
+    @Override
+    public Optional<Player> findById(String id) {
+        return Optional.ofNullable(players.get(id));
+    }
+    
+    @Override
+    public Optional<Player> findByEmailKey(String emailKey) {
+        String playerId = playerIdsByEmail.get(emailKey);
+        return playerId == null ? Optional.empty() : Optional.ofNullable(players.get(playerId));
+    }
+    
+    @Override
+    public Set<String> findTakenEmailKeys(Collection<String> emailKeys) {
+        Set<String> taken = new HashSet<>();
+        for (String emailKey : emailKeys) {
+            if (playerIdsByEmail.containsKey(emailKey)) {
+                taken.add(emailKey);
+            }
+        }
+        return taken;
+    }
+    
+    @Override
+    public List<Player> findAll() {
+        return new ArrayList<>(players.values());
+    }
+    
+    @Override
+    public Player updateProfile(String id, String name, String email, String emailKey) {
+        Player player = players.get(id);
+        if (player == null) {
+            throw new IllegalArgumentException("Player not found");
+        }
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            // If the email is changing, claim the new one before releasing the old one
+            String oldKey = player.getEmailKey();
+            if (!emailKey.equals(oldKey)) {
+                String owner = playerIdsByEmail.putIfAbsent(emailKey, id);
+                if (owner != null && !owner.equals(id)) {
+                    throw new IllegalArgumentException("Email already in use by another player");
+                }
+                playerIdsByEmail.remove(oldKey, id);
+            }
+            
+            player.setName(name);
+            player.setEmail(email);
+            player.setEmailKey(emailKey);
+            player.setUpdatedAt(LocalDateTime.now());
+        } finally {
+            lock.unlock();
+        }
+        return player;
+    }
+    
+    @Override
+    public Player updateStats(String id, Consumer<PlayerStats> change) {
+        Player player = players.get(id);
+        if (player == null) {
+            throw new IllegalArgumentException("Player not found");
+        }
+        PlayerStats stats = player.getStats();
+        synchronized (stats) {
+            change.accept(stats);
+        }
+        statsChanged(player);
+        return player;
+    }
+    
+    @Override
+    public void statsChanged(Player player) {
+        // Serialized per player so a stale stats read can never overwrite a newer one
+        Lock lock = lockFor(player.getId());
+        lock.lock();
+        try {
+            if (!players.containsKey(player.getId())) {
+                return;
+            }
+            winRateRanking.update(player);
+            winsRanking.update(player);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @Override
+    public boolean delete(String id) {
+        Player player = players.remove(id);
+        if (player == null) {
+            return false;
+        }
+        playerIdsByEmail.remove(player.getEmailKey(), id);
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            winRateRanking.remove(id);
+            winsRanking.remove(id);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+    
+    // The lock above, for WriteBehindPlayerStore to record changes under
+    Lock lockFor(String id) {
+        return playerLocks.forKey(id);
+    }
+    
+    @Override
+    public long count() {
+        return players.size();
+    }
+    
+    @Override
+    public void clear() {
+        players.clear();
+        playerIdsByEmail.clear();
+        winRateRanking.clear();
+        winsRanking.clear();
+    }
+    
+    @Override
+    public int rankedCount() {
+        return winRateRanking.size();
+    }
+    
+    @Override
+    public List<Player> leaderboard(LeaderboardSort sort, int offset, int limit) {
+        return (sort == LeaderboardSort.WINS ? winsRanking : winRateRanking).range(offset, limit);
+    }
+    
+    @Override
+    public List<Player> leaderboardAfter(LeaderboardSort sort, LeaderboardCursor after, int limit) {
+        LeaderboardIndex ranking = sort == LeaderboardSort.WINS ? winsRanking : winRateRanking;
+        if (after == null) {
+            return ranking.range(0, limit);
+        }
+        return ranking.rangeAfter(
+            LeaderboardIndex.Ranked.key(after.getPlayerId(), after.getWinRate(), after.getWins()), limit);
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.repository;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Games stored through JPA. Every call runs in its own transaction and returns
+// detached games whose collections are already initialized, so callers never hit
+// lazy loading outside a transaction.
+@Component
+@DependsOn("legacyGameTableMigration")
+@ConditionalOnProperty(name = "storage.mode", havingValue = "jpa")
+public class JpaGameStore implements GameStore {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final GameRepository gameRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    
+    @Autowired
+    public JpaGameStore(GameRepository gameRepository, PlatformTransactionManager transactionManager) {
+        this.gameRepository = gameRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+    
+    @Override
+    public void insert(Game game) {
+        transactionTemplate.executeWithoutResult(status -> entityManager.persist(game));
+    }
+    
+    @Override
+    public Optional<Game> findById(String id) {
+        return readOnlyTemplate.execute(status -> Optional.ofNullable(entityManager.find(Game.class, id)).map(this::initialize));
+    }
+    
+    // A move on an active game may finish it and update both players' stats, so
+    // their rows are locked (in id order, to avoid deadlocks) and re-read first.
+    // Games sharing a player then queue on the row lock instead of failing the
+    // version check; the retry only covers races with profile updates.
+    @Override
+    public <T> T update(String id, Function<Game, T> mutation) {
+        return TransactionRetry.execute(transactionTemplate, status -> {
+            Game game = entityManager.find(Game.class, id);
+            if (game == null) {
+                throw new IllegalArgumentException("Game not found");
+            }
+            if (game.getStatus() == Game.GameStatus.ACTIVE) {
+                game.getPlayers().stream()
+                    .sorted(Comparator.comparing(Player::getId))
+                    .forEach(player -> entityManager.refresh(player, LockModeType.PESSIMISTIC_WRITE));
+            }
+            return mutation.apply(initialize(game));
+        });
+    }
+    
+    @Override
+    public boolean delete(String id) {
+        return transactionTemplate.execute(status -> {
+            Game game = entityManager.find(Game.class, id);
+            if (game == null) {
+                return false;
+            }
+            entityManager.remove(game);
+            return true;
+        });
+    }
+    
+    @Override
+    public List<Game> findAll() {
+        return readOnlyTemplate.execute(status -> initializeAll(gameRepository.findAllWithPlayers()));
+    }
+    
+    @Override
+    public List<Game> findByStatus(Game.GameStatus status) {
+        return readOnlyTemplate.execute(tx -> initializeAll(gameRepository.findWithPlayersByStatus(status)));
+    }
+    
+    @Override
+    public List<Game> findByPlayer(String playerId) {
+        return readOnlyTemplate.execute(status -> initializeAll(gameRepository.findWithPlayersByPlayerId(playerId)));
+    }
+    
+    // Two statements: a keyset query for the page's ids, which the database can
+    // serve from the (created_at, id) order without reading skipped rows, then the
+    // games with their players. Limiting the fetch-joined query directly would make
+    // Hibernate paginate in memory.
+    @Override
+    public List<Game> findPage(Game.GameStatus status, GameCursor after, int limit) {
+        return findOrdered(status, after, 0, limit);
+    }
+    
+    // As findPage, with the database skipping to the offset
+    @Override
+    public List<Game> findRange(Game.GameStatus status, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must be non-negative");
+        }
+        return findOrdered(status, null, offset, limit);
+    }
+    
+    private List<Game> findOrdered(Game.GameStatus status, GameCursor after, int offset, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        return readOnlyTemplate.execute(tx -> {
+            StringBuilder jpql = new StringBuilder("SELECT g.id FROM Game g WHERE 1 = 1");
+            if (status != null) {
+                jpql.append(" AND g.status = :status");
+            }
+            if (after != null) {
+                jpql.append(" AND (g.createdAt < :createdAt OR (g.createdAt = :createdAt AND g.id > :id))");
+            }
+            jpql.append(" ORDER BY g.createdAt DESC, g.id ASC");
+            TypedQuery<String> query = entityManager.createQuery(jpql.toString(), String.class);
+            if (status != null) {
+                query.setParameter("status", status);
+            }
+            if (after != null) {
+                query.setParameter("createdAt", after.getCreatedAt());
+                query.setParameter("id", after.getGameId());
+            }
+            List<String> ids = query.setFirstResult(offset).setMaxResults(limit).getResultList();
+            if (ids.isEmpty()) {
+                return new ArrayList<Game>();
+            }
+            Map<String, Game> games = gameRepository.findWithPlayersByIdIn(ids).stream()
+                .collect(Collectors.toMap(Game::getId, Function.identity()));
+            return ids.stream()
+                .map(games::get)
+                .filter(Objects::nonNull)
+                .map(this::initialize)
+                .collect(Collectors.toList());
+        });
+    }
+    
+    @Override
+    public long count() {
+        return gameRepository.count();
+    }
+    
+    @Override
+    public long countByStatus(Game.GameStatus status) {
+        return gameRepository.countByStatus(status);
+    }
+    
+    @Override
+    public void clear() {
+        transactionTemplate.executeWithoutResult(status -> gameRepository.deleteAll());
+    }
+    
+    // Load everything the service and the JSON views read. The board and moves are
+    // columns of the game row; the moves are linked to the loaded players.
+    private Game initialize(Game game) {
+        game.getPlayers().size();
+        game.restoreDerivedState();
+        return game;
+    }
+    
+    private List<Game> initializeAll(List<Game> games) {
+        games.forEach(this::initialize);
+        return games;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.repository;
+
+import com.example.model.Player;
+import com.example.model.PlayerStats;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Players stored through JPA. Email uniqueness is enforced by the unique email_key
+// column, and the leaderboards are ordered queries over the stats columns.
+@Component
+@ConditionalOnProperty(name = "storage.mode", havingValue = "jpa")
+public class JpaPlayerStore implements PlayerStore {
+    
+    // Same orderings as LeaderboardIndex.BY_WIN_RATE and BY_WINS
+    private static final String WIN_RATE_ORDER =
+        "SELECT p FROM Player p WHERE p.stats.gamesPlayed > 0 " +
+        "ORDER BY p.stats.winRate DESC, p.stats.gamesWon DESC, p.id ASC";
+    private static final String WINS_ORDER =
+        "SELECT p FROM Player p WHERE p.stats.gamesPlayed > 0 " +
+        "ORDER BY p.stats.gamesWon DESC, p.stats.winRate DESC, p.id ASC";
+    
+    // The same orderings resumed after a cursor's key. Each is a range condition on
+    // the ordering's own columns, so the database seeks instead of skipping rows.
+    private static final String WIN_RATE_AFTER =
+        "SELECT p FROM Player p WHERE p.stats.gamesPlayed > 0 AND (p.stats.winRate < :winRate " +
+        "OR (p.stats.winRate = :winRate AND (p.stats.gamesWon < :wins " +
+        "OR (p.stats.gamesWon = :wins AND p.id > :id)))) " +
+        "ORDER BY p.stats.winRate DESC, p.stats.gamesWon DESC, p.id ASC";
+    private static final String WINS_AFTER =
+        "SELECT p FROM Player p WHERE p.stats.gamesPlayed > 0 AND (p.stats.gamesWon < :wins " +
+        "OR (p.stats.gamesWon = :wins AND (p.stats.winRate < :winRate " +
+        "OR (p.stats.winRate = :winRate AND p.id > :id)))) " +
+        "ORDER BY p.stats.gamesWon DESC, p.stats.winRate DESC, p.id ASC";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final PlayerRepository playerRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    public JpaPlayerStore(PlayerRepository playerRepository, PlatformTransactionManager transactionManager) {
+        this.playerRepository = playerRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Override
+    public boolean insert(Player player) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> entityManager.persist(player));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+    
+    // One transaction for the whole list, written in JDBC batches. If any email was
+    // claimed meanwhile the transaction rolls back and each player is retried on
+    // its own, so only the conflicting ones are refused.
+    @Override
+    public boolean[] insertAll(List<Player> players) {
+        boolean[] stored = new boolean[players.size()];
+        try {
+            transactionTemplate.executeWithoutResult(status -> players.forEach(entityManager::persist));
+            Arrays.fill(stored, true);
+        } catch (DataIntegrityViolationException e) {
+            for (int i = 0; i < stored.length; i++) {
+                Player player = players.get(i);
+                // The rolled-back persist already assigned a version
+                player.setVersion(null);
+                stored[i] = insert(player);
+            }
+        }
+        return stored;
+    }
+    
+    @Override
+    public Optional<Player> findById(String id) {
+        return playerRepository.findById(id);
+    }
+    
+    @Override
+    public Optional<Player> findByEmailKey(String emailKey) {
+        return playerRepository.findByEmailKey(emailKey);
+    }
+    
+    @Override
+    public Set<String> findTakenEmailKeys(Collection<String> emailKeys) {
+        if (emailKeys.isEmpty()) {
+            return new HashSet<>();
+        }
+        return new HashSet<>(playerRepository.findEmailKeysIn(emailKeys));
+    }
+    
+    @Override
+    public List<Player> findAll() {
+        return playerRepository.findAll();
+    }
+    
+    @Override
+    public Player updateProfile(String id, String name, String email, String emailKey) {
+        try {
+            return TransactionRetry.execute(transactionTemplate, status -> {
+                Player player = load(id);
+                player.setName(name);
+                player.setEmail(email);
+                player.setEmailKey(emailKey);
+                player.setUpdatedAt(LocalDateTime.now());
+                return player;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Email already in use by another player");
+        }
+    }
+    
+    @Override
+    public Player updateStats(String id, Consumer<PlayerStats> change) {
+        return TransactionRetry.execute(transactionTemplate, status -> {
+            Player player = load(id);
+            change.accept(player.getStats());
+            return player;
+        });
+    }
+    
+    // Rankings are read from the database, so there is nothing to refresh
+    @Override
+    public void statsChanged(Player player) {
+    }
+    
+    @Override
+    public boolean delete(String id) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Player player = entityManager.find(Player.class, id);
+                if (player == null) {
+                    return false;
+                }
+                entityManager.remove(player);
+                return true;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("Player is still referenced by games");
+        }
+    }
+    
+    @Override
+    public long count() {
+        return playerRepository.count();
+    }
+    
+    @Override
+    public void clear() {
+        transactionTemplate.executeWithoutResult(status -> playerRepository.deleteAllInBatch());
+    }
+    
+    @Override
+    public int rankedCount() {
+        return (int) playerRepository.countPlayersWithMinGames(1);
+    }
+    
+    @Override
+    public List<Player> leaderboard(LeaderboardSort sort, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must be non-negative");
+        }
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+        return entityManager.createQuery(sort == LeaderboardSort.WINS ? WINS_ORDER : WIN_RATE_ORDER, Player.class)
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    @Override
+    public List<Player> leaderboardAfter(LeaderboardSort sort, LeaderboardCursor after, int limit) {
+        if (after == null) {
+            return leaderboard(sort, 0, limit);
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must be non-negative");
+        }
+        if (limit == 0) {
+            return new ArrayList<>();
+        }
+        return entityManager.createQuery(sort == LeaderboardSort.WINS ? WINS_AFTER : WIN_RATE_AFTER, Player.class)
+            .setParameter("winRate", after.getWinRate())
+            .setParameter("wins", after.getWins())
+            .setParameter("id", after.getPlayerId())
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    private Player load(String id) {
+        Player player = entityManager.find(Player.class, id);
+        if (player == null) {
+            throw new IllegalArgumentException("Player not found");
+        }
+        return player;
+    }
+}
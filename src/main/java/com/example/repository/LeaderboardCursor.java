@@ -0,0 +1,90 @@
+package com.example.repository;
+
+import com.example.model.Player;
+import com.example.model.PlayerStats;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Position in a leaderboard ordering: the sort key (win rate and wins) and id of
+// the player a page ended with. The next page starts right after that key, so it
+// costs the same at any depth and is not shifted when players ahead of it are
+// re-ranked. Clients see it as an opaque URL-safe token.
+public final class LeaderboardCursor {
+
+    private static final byte TYPE = 'L';
+
+    private final LeaderboardSort sort;
+    private final double winRate;
+    private final int wins;
+    private final String playerId;
+
+    public LeaderboardCursor(LeaderboardSort sort, double winRate, int wins, String playerId) {
+        this.sort = sort;
+        this.winRate = winRate;
+        this.wins = wins;
+        this.playerId = playerId;
+    }
+
+    // Cursor just after a player, from their current stats
+    public static LeaderboardCursor after(LeaderboardSort sort, Player player) {
+        PlayerStats stats = player.getStats();
+        synchronized (stats) {
+            return new LeaderboardCursor(sort, stats.getWinRate(), stats.getGamesWon(), player.getId());
+        }
+    }
+
+    public String encode() {
+        byte[] id = playerId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(2 + Double.BYTES + Integer.BYTES + id.length)
+            .put(TYPE)
+            .put((byte) sort.ordinal())
+            .putDouble(winRate)
+            .putInt(wins)
+            .put(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    // Throws IllegalArgumentException for anything encode() did not produce
+    public static LeaderboardCursor decode(String token) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            if (buffer.get() != TYPE) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            int sort = buffer.get();
+            if (sort < 0 || sort >= LeaderboardSort.values().length) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            double winRate = buffer.getDouble();
+            int wins = buffer.getInt();
+            byte[] id = new byte[buffer.remaining()];
+            buffer.get(id);
+            if (id.length == 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new LeaderboardCursor(LeaderboardSort.values()[sort], winRate, wins,
+                new String(id, StandardCharsets.UTF_8));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public LeaderboardSort getSort() {
+        return sort;
+    }
+
+    public double getWinRate() {
+        return winRate;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.repository;
+
+import com.example.model.Player;
+import com.example.model.PlayerStats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Incrementally maintained ranking of players who have played at least one game.
+// Backed by a size-augmented treap, so re-ranking a player costs O(log n) and
+// reading the page starting at any offset costs O(log n + page size).
+// Readers share a read lock; updates take the write lock briefly.
+public class LeaderboardIndex {
+
+    // Winrate ordering: win rate, then wins, then player id for deterministic ties
+    public static final Comparator<Ranked> BY_WIN_RATE = Comparator
+        .comparingDouble(Ranked::getWinRate).reversed()
+        .thenComparing(Comparator.comparingInt(Ranked::getWins).reversed())
+        .thenComparing(Ranked::getPlayerId);
+
+    // Wins ordering: wins, then win rate, then player id for deterministic ties
+    public static final Comparator<Ranked> BY_WINS = Comparator
+        .comparingInt(Ranked::getWins).reversed()
+        .thenComparing(Comparator.comparingDouble(Ranked::getWinRate).reversed())
+        .thenComparing(Ranked::getPlayerId);
+
+    private final Comparator<Ranked> order;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<String, Ranked> entries = new HashMap<>();
+    private Node root;
+
+    public LeaderboardIndex(Comparator<Ranked> order) {
+        this.order = order;
+    }
+
+    // Re-rank a player from their current stats; players without games are dropped
+    public void update(Player player) {
+        Ranked ranked = Ranked.of(player);
+        lock.writeLock().lock();
+        try {
+            Ranked previous = entries.remove(player.getId());
+            if (previous != null) {
+                root = delete(root, previous);
+            }
+            if (ranked.getGamesPlayed() > 0) {
+                entries.put(player.getId(), ranked);
+                root = insert(root, new Node(ranked));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Remove a player from the ranking
+    public void remove(String playerId) {
+        lock.writeLock().lock();
+        try {
+            Ranked previous = entries.remove(playerId);
+            if (previous != null) {
+                root = delete(root, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            root = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Number of ranked players
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Players ranked [offset, offset + limit) in this ordering
+    public List<Player> range(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must be non-negative");
+        }
+        List<Player> result = new ArrayList<>(Math.min(limit, 64));
+        lock.readLock().lock();
+        try {
+            collect(root, offset, limit, result);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // Up to limit players ordered strictly after the given key
+    public List<Player> rangeAfter(Ranked key, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must be non-negative");
+        }
+        List<Player> result = new ArrayList<>(Math.min(limit, 64));
+        lock.readLock().lock();
+        try {
+            collectAfter(root, key, limit, result);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // Descends to the key in O(log n), then walks forward like collect
+    private void collectAfter(Node node, Ranked key, int limit, List<Player> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        if (order.compare(node.value, key) <= 0) {
+            collectAfter(node.right, key, limit, out);
+            return;
+        }
+        collectAfter(node.left, key, limit, out);
+        if (out.size() >= limit) {
+            return;
+        }
+        out.add(node.value.getPlayer());
+        collect(node.right, 0, limit, out);
+    }
+
+    // In-order walk that skips whole subtrees before the offset
+    private static void collect(Node node, int offset, int limit, List<Player> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (offset < leftSize) {
+            collect(node.left, offset, limit, out);
+        }
+        if (out.size() >= limit) {
+            return;
+        }
+        if (offset <= leftSize) {
+            out.add(node.value.getPlayer());
+        }
+        collect(node.right, Math.max(0, offset - leftSize - 1), limit, out);
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            Node[] parts = split(node, added.value);
+            added.left = parts[0];
+            added.right = parts[1];
+            return added.update();
+        }
+        if (order.compare(added.value, node.value) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return node.update();
+    }
+
+    private Node delete(Node node, Ranked value) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = order.compare(value, node.value);
+        if (cmp == 0) {
+            return merge(node.left, node.right);
+        }
+        if (cmp < 0) {
+            node.left = delete(node.left, value);
+        } else {
+            node.right = delete(node.right, value);
+        }
+        return node.update();
+    }
+
+    // Split into nodes ordered before the key and nodes ordered at or after it
+    private Node[] split(Node node, Ranked key) {
+        if (node == null) {
+            return new Node[]{null, null};
+        }
+        if (order.compare(node.value, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            parts[0] = node.update();
+            return parts;
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        parts[1] = node.update();
+        return parts;
+    }
+
+    // Merge two treaps where every node of left orders before every node of right
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node {
+        private final Ranked value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(Ranked value) {
+            this.value = value;
+        }
+
+        private Node update() {
+            size = 1 + LeaderboardIndex.size(left) + LeaderboardIndex.size(right);
+            return this;
+        }
+    }
+
+    // Immutable copy of the stats a player is ranked by. Players' stats change in
+    // place, so the index must never compare against live values.
+    public static final class Ranked {
+        private final Player player;
+        private final String playerId;
+        private final double winRate;
+        private final int wins;
+        private final int gamesPlayed;
+
+        private Ranked(Player player, String playerId, double winRate, int wins, int gamesPlayed) {
+            this.player = player;
+            this.playerId = playerId;
+            this.winRate = winRate;
+            this.wins = wins;
+            this.gamesPlayed = gamesPlayed;
+        }
+
+        static Ranked of(Player player) {
+            PlayerStats stats = player.getStats();
+            synchronized (stats) {
+                return new Ranked(player, player.getId(), stats.getWinRate(), stats.getGamesWon(),
+                    stats.getGamesPlayed());
+            }
+        }
+
+        // A bare sort key to search from, e.g. a page cursor; it has no player
+        public static Ranked key(String playerId, double winRate, int wins) {
+            return new Ranked(null, playerId, winRate, wins, 0);
+        }
+
+        public Player getPlayer() {
+            return player;
+        }
+
+        public String getPlayerId() {
+            return playerId;
+        }
+
+        public double getWinRate() {
+            return winRate;
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        public int getGamesPlayed() {
+            return gamesPlayed;
+        }
+    }
+}
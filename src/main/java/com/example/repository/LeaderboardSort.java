@@ -0,0 +1,17 @@
+package com.example.repository;
+
+// Leaderboard orderings. Both break remaining ties by player id.
+public enum LeaderboardSort {
+    WIN_RATE,   // win rate, then wins
+    WINS;       // wins, then win rate
+    
+    // Parse the sortBy request parameter; null means the default ordering
+    public static LeaderboardSort fromParameter(String sortBy) {
+        if (sortBy == null || sortBy.equalsIgnoreCase("winrate")) {
+            return WIN_RATE;
+        } else if (sortBy.equalsIgnoreCase("wins")) {
+            return WINS;
+        }
+        throw new IllegalArgumentException("Invalid sortBy parameter. Supported values: 'winrate', 'wins'");
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.repository;
+
+import com.example.model.BoardConverter;
+import com.example.model.Move;
+import com.example.model.MoveHistoryConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Moves games stored before the board and moves were packed into the games row.
+// Those databases still have a game_board table (game_id, cell_value) and a moves
+// table (one row per move); with ddl-auto=update Hibernate adds the new columns but
+// leaves the old tables alone. game_board has no order column, so its rows cannot
+// say which cell they were; every occupied cell was filled by a move, though, so
+// both the board and the history are rebuilt from the moves and copied into games
+// that do not have them yet. Then the old tables are dropped, all in one
+// transaction. Runs before the game stores load anything; a database without the
+// old tables is left untouched.
+@Component
+public class LegacyGameTableMigration implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LegacyGameTableMigration.class);
+
+    private static final String TABLE_EXISTS =
+        "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = ?";
+    private static final String SELECT_MOVES =
+        "SELECT game_id, position, symbol, created_at FROM moves ORDER BY game_id, move_number";
+    private static final String UPDATE_BOARD = "UPDATE games SET board = ? WHERE id = ? AND board IS NULL";
+    private static final String UPDATE_MOVES =
+        "UPDATE games SET move_history = ? WHERE id = ? AND move_history IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BoardConverter boardConverter = new BoardConverter();
+    private final MoveHistoryConverter moveHistoryConverter = new MoveHistoryConverter();
+
+    // The transaction manager is created with the entity manager factory, so the
+    // schema update has added the new columns by the time this runs
+    @Autowired
+    public LegacyGameTableMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        boolean board = tableExists("GAME_BOARD");
+        boolean moves = tableExists("MOVES");
+        if (!board && !moves) {
+            return;
+        }
+        long start = System.nanoTime();
+        int migrated = transactionTemplate.execute(status -> {
+            int games = moves ? migrateMoves() : 0;
+            if (board) {
+                jdbcTemplate.execute("DROP TABLE game_board");
+            }
+            return games;
+        });
+        logger.info("Packed the boards and move histories of {} games from the legacy game tables in {} ms",
+            migrated, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(TABLE_EXISTS, Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    // One pass over the moves yields both the history and the board it produced
+    private int migrateMoves() {
+        Map<String, List<Move>> histories = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_MOVES, rs -> {
+            Move move = new Move();
+            move.setPosition(rs.getInt(2));
+            move.setSymbol(rs.getString(3));
+            move.setCreatedAt(rs.getObject(4, LocalDateTime.class));
+            histories.computeIfAbsent(rs.getString(1), id -> new ArrayList<>()).add(move);
+        });
+        List<Object[]> boards = new ArrayList<>(histories.size());
+        List<Object[]> updates = new ArrayList<>(histories.size());
+        histories.forEach((id, moves) -> {
+            List<String> board = new ArrayList<>(Arrays.asList(new String[9]));
+            for (Move move : moves) {
+                board.set(move.getPosition(), move.getSymbol());
+            }
+            boards.add(new Object[]{boardConverter.convertToDatabaseColumn(board), id});
+            updates.add(new Object[]{moveHistoryConverter.convertToDatabaseColumn(moves), id});
+        });
+        jdbcTemplate.batchUpdate(UPDATE_BOARD, boards);
+        jdbcTemplate.batchUpdate(UPDATE_MOVES, updates);
+        jdbcTemplate.execute("DROP TABLE moves");
+        return updates.size();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +16,13 @@ public interface PlayerRepository extends JpaRepository<Player, String> {
     // Find by email
     Optional<Player> findByEmail(String email);
     
+    // Find by normalized email
+    Optional<Player> findByEmailKey(String emailKey);
+    
+    // Which of the given normalized emails are taken
+    @Query("SELECT p.emailKey FROM Player p WHERE p.emailKey IN :emailKeys")
+    List<String> findEmailKeysIn(@Param("emailKeys") Collection<String> emailKeys);
+    
     // Find by name (case-insensitive)
     List<Player> findByNameContainingIgnoreCase(String name);
     
@@ -0,0 +1,56 @@
+package com.example.repository;
+
+import com.example.model.Player;
+import com.example.model.PlayerStats;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Storage backend for players, including the email-uniqueness claim and the
+// leaderboard rankings. Email keys are the normalized emails set on the player.
+public interface PlayerStore {
+    
+    // Store a new player; returns false if its email key is already taken
+    boolean insert(Player player);
+    
+    // Store new players, each claiming its email as insert does; true where stored.
+    // Backends may write the whole list at once.
+    boolean[] insertAll(List<Player> players);
+    
+    Optional<Player> findById(String id);
+    
+    Optional<Player> findByEmailKey(String emailKey);
+    
+    // The email keys among those given that already belong to a player
+    Set<String> findTakenEmailKeys(Collection<String> emailKeys);
+    
+    List<Player> findAll();
+    
+    // Change name and email. Throws IllegalArgumentException if the player does not
+    // exist or the new email key belongs to another player.
+    Player updateProfile(String id, String name, String email, String emailKey);
+    
+    // Apply a stats change atomically and re-rank the player
+    Player updateStats(String id, Consumer<PlayerStats> change);
+    
+    // Re-rank a player whose stats were changed and stored elsewhere (by a game)
+    void statsChanged(Player player);
+    
+    boolean delete(String id);
+    
+    long count();
+    
+    void clear();
+    
+    // Number of players on the leaderboard (at least one game played)
+    int rankedCount();
+    
+    // Players ranked [offset, offset + limit) in the given ordering
+    List<Player> leaderboard(LeaderboardSort sort, int offset, int limit);
+    
+    // Up to limit players ranked right after the cursor (from the top if it is null)
+    List<Player> leaderboardAfter(LeaderboardSort sort, LeaderboardCursor after, int limit);
+}
@@ -0,0 +1,36 @@
+package com.example.repository;
+
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs a transaction, retrying it from scratch when it loses an optimistic-lock or
+// row-lock race. The callback must have no side effects outside the transaction.
+// Retries back off with jitter so a crowd of losers does not collide again at once.
+final class TransactionRetry {
+    
+    private static final int MAX_ATTEMPTS = 10;
+    private static final long BASE_BACKOFF_MICROS = 500;
+    private static final long MAX_BACKOFF_MICROS = 50_000;
+    
+    private TransactionRetry() {
+    }
+    
+    static <T> T execute(TransactionTemplate transactionTemplate, TransactionCallback<T> callback) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(callback);
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                long ceiling = Math.min(MAX_BACKOFF_MICROS, BASE_BACKOFF_MICROS << attempt);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ThreadLocalRandom.current().nextLong(ceiling)));
+            }
+        }
+    }
+}
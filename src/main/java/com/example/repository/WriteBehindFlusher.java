@@ -0,0 +1,464 @@
+package com.example.repository;
+
+import com.example.model.BoardConverter;
+import com.example.model.Game;
+import com.example.model.MoveHistoryConverter;
+import com.example.model.Player;
+import com.example.model.PlayerStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Write-behind persistence for the in-memory stores. Stores hand over a changed game
+// or player while they still hold its lock, and an immutable row image is captured
+// right there. Images for the same id coalesce, so a game that changes five times
+// between flushes is written once. A single background thread writes pending images
+// in JDBC batches when a batch is full or the flush interval has passed.
+//
+// Memory is bounded: once more than max-pending images are waiting, the threads
+// recording changes block until the flusher catches up. A slow or unavailable
+// database only delays changes. A row the database rejects as a constraint
+// violation MAX_ATTEMPTS times is the exception: retrying cannot make it succeed,
+// so it is dropped, logged at ERROR and counted in writebehind.dropped, and the
+// database keeps its previous state of that row. Services rule out the known
+// cause, deleting a player who is still in a game, before it reaches here.
+@Component
+@ConditionalOnProperty(name = "storage.mode", havingValue = "write-behind")
+public class WriteBehindFlusher implements MeterBinder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindFlusher.class);
+
+    // A row rejected by the database this many times (e.g. a game whose player row
+    // is not written yet) is dropped rather than retried forever
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKPRESSURE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int SHUTDOWN_FLUSH_ATTEMPTS = 3;
+
+    // H2 upserts; MERGE ... KEY replaces the row with the same key or inserts a new one
+    private static final String MERGE_PLAYER =
+        "MERGE INTO players (id, name, email, email_key, games_played, games_won, games_lost, games_drawn, " +
+        "total_moves, average_moves_per_win, win_rate, efficiency, created_at, updated_at, version) " +
+        "KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_GAME =
+        "MERGE INTO games (id, name, status, current_player_id, winner_id, board, move_history, created_at, " +
+        "updated_at) KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String MERGE_GAME_PLAYER =
+        "MERGE INTO game_players (game_id, player_order, player_id) KEY (game_id, player_order) VALUES (?, ?, ?)";
+    private static final String[] DELETE_GAME = {
+        "DELETE FROM game_players WHERE game_id = ?",
+        "DELETE FROM games WHERE id = ?"
+    };
+    private static final String DELETE_PLAYER = "DELETE FROM players WHERE id = ?";
+
+    private static final BoardConverter BOARD = new BoardConverter();
+    private static final MoveHistoryConverter MOVE_HISTORY = new MoveHistoryConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final int maxPending;
+
+    private final Map<String, PlayerRow> dirtyPlayers = new ConcurrentHashMap<>();
+    private final Map<String, GameRow> dirtyGames = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    @Autowired
+    public WriteBehindFlusher(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              @Value("${storage.write-behind.batch-size:500}") int batchSize,
+                              @Value("${storage.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+                              @Value("${storage.write-behind.max-pending:20000}") int maxPending) {
+        this(jdbcTemplate, transactionManager, batchSize, flushIntervalMillis, maxPending, true);
+    }
+
+    WriteBehindFlusher(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, int batchSize,
+                       long flushIntervalMillis, int maxPending, boolean startFlusher) {
+        if (batchSize <= 0 || maxPending <= 0 || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Batch size, flush interval and max pending must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.maxPending = maxPending;
+
+        if (startFlusher) {
+            this.flusher = new Thread(this::flushLoop, "write-behind-flusher");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    // Record the current state of a game; the caller must hold the game's lock
+    public void gameChanged(Game game) {
+        record(dirtyGames, GameRow.of(game));
+    }
+
+    public void gameDeleted(String gameId) {
+        record(dirtyGames, GameRow.deleted(gameId));
+    }
+
+    // Record the current state of a player; the caller must hold the player's lock
+    public void playerChanged(Player player) {
+        record(dirtyPlayers, PlayerRow.of(player));
+    }
+
+    public void playerDeleted(String playerId) {
+        record(dirtyPlayers, PlayerRow.deleted(playerId));
+    }
+
+    private <R extends Row> void record(Map<String, R> dirty, R row) {
+        if (dirty.put(row.id, row) == null && pending.incrementAndGet() == batchSize && flusher != null) {
+            LockSupport.unpark(flusher);
+        }
+        awaitCapacity();
+    }
+
+    // Backpressure: hold the producer until the flusher has brought the backlog
+    // back under the limit. Stops waiting once shutdown begins.
+    private void awaitCapacity() {
+        if (pending.get() <= maxPending) {
+            return;
+        }
+        stalls.increment();
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+        }
+        while (pending.get() > maxPending && running) {
+            LockSupport.parkNanos(BACKPRESSURE_PARK_NANOS);
+        }
+    }
+
+    private void flushLoop() {
+        long lastFlush = System.nanoTime();
+        while (running) {
+            long sinceLastFlush = System.nanoTime() - lastFlush;
+            if (pending.get() < batchSize && sinceLastFlush < flushIntervalNanos) {
+                LockSupport.parkNanos(flushIntervalNanos - sinceLastFlush);
+                continue;
+            }
+            boolean complete = flush();
+            lastFlush = System.nanoTime();
+            if (!complete && running) {
+                // The database is unavailable; wait a full interval before trying again
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+    }
+
+    // Write everything pending right now. Players are written before games and
+    // deletions after both, so every row a batch refers to already exists. Returns
+    // false if some rows could not be written and were put back for a later flush.
+    public synchronized boolean flush() {
+        List<PlayerRow> players = drain(dirtyPlayers);
+        List<GameRow> games = drain(dirtyGames);
+
+        boolean complete = write(partition(players, false), dirtyPlayers, this::writePlayers);
+        complete &= write(partition(games, false), dirtyGames, this::writeGames);
+        complete &= write(partition(games, true), dirtyGames, this::deleteGames);
+        complete &= write(partition(players, true), dirtyPlayers, this::deletePlayers);
+        return complete;
+    }
+
+    private <R extends Row> List<R> drain(Map<String, R> dirty) {
+        List<R> rows = new ArrayList<>();
+        for (String id : dirty.keySet()) {
+            R row = dirty.remove(id);
+            if (row != null) {
+                pending.decrementAndGet();
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static <R extends Row> List<R> partition(List<R> rows, boolean deleted) {
+        return rows.stream().filter(row -> row.deleted == deleted).collect(Collectors.toList());
+    }
+
+    // One transaction per batch. A failed batch is retried row by row so that a
+    // single bad row cannot hold back the rest.
+    private <R extends Row> boolean write(List<R> rows, Map<String, R> dirty, Consumer<List<R>> writer) {
+        boolean complete = true;
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<R> batch = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            try {
+                transactionTemplate.executeWithoutResult(status -> writer.accept(batch));
+                written.add(batch.size());
+            } catch (DataAccessException e) {
+                failures.increment();
+                for (R row : batch) {
+                    complete &= writeOne(row, dirty, writer);
+                }
+            }
+        }
+        return complete;
+    }
+
+    private <R extends Row> boolean writeOne(R row, Map<String, R> dirty, Consumer<List<R>> writer) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> writer.accept(List.of(row)));
+            written.increment();
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            if (++row.attempts >= MAX_ATTEMPTS) {
+                dropped.increment();
+                logger.error("Dropping write-behind {} of {} after {} constraint violations; the database keeps "
+                    + "its previous state and will serve it after a restart", row.deleted ? "delete" : "update",
+                    row.id, row.attempts, e);
+                return true;
+            }
+            requeue(dirty, row);
+            return false;
+        } catch (DataAccessException e) {
+            logger.warn("Write-behind flush failed for {}, will retry: {}", row.id, e.getMessage());
+            requeue(dirty, row);
+            return false;
+        }
+    }
+
+    // Put a row back unless a newer image for the same id arrived in the meantime
+    private <R extends Row> void requeue(Map<String, R> dirty, R row) {
+        if (dirty.putIfAbsent(row.id, row) == null) {
+            pending.incrementAndGet();
+        }
+    }
+
+    private void writePlayers(List<PlayerRow> rows) {
+        jdbcTemplate.batchUpdate(MERGE_PLAYER, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.id);
+            ps.setString(2, row.name);
+            ps.setString(3, row.email);
+            ps.setString(4, row.emailKey);
+            ps.setInt(5, row.gamesPlayed);
+            ps.setInt(6, row.gamesWon);
+            ps.setInt(7, row.gamesLost);
+            ps.setInt(8, row.gamesDrawn);
+            ps.setInt(9, row.totalMoves);
+            ps.setDouble(10, row.averageMovesPerWin);
+            ps.setDouble(11, row.winRate);
+            ps.setDouble(12, row.efficiency);
+            ps.setObject(13, row.createdAt);
+            ps.setObject(14, row.updatedAt);
+            ps.setLong(15, row.version);
+        });
+    }
+
+    private void writeGames(List<GameRow> rows) {
+        jdbcTemplate.batchUpdate(MERGE_GAME, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.id);
+            ps.setString(2, row.name);
+            ps.setString(3, row.status);
+            ps.setString(4, row.currentPlayerId);
+            ps.setString(5, row.winnerId);
+            ps.setString(6, row.board);
+            ps.setString(7, row.moveHistory);
+            ps.setObject(8, row.createdAt);
+            ps.setObject(9, row.updatedAt);
+        });
+
+        // Players are only ever added, so upserting them is enough
+        List<Object[]> gamePlayers = new ArrayList<>();
+        for (GameRow row : rows) {
+            for (int i = 0; i < row.playerIds.size(); i++) {
+                gamePlayers.add(new Object[]{row.id, i, row.playerIds.get(i)});
+            }
+        }
+        jdbcTemplate.batchUpdate(MERGE_GAME_PLAYER, gamePlayers);
+    }
+
+    private void deleteGames(List<GameRow> rows) {
+        List<Object[]> ids = rows.stream().map(row -> new Object[]{row.id}).collect(Collectors.toList());
+        for (String sql : DELETE_GAME) {
+            jdbcTemplate.batchUpdate(sql, ids);
+        }
+    }
+
+    private void deletePlayers(List<PlayerRow> rows) {
+        jdbcTemplate.batchUpdate(DELETE_PLAYER,
+            rows.stream().map(row -> new Object[]{row.id}).collect(Collectors.toList()));
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("writebehind.pending", pending, AtomicInteger::get)
+            .description("Changed games and players waiting to be written")
+            .register(registry);
+        FunctionCounter.builder("writebehind.written", written, LongAdder::sum)
+            .description("Rows written by the write-behind flusher")
+            .register(registry);
+        FunctionCounter.builder("writebehind.batch.failures", failures, LongAdder::sum)
+            .description("Batches that failed and were retried row by row")
+            .register(registry);
+        FunctionCounter.builder("writebehind.dropped", dropped, LongAdder::sum)
+            .description("Rows given up on after repeated constraint violations")
+            .register(registry);
+        FunctionCounter.builder("writebehind.stalls", stalls, LongAdder::sum)
+            .description("Times a writer was held back because too many changes were pending")
+            .register(registry);
+    }
+
+    // Stop the background thread, then write whatever is still pending. Runs before
+    // the data source and entity manager factory shut down, since this bean uses them.
+    @Override
+    public void destroy() {
+        running = false;
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (int attempt = 0; attempt < SHUTDOWN_FLUSH_ATTEMPTS && pending.get() > 0; attempt++) {
+            flush();
+        }
+        if (pending.get() > 0) {
+            logger.error("Shutting down with {} unwritten games and players", pending.get());
+        }
+    }
+
+    // Immutable image of an entity's row, or a tombstone for a deleted one
+    private abstract static class Row {
+        final String id;
+        final boolean deleted;
+        // Only touched by the flushing thread
+        int attempts;
+
+        Row(String id, boolean deleted) {
+            this.id = id;
+            this.deleted = deleted;
+        }
+    }
+
+    private static final class PlayerRow extends Row {
+        String name;
+        String email;
+        String emailKey;
+        int gamesPlayed;
+        int gamesWon;
+        int gamesLost;
+        int gamesDrawn;
+        int totalMoves;
+        double averageMovesPerWin;
+        double winRate;
+        double efficiency;
+        LocalDateTime createdAt;
+        LocalDateTime updatedAt;
+        long version;
+
+        private PlayerRow(String id, boolean deleted) {
+            super(id, deleted);
+        }
+
+        static PlayerRow deleted(String id) {
+            return new PlayerRow(id, true);
+        }
+
+        static PlayerRow of(Player player) {
+            PlayerRow row = new PlayerRow(player.getId(), false);
+            row.name = player.getName();
+            row.email = player.getEmail();
+            row.emailKey = player.getEmailKey();
+            row.createdAt = player.getCreatedAt();
+            row.updatedAt = player.getUpdatedAt();
+            row.version = player.getVersion() == null ? 0 : player.getVersion();
+            PlayerStats stats = player.getStats();
+            // Stats updates synchronize on the stats object
+            synchronized (stats) {
+                row.gamesPlayed = stats.getGamesPlayed();
+                row.gamesWon = stats.getGamesWon();
+                row.gamesLost = stats.getGamesLost();
+                row.gamesDrawn = stats.getGamesDrawn();
+                row.totalMoves = stats.getTotalMoves();
+                row.averageMovesPerWin = stats.getAverageMovesPerWin();
+                row.winRate = stats.getWinRate();
+                row.efficiency = stats.getEfficiency();
+            }
+            return row;
+        }
+    }
+
+    private static final class GameRow extends Row {
+        String name;
+        String status;
+        String currentPlayerId;
+        String winnerId;
+        LocalDateTime createdAt;
+        LocalDateTime updatedAt;
+        List<String> playerIds = List.of();
+        // Board and moves in their packed column form
+        String board;
+        String moveHistory;
+
+        private GameRow(String id, boolean deleted) {
+            super(id, deleted);
+        }
+
+        static GameRow deleted(String id) {
+            return new GameRow(id, true);
+        }
+
+        static GameRow of(Game game) {
+            GameRow row = new GameRow(game.getId(), false);
+            row.name = game.getName();
+            row.status = game.getStatus().name();
+            row.currentPlayerId = game.getCurrentPlayer() == null ? null : game.getCurrentPlayer().getId();
+            row.winnerId = game.getWinner() == null ? null : game.getWinner().getId();
+            row.createdAt = game.getCreatedAt();
+            row.updatedAt = game.getUpdatedAt();
+            row.playerIds = game.getPlayers().stream().map(Player::getId).collect(Collectors.toList());
+            row.board = BOARD.convertToDatabaseColumn(game.getBoard());
+            row.moveHistory = MOVE_HISTORY.convertToDatabaseColumn(game.getMoves());
+            return row;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.repository;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// In-memory games whose changes are written to the database behind the scenes.
+// Games already in the database are loaded on startup and re-linked to the player
+// store's instances, so finishing a loaded game updates the live players' stats.
+@Component
+@DependsOn("legacyGameTableMigration")
+@ConditionalOnProperty(name = "storage.mode", havingValue = "write-behind")
+public class WriteBehindGameStore implements GameStore {
+
+    private final InMemoryGameStore delegate = new InMemoryGameStore();
+    private final WriteBehindFlusher flusher;
+
+    @Autowired
+    public WriteBehindGameStore(WriteBehindFlusher flusher, WriteBehindPlayerStore playerStore,
+                                GameRepository gameRepository, PlatformTransactionManager transactionManager) {
+        this.flusher = flusher;
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<Game> stored = readOnly.execute(status -> gameRepository.findAllWithPlayers());
+        for (Game game : stored) {
+            delegate.insert(relink(game, playerStore));
+        }
+    }
+
+    // Swap the loaded player references for the live ones and give the game plain
+    // collections, since it is mutated outside any persistence context from now on
+    private static Game relink(Game game, PlayerStore playerStore) {
+        game.setPlayers(game.getPlayers().stream()
+            .map(player -> live(player, playerStore))
+            .collect(Collectors.toCollection(ArrayList::new)));
+        game.setCurrentPlayer(live(game.getCurrentPlayer(), playerStore));
+        game.setWinner(live(game.getWinner(), playerStore));
+        game.setBoard(new ArrayList<>(game.getBoard()));
+        game.setMoves(new ArrayList<>(game.getMoves()));
+        // Links the moves to the live players too
+        game.restoreDerivedState();
+        return game;
+    }
+
+    private static Player live(Player player, PlayerStore playerStore) {
+        return player == null ? null : playerStore.findById(player.getId()).orElse(player);
+    }
+
+    @Override
+    public void insert(Game game) {
+        delegate.insert(game);
+        flusher.gameChanged(game);
+    }
+
+    @Override
+    public Optional<Game> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    // Every state change publishes a new snapshot, so an unchanged snapshot version
+    // means the mutation was rejected and there is nothing to write
+    @Override
+    public <T> T update(String id, Function<Game, T> mutation) {
+        return delegate.update(id, game -> {
+            long version = game.getSnapshot().getVersion();
+            try {
+                return mutation.apply(game);
+            } finally {
+                if (game.getSnapshot().getVersion() != version) {
+                    flusher.gameChanged(game);
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean delete(String id) {
+        if (!delegate.delete(id)) {
+            return false;
+        }
+        flusher.gameDeleted(id);
+        return true;
+    }
+
+    @Override
+    public List<Game> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Game> findByStatus(Game.GameStatus status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public List<Game> findByPlayer(String playerId) {
+        return delegate.findByPlayer(playerId);
+    }
+
+    @Override
+    public List<Game> findPage(Game.GameStatus status, GameCursor after, int limit) {
+        return delegate.findPage(status, after, limit);
+    }
+
+    @Override
+    public List<Game> findRange(Game.GameStatus status, int offset, int limit) {
+        return delegate.findRange(status, offset, limit);
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countByStatus(Game.GameStatus status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public void clear() {
+        List<Game> games = delegate.findAll();
+        delegate.clear();
+        games.forEach(game -> flusher.gameDeleted(game.getId()));
+    }
+}
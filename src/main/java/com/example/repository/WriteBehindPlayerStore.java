@@ -0,0 +1,172 @@
+package com.example.repository;
+
+import com.example.model.Player;
+import com.example.model.PlayerStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+// In-memory players whose changes are written to the database behind the scenes.
+// Reads and writes are served by an InMemoryPlayerStore; every change also hands
+// the player to the WriteBehindFlusher. Players already in the database are loaded
+// on startup.
+@Component
+@ConditionalOnProperty(name = "storage.mode", havingValue = "write-behind")
+public class WriteBehindPlayerStore implements PlayerStore {
+
+    private final InMemoryPlayerStore delegate = new InMemoryPlayerStore();
+    private final WriteBehindFlusher flusher;
+
+    @Autowired
+    public WriteBehindPlayerStore(WriteBehindFlusher flusher, PlayerRepository playerRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.flusher = flusher;
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<Player> stored = readOnly.execute(status -> playerRepository.findAll());
+        for (Player player : stored) {
+            delegate.insert(player);
+            delegate.statsChanged(player);
+        }
+    }
+
+    @Override
+    public boolean insert(Player player) {
+        if (!delegate.insert(player)) {
+            return false;
+        }
+        Lock lock = delegate.lockFor(player.getId());
+        lock.lock();
+        try {
+            flusher.playerChanged(player);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    // Rows reach the database in the flusher's batches either way
+    @Override
+    public boolean[] insertAll(List<Player> players) {
+        boolean[] stored = new boolean[players.size()];
+        for (int i = 0; i < stored.length; i++) {
+            stored[i] = insert(players.get(i));
+        }
+        return stored;
+    }
+
+    @Override
+    public Optional<Player> findById(String id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<Player> findByEmailKey(String emailKey) {
+        return delegate.findByEmailKey(emailKey);
+    }
+
+    @Override
+    public Set<String> findTakenEmailKeys(Collection<String> emailKeys) {
+        return delegate.findTakenEmailKeys(emailKeys);
+    }
+
+    @Override
+    public List<Player> findAll() {
+        return delegate.findAll();
+    }
+
+    // Changes are recorded under the player's lock so images reach the flusher in
+    // the same order as the changes they capture. It is the delegate's own lock, and
+    // a ReentrantLock: playerChanged may wait out backpressure while holding it.
+    @Override
+    public Player updateProfile(String id, String name, String email, String emailKey) {
+        Player player = load(id);
+        Lock lock = delegate.lockFor(id);
+        lock.lock();
+        try {
+            delegate.updateProfile(id, name, email, emailKey);
+            flusher.playerChanged(player);
+        } finally {
+            lock.unlock();
+        }
+        return player;
+    }
+
+    @Override
+    public Player updateStats(String id, Consumer<PlayerStats> change) {
+        Player player = load(id);
+        Lock lock = delegate.lockFor(id);
+        lock.lock();
+        try {
+            delegate.updateStats(id, change);
+            flusher.playerChanged(player);
+        } finally {
+            lock.unlock();
+        }
+        return player;
+    }
+
+    @Override
+    public void statsChanged(Player player) {
+        delegate.statsChanged(player);
+        Lock lock = delegate.lockFor(player.getId());
+        lock.lock();
+        try {
+            // Players that were never stored (or were deleted) are not persisted
+            if (delegate.findById(player.getId()).isPresent()) {
+                flusher.playerChanged(player);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(String id) {
+        if (!delegate.delete(id)) {
+            return false;
+        }
+        flusher.playerDeleted(id);
+        return true;
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public void clear() {
+        List<Player> players = delegate.findAll();
+        delegate.clear();
+        players.forEach(player -> flusher.playerDeleted(player.getId()));
+    }
+
+    @Override
+    public int rankedCount() {
+        return delegate.rankedCount();
+    }
+
+    @Override
+    public List<Player> leaderboard(LeaderboardSort sort, int offset, int limit) {
+        return delegate.leaderboard(sort, offset, limit);
+    }
+
+    @Override
+    public List<Player> leaderboardAfter(LeaderboardSort sort, LeaderboardCursor after, int limit) {
+        return delegate.leaderboardAfter(sort, after, limit);
+    }
+
+    private Player load(String id) {
+        return delegate.findById(id).orElseThrow(() -> new IllegalArgumentException("Player not found"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.service;
+
+import com.example.model.Game;
+import com.example.model.Move;
+import com.example.model.Player;
+
+// Notified by GameService and PlayerService after each successful state change.
+// Game events are delivered while the game's lock is held, so for one game they
+// arrive in the order the changes were applied; listeners must return quickly.
+// Exceptions propagate to the caller of the service method.
+public interface GameEventListener {
+
+    default void playerCreated(Player player) {
+    }
+
+    default void playerUpdated(Player player) {
+    }
+
+    default void playerDeleted(String playerId) {
+    }
+
+    // Stats changed directly through PlayerService.updatePlayerStats; stats changed
+    // by a finished game are implied by its moves
+    default void playerStatsUpdated(String playerId, boolean won, boolean drawn, int movesMade) {
+    }
+
+    default void playersCleared() {
+    }
+
+    default void gameCreated(Game game) {
+    }
+
+    default void playerJoined(Game game, Player player) {
+    }
+
+    default void moveMade(Game game, Move move) {
+    }
+
+    default void gameDeleted(String gameId) {
+    }
+
+    default void gamesCleared() {
+    }
+}
@@ -1,47 +1,213 @@
 package com.example.service;
 
+import com.example.model.CursorPage;
 import com.example.model.Game;
+import com.example.model.GameSnapshot;
 import com.example.model.Player;
 import com.example.model.Move;
+import com.example.model.PaginatedResponse;
+import com.example.repository.GameCursor;
+import com.example.repository.GameStore;
+import com.example.repository.InMemoryGameStore;
+import com.example.util.StripedLocks;
+import com.example.util.TopK;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class GameService {
     
-    // In-memory storage for L2 (can be replaced with repository for L3)
-    private final Map<String, Game> games = new ConcurrentHashMap<>();
+    // In-memory or JPA storage, selected by storage.mode
+    private final GameStore gameStore;
+    
+    // Striped per-game locks: mutations of one game are serialized, while games on
+    // different stripes never contend. There is deliberately no service-wide lock.
+    private final StripedLocks gameLocks = new StripedLocks(4096);
+    
+    private final PlayerService playerService;
+    
+    // Notified of every state change, e.g. to journal it
+    private final List<GameEventListener> eventListeners;
+    
+    // Move latency by result, and finished games by outcome
+    private final Timer acceptedMoveTimer;
+    private final Timer rejectedMoveTimer;
+    private final Counter winCounter;
+    private final Counter drawCounter;
+    
+    // Games held at once while streaming the full list
+    private static final int STREAM_BATCH = 500;
+    
+    // Orderings for the top-K queries; game id breaks ties deterministically
+    private static final Comparator<Game> MOST_MOVES = Comparator
+        .comparingInt((Game g) -> g.getMoves().size()).reversed()
+        .thenComparing(Game::getId);
+    
+    private static final Comparator<Game> MOST_RECENT = Comparator
+        .comparing(Game::getCreatedAt).reversed()
+        .thenComparing(Game::getId);
+    
+    public GameService(PlayerService playerService) {
+        this(playerService, new InMemoryGameStore(), new SimpleMeterRegistry(), List.of());
+    }
+    
+    @Autowired
+    public GameService(PlayerService playerService, GameStore gameStore, MeterRegistry meterRegistry,
+                       ObjectProvider<GameEventListener> eventListeners) {
+        this(playerService, gameStore, meterRegistry, eventListeners.orderedStream().collect(Collectors.toList()));
+    }
+    
+    public GameService(PlayerService playerService, GameStore gameStore, MeterRegistry meterRegistry,
+                       List<GameEventListener> eventListeners) {
+        this.playerService = playerService;
+        this.gameStore = gameStore;
+        this.eventListeners = List.copyOf(eventListeners);
+        for (Game.GameStatus status : Game.GameStatus.values()) {
+            Gauge.builder("games.live", gameStore, store -> store.countByStatus(status))
+                .description("Games currently in each status")
+                .tag("status", status.name())
+                .register(meterRegistry);
+        }
+        this.acceptedMoveTimer = moveTimer(meterRegistry, "accepted");
+        this.rejectedMoveTimer = moveTimer(meterRegistry, "rejected");
+        this.winCounter = outcomeCounter(meterRegistry, "win");
+        this.drawCounter = outcomeCounter(meterRegistry, "draw");
+    }
     
     // Create a new game
     public Game createGame(String name) {
         Game game = new Game(name);
-        games.put(game.getId(), game);
+        Lock lock = lockFor(game.getId());
+        lock.lock();
+        try {
+            gameStore.insert(game);
+            notifyListeners(listener -> listener.gameCreated(game));
+        } finally {
+            lock.unlock();
+        }
+        return game;
+    }
+    
+    // Re-create a game with its original id and creation time (journal replay)
+    public Game restoreGame(String id, String name, LocalDateTime createdAt) {
+        Game game = new Game(name);
+        game.setId(id);
+        game.setCreatedAt(createdAt);
+        game.setUpdatedAt(createdAt);
+        game.publishSnapshot();
+        return restoreGame(game);
+    }
+    
+    // Re-insert a fully built game, board and moves included (snapshot load)
+    public Game restoreGame(Game game) {
+        Lock lock = lockFor(game.getId());
+        lock.lock();
+        try {
+            gameStore.insert(game);
+        } finally {
+            lock.unlock();
+        }
         return game;
     }
     
     // Get game by ID
     public Optional<Game> findById(String id) {
-        return Optional.ofNullable(games.get(id));
+        return gameStore.findById(id);
+    }
+    
+    // Get the latest published snapshot of a game (lock-free in memory)
+    public Optional<GameSnapshot> findSnapshotById(String id) {
+        return findById(id).map(Game::getSnapshot);
     }
     
     // Get all games
     public List<Game> findAll() {
-        return new ArrayList<>(games.values());
+        return gameStore.findAll();
     }
     
     // Get games by status
     public List<Game> findByStatus(Game.GameStatus status) {
-        return games.values().stream()
-            .filter(game -> game.getStatus() == status)
-            .collect(Collectors.toList());
+        return gameStore.findByStatus(status);
+    }
+    
+    // Get a page of games, newest first, after an opaque cursor from a previous page
+    // (from the newest if it is null); every status if status is null. The games
+    // are only counted if includeTotal is set.
+    public CursorPage<Game> getGamesPage(Game.GameStatus status, String cursor, int size, boolean includeTotal) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        GameCursor after = cursor == null || cursor.isEmpty() ? null : GameCursor.decode(cursor);
+        // One game more than the page tells whether another page follows
+        List<Game> content = gameStore.findPage(status, after, (int) Math.min(size + 1L, Integer.MAX_VALUE));
+        String nextCursor = null;
+        if (content.size() > size) {
+            content = new ArrayList<>(content.subList(0, size));
+            nextCursor = GameCursor.after(content.get(size - 1)).encode();
+        }
+        Long totalElements = null;
+        if (includeTotal) {
+            totalElements = status == null ? gameStore.count() : gameStore.countByStatus(status);
+        }
+        return new CursorPage<>(content, size, nextCursor, totalElements);
+    }
+    
+    // Get a page of games, newest first; every status if status is null. Only the
+    // requested page is loaded.
+    public PaginatedResponse<Game> getGamesPaginated(Game.GameStatus status, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page number must be non-negative");
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        long totalElements = status == null ? gameStore.count() : gameStore.countByStatus(status);
+        int totalPages = (int) Math.ceil((double) totalElements / size);
+        if (totalElements == 0) {
+            return new PaginatedResponse<>(
+                Collections.emptyList(),
+                new PaginatedResponse.PageInfo(0, size, 0, 0, true, true)
+            );
+        }
+        if (page >= totalPages) {
+            throw new IllegalArgumentException("Page number " + page + " is out of range. Total pages: " + totalPages);
+        }
+        List<Game> content = gameStore.findRange(status, (int) Math.min((long) page * size, Integer.MAX_VALUE), size);
+        return new PaginatedResponse<>(content,
+            new PaginatedResponse.PageInfo(page, size, totalElements, totalPages, page == 0, page == totalPages - 1));
+    }
+    
+    // Hand every game (or every game with the status) to the action, newest first,
+    // loading a bounded batch at a time instead of the whole list
+    public void forEachGame(Game.GameStatus status, Consumer<Game> action) {
+        GameCursor after = null;
+        List<Game> batch;
+        do {
+            batch = gameStore.findPage(status, after, STREAM_BATCH);
+            batch.forEach(action);
+            if (!batch.isEmpty()) {
+                after = GameCursor.after(batch.get(batch.size() - 1));
+            }
+        } while (batch.size() == STREAM_BATCH);
     }
     
     // Clear all games (for testing purposes)
     public void clearAllGames() {
-        games.clear();
+        gameStore.clear();
+        notifyListeners(GameEventListener::gamesCleared);
     }
     
     // Get active games
@@ -56,75 +222,123 @@ public class GameService {
     
     // Get completed games
     public List<Game> getCompletedGames() {
-        return games.values().stream()
-            .filter(game -> game.getStatus() == Game.GameStatus.COMPLETED || 
-                          game.getStatus() == Game.GameStatus.DRAW)
-            .collect(Collectors.toList());
+        List<Game> completed = findByStatus(Game.GameStatus.COMPLETED);
+        completed.addAll(findByStatus(Game.GameStatus.DRAW));
+        return completed;
     }
     
-    // Add player to game
+    // Add player to game. The player's lock is taken before the game's, the same
+    // order as deletePlayer, and the player is looked up again under it: one deleted
+    // after the caller found them is refused instead of joining as a dangling
+    // reference. Nothing takes a player lock while holding a game lock.
     public boolean addPlayerToGame(String gameId, Player player) {
-        Game game = findById(gameId)
-            .orElseThrow(() -> new IllegalArgumentException("Game not found"));
-        
-        if (game.getStatus() != Game.GameStatus.WAITING) {
-            throw new IllegalStateException("Game is not accepting new players");
+        Lock playerLock = playerService.lockFor(player.getId());
+        playerLock.lock();
+        Lock lock = lockFor(gameId);
+        lock.lock();
+        try {
+            if (playerService.findById(player.getId()).isEmpty()) {
+                throw new IllegalArgumentException("Player not found");
+            }
+            // The game after the player joined, or null if they were already in it
+            Game joined = gameStore.update(gameId, game -> {
+                if (game.getStatus() != Game.GameStatus.WAITING) {
+                    throw new IllegalStateException("Game is not accepting new players");
+                }
+                
+                if (game.getPlayers().size() >= 2) {
+                    throw new IllegalStateException("Game is full");
+                }
+                
+                return game.addPlayer(player) ? game : null;
+            });
+            if (joined == null) {
+                return false;
+            }
+            // Outside the store update, which may be retried
+            notifyListeners(listener -> listener.playerJoined(joined, player));
+            return true;
+        } finally {
+            lock.unlock();
+            playerLock.unlock();
         }
-        
-        if (game.getPlayers().size() >= 2) {
-            throw new IllegalStateException("Game is full");
-        }
-        
-        return game.addPlayer(player);
     }
     
     // Make a move in a game
     public boolean makeMove(String gameId, String playerId, int position) {
-        Game game = findById(gameId)
-            .orElseThrow(() -> new IllegalArgumentException("Game not found"));
-        
-        Player player = game.getPlayers().stream()
-            .filter(p -> p.getId().equals(playerId))
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException("Player not in this game"));
-        
-        if (game.getStatus() != Game.GameStatus.ACTIVE) {
-            throw new IllegalStateException("Game is not active");
+        long start = System.nanoTime();
+        boolean moved = false;
+        try {
+            moved = applyMove(gameId, playerId, position);
+            return moved;
+        } finally {
+            (moved ? acceptedMoveTimer : rejectedMoveTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-        
-        if (!game.getCurrentPlayer().getId().equals(playerId)) {
-            throw new IllegalStateException("Not player's turn");
+    }
+    
+    private boolean applyMove(String gameId, String playerId, int position) {
+        Lock lock = lockFor(gameId);
+        lock.lock();
+        try {
+            // The game after an accepted move, or null if the move was rejected
+            Game updated = gameStore.update(gameId, game -> {
+                Player player = game.getPlayers().stream()
+                    .filter(p -> p.getId().equals(playerId))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Player not in this game"));
+                
+                if (game.getStatus() != Game.GameStatus.ACTIVE) {
+                    throw new IllegalStateException("Game is not active");
+                }
+                
+                if (!game.getCurrentPlayer().getId().equals(playerId)) {
+                    throw new IllegalStateException("Not player's turn");
+                }
+                
+                return game.makeMove(player, position) ? game : null;
+            });
+            if (updated == null) {
+                return false;
+            }
+            Move move = updated.getMoves().get(updated.getMoves().size() - 1);
+            notifyListeners(listener -> listener.moveMade(updated, move));
+            if (updated.getStatus() != Game.GameStatus.ACTIVE) {
+                (updated.getWinner() != null ? winCounter : drawCounter).increment();
+                // Game over: both players' stats changed
+                for (Player p : updated.getPlayers()) {
+                    playerService.refreshRanking(p);
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
         }
-        
-        return game.makeMove(player, position);
     }
     
     // Get game status
     public Game.GameStatus getGameStatus(String gameId) {
-        Game game = findById(gameId)
-            .orElseThrow(() -> new IllegalArgumentException("Game not found"));
-        return game.getStatus();
+        return getSnapshot(gameId).getStatus();
     }
     
-    // Get game board
+    // Get game board (immutable snapshot view, no copy needed)
     public List<String> getGameBoard(String gameId) {
-        Game game = findById(gameId)
-            .orElseThrow(() -> new IllegalArgumentException("Game not found"));
-        return new ArrayList<>(game.getBoard());
+        return getSnapshot(gameId).getBoard();
     }
     
     // Get current player
     public Optional<Player> getCurrentPlayer(String gameId) {
-        Game game = findById(gameId)
-            .orElseThrow(() -> new IllegalArgumentException("Game not found"));
-        return Optional.ofNullable(game.getCurrentPlayer());
+        return Optional.ofNullable(getSnapshot(gameId).getCurrentPlayer());
     }
     
     // Get winner
     public Optional<Player> getWinner(String gameId) {
-        Game game = findById(gameId)
+        return Optional.ofNullable(getSnapshot(gameId).getWinner());
+    }
+    
+    // Snapshot lookup shared by the read-only accessors above
+    private GameSnapshot getSnapshot(String gameId) {
+        return findSnapshotById(gameId)
             .orElseThrow(() -> new IllegalArgumentException("Game not found"));
-        return Optional.ofNullable(game.getWinner());
     }
     
     // Get game moves
@@ -136,32 +350,56 @@ public class GameService {
     
     // Delete game
     public boolean deleteGame(String id) {
-        return games.remove(id) != null;
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            boolean deleted = gameStore.delete(id);
+            if (deleted) {
+                notifyListeners(listener -> listener.gameDeleted(id));
+            }
+            return deleted;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Delete a player who is in no game. Games keep pointing at their players, and
+    // the database cannot delete one still listed in game_players, so every storage
+    // mode refuses alike with IllegalStateException. Joins hold the player's lock
+    // too, so none can land between the check and the delete.
+    public boolean deletePlayer(String playerId) {
+        Lock lock = playerService.lockFor(playerId);
+        lock.lock();
+        try {
+            if (!gameStore.findByPlayer(playerId).isEmpty()) {
+                throw new IllegalStateException("Player is still in a game");
+            }
+            return playerService.deletePlayer(playerId);
+        } finally {
+            lock.unlock();
+        }
     }
     
     // Get games by player
     public List<Game> getGamesByPlayer(String playerId) {
-        return games.values().stream()
-            .filter(game -> game.getPlayers().stream()
-                .anyMatch(player -> player.getId().equals(playerId)))
-            .collect(Collectors.toList());
+        return gameStore.findByPlayer(playerId);
     }
     
     // Get player's active games
     public List<Game> getPlayerActiveGames(String playerId) {
-        return getGamesByPlayer(playerId).stream()
+        return gameStore.findByPlayer(playerId).stream()
             .filter(game -> game.getStatus() == Game.GameStatus.ACTIVE)
             .collect(Collectors.toList());
     }
     
     // Get total game count
     public long getTotalGameCount() {
-        return games.size();
+        return gameStore.count();
     }
     
     // Get games created in date range
     public List<Game> getGamesCreatedBetween(Date startDate, Date endDate) {
-        return games.values().stream()
+        return gameStore.findAll().stream()
             .filter(game -> {
                 Date createdAt = java.sql.Timestamp.valueOf(game.getCreatedAt());
                 return createdAt.after(startDate) && createdAt.before(endDate);
@@ -171,18 +409,12 @@ public class GameService {
     
     // Get games with most moves
     public List<Game> getGamesWithMostMoves(int limit) {
-        return games.values().stream()
-            .sorted((g1, g2) -> Integer.compare(g2.getMoves().size(), g1.getMoves().size()))
-            .limit(limit)
-            .collect(Collectors.toList());
+        return TopK.select(gameStore.findAll(), limit, MOST_MOVES);
     }
     
     // Get recent games
     public List<Game> getRecentGames(int limit) {
-        return games.values().stream()
-            .sorted((g1, g2) -> g2.getCreatedAt().compareTo(g1.getCreatedAt()))
-            .limit(limit)
-            .collect(Collectors.toList());
+        return TopK.select(gameStore.findAll(), limit, MOST_RECENT);
     }
     
     // Check if game is full
@@ -192,6 +424,31 @@ public class GameService {
         return game.getPlayers().size() >= 2;
     }
     
+    private void notifyListeners(Consumer<GameEventListener> event) {
+        for (GameEventListener listener : eventListeners) {
+            event.accept(listener);
+        }
+    }
+    
+    // Lock guarding all mutations of the given game
+    private Lock lockFor(String gameId) {
+        return gameLocks.forKey(gameId);
+    }
+    
+    private static Timer moveTimer(MeterRegistry registry, String result) {
+        return Timer.builder("game.move")
+            .description("GameService.makeMove latency")
+            .tag("result", result)
+            .register(registry);
+    }
+    
+    private static Counter outcomeCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("game.outcomes")
+            .description("Finished games by outcome")
+            .tag("outcome", outcome)
+            .register(registry);
+    }
+    
     // Check if player is in game
     public boolean isPlayerInGame(String gameId, String playerId) {
         Game game = findById(gameId)
@@ -0,0 +1,151 @@
+package com.example.service;
+
+import com.example.model.MoveBatchResult;
+import com.example.model.MoveCommand;
+import com.example.model.MoveResult;
+import com.example.util.BackgroundExecutors;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+// Applies many moves submitted in one request, e.g. by bots driving hundreds of
+// games. Moves are grouped by game: one game's moves run in the order given, on
+// one thread, so they never contend for its lock, while different games run in
+// parallel. Each move is validated and applied on its own and gets its own result;
+// one bad move does not fail the batch.
+@Service
+public class MoveBatchService {
+
+    private final GameService gameService;
+    private final ValidationService validationService;
+    private final int maxMoves;
+    private final int threads;
+    private final ExecutorService workers;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public MoveBatchService(GameService gameService, ValidationService validationService, MeterRegistry meterRegistry,
+                            @Value("${game.moves.batch.max-size:1000}") int maxMoves,
+                            @Value("${game.moves.batch.threads:8}") int threads,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.gameService = gameService;
+        this.validationService = validationService;
+        this.maxMoves = maxMoves;
+        // Also caps the chunks in flight when each runs on its own virtual thread
+        this.threads = Math.max(1, threads);
+        this.workers = BackgroundExecutors.workers("move-batch", this.threads, virtualThreads);
+        this.batchTimer = Timer.builder("game.move.batch")
+            .description("MoveBatchService.makeMoves latency")
+            .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("game.move.batch.size")
+            .description("Moves per batch")
+            .register(meterRegistry);
+    }
+
+    // One result per move, in the order given. Throws IllegalArgumentException only
+    // for the batch as a whole: missing, empty or larger than the limit.
+    public MoveBatchResult makeMoves(List<MoveCommand> moves) {
+        if (moves == null || moves.isEmpty()) {
+            throw new IllegalArgumentException("At least one move is required");
+        }
+        if (moves.size() > maxMoves) {
+            throw new IllegalArgumentException("At most " + maxMoves + " moves are allowed per batch");
+        }
+        batchSize.record(moves.size());
+        return batchTimer.record(() -> new MoveBatchResult(Arrays.asList(apply(moves))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    private MoveResult[] apply(List<MoveCommand> moves) {
+        MoveResult[] results = new MoveResult[moves.size()];
+
+        // Indexes of each game's moves, in submission order
+        Map<String, List<Integer>> byGame = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            MoveCommand move = moves.get(i);
+            String gameId = move == null ? null : move.getGameId();
+            if (gameId == null) {
+                results[i] = new MoveResult(i, null, MoveResult.Status.INVALID, "Game ID is required");
+            } else {
+                byGame.computeIfAbsent(gameId, id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // Games are dealt round-robin into at most one chunk per worker; the
+        // calling thread runs the first chunk itself
+        List<List<Integer>> groups = new ArrayList<>(byGame.values());
+        int chunks = Math.min(threads, groups.size());
+        List<Future<?>> pending = new ArrayList<>(chunks);
+        for (int c = 1; c < chunks; c++) {
+            Runnable chunk = chunk(moves, groups, c, chunks, results);
+            try {
+                pending.add(workers.submit(chunk));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                chunk.run();
+            }
+        }
+        if (chunks > 0) {
+            chunk(moves, groups, 0, chunks, results).run();
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while applying moves", e);
+            } catch (ExecutionException e) {
+                // apply catches everything a move can throw, so this is a bug
+                throw new IllegalStateException("Applying moves failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
+    private Runnable chunk(List<MoveCommand> moves, List<List<Integer>> groups, int chunk, int chunks,
+                           MoveResult[] results) {
+        return () -> {
+            for (int g = chunk; g < groups.size(); g += chunks) {
+                for (int index : groups.get(g)) {
+                    results[index] = apply(index, moves.get(index));
+                }
+            }
+        };
+    }
+
+    private MoveResult apply(int index, MoveCommand move) {
+        String gameId = move.getGameId();
+        try {
+            validationService.validateId(gameId, "Game ID");
+            validationService.validateId(move.getPlayerId(), "Player ID");
+            validationService.validateMovePosition(move.getPosition());
+            boolean accepted = gameService.makeMove(gameId, move.getPlayerId(), move.getPosition());
+            return accepted
+                ? new MoveResult(index, gameId, MoveResult.Status.ACCEPTED, null)
+                : new MoveResult(index, gameId, MoveResult.Status.REJECTED, "Move was not accepted");
+        } catch (IllegalArgumentException e) {
+            return new MoveResult(index, gameId, MoveResult.Status.INVALID, e.getMessage());
+        } catch (IllegalStateException e) {
+            return new MoveResult(index, gameId, MoveResult.Status.CONFLICT, e.getMessage());
+        } catch (RuntimeException e) {
+            return new MoveResult(index, gameId, MoveResult.Status.ERROR, "Move could not be applied");
+        }
+    }
+}
@@ -1,71 +1,307 @@
 package com.example.service;
 
+import com.example.model.CursorPage;
 import com.example.model.Player;
 import com.example.model.PlayerStats;
 import com.example.model.PaginatedResponse;
+import com.example.model.PlayerRegistration;
+import com.example.model.RegistrationBatchResult;
+import com.example.model.RegistrationResult;
+import com.example.repository.InMemoryPlayerStore;
+import com.example.repository.LeaderboardCursor;
+import com.example.repository.LeaderboardSort;
+import com.example.repository.PlayerStore;
+import com.example.util.StripedLocks;
+import com.example.util.TopK;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class PlayerService {
     
-    // In-memory storage for L2 (can be replaced with repository for L3)
-    private final Map<String, Player> players = new ConcurrentHashMap<>();
+    // In-memory or JPA storage, selected by storage.mode. The store owns the email
+    // uniqueness claims and the leaderboard rankings.
+    private final PlayerStore playerStore;
+    
+    private final ValidationService validationService;
+    
+    // Notified of every state change, e.g. to journal it
+    private final List<GameEventListener> eventListeners;
+    
+    // Striped per-player locks, keyed by id rather than by Player instance: the
+    // JPA store returns a fresh copy of a player on every lookup
+    private final StripedLocks playerLocks = new StripedLocks(1024);
+    
+    // Leaderboard query latency per ordering, for top-N, page and cursor queries
+    private final Map<LeaderboardSort, Timer> topTimers = new EnumMap<>(LeaderboardSort.class);
+    private final Map<LeaderboardSort, Timer> pageTimers = new EnumMap<>(LeaderboardSort.class);
+    private final Map<LeaderboardSort, Timer> cursorTimers = new EnumMap<>(LeaderboardSort.class);
+    
+    // Bulk registration latency, and players checked and inserted together
+    private final Timer registrationTimer;
+    private static final int REGISTRATION_BATCH = 500;
+    
+    // Orderings for the top-K queries; player id breaks ties deterministically
+    private static final Comparator<Player> MOST_ACTIVE = Comparator
+        .comparingInt((Player p) -> p.getStats().getGamesPlayed()).reversed()
+        .thenComparing(Player::getId);
+    
+    private static final Comparator<Player> MOST_EFFICIENT = Comparator
+        .comparingDouble((Player p) -> p.getStats().getEfficiency()).reversed()
+        .thenComparing(Player::getId);
+    
+    public PlayerService(ValidationService validationService) {
+        this(validationService, new InMemoryPlayerStore(), new SimpleMeterRegistry(), List.of());
+    }
+    
+    @Autowired
+    public PlayerService(ValidationService validationService, PlayerStore playerStore, MeterRegistry meterRegistry,
+                         ObjectProvider<GameEventListener> eventListeners) {
+        this(validationService, playerStore, meterRegistry, eventListeners.orderedStream().collect(Collectors.toList()));
+    }
+    
+    public PlayerService(ValidationService validationService, PlayerStore playerStore, MeterRegistry meterRegistry,
+                         List<GameEventListener> eventListeners) {
+        this.validationService = validationService;
+        this.playerStore = playerStore;
+        this.eventListeners = List.copyOf(eventListeners);
+        topTimers.put(LeaderboardSort.WIN_RATE, leaderboardTimer(meterRegistry, "winrate", "top"));
+        topTimers.put(LeaderboardSort.WINS, leaderboardTimer(meterRegistry, "wins", "top"));
+        pageTimers.put(LeaderboardSort.WIN_RATE, leaderboardTimer(meterRegistry, "winrate", "page"));
+        pageTimers.put(LeaderboardSort.WINS, leaderboardTimer(meterRegistry, "wins", "page"));
+        cursorTimers.put(LeaderboardSort.WIN_RATE, leaderboardTimer(meterRegistry, "winrate", "cursor"));
+        cursorTimers.put(LeaderboardSort.WINS, leaderboardTimer(meterRegistry, "wins", "cursor"));
+        this.registrationTimer = Timer.builder("player.registration.bulk")
+            .description("PlayerService.registerPlayers latency")
+            .register(meterRegistry);
+    }
     
     // Create a new player
     public Player createPlayer(String name, String email) {
-        // Check if email already exists
-        if (findByEmail(email).isPresent()) {
-            throw new IllegalArgumentException("Player with this email already exists");
+        if (email == null) {
+            throw new IllegalArgumentException("Player email cannot be empty");
         }
         
         Player player = new Player(name, email);
-        players.put(player.getId(), player);
+        player.setEmailKey(emailKey(email));
+        if (!playerStore.insert(player)) {
+            throw new IllegalArgumentException("Player with this email already exists");
+        }
+        notifyListeners(listener -> listener.playerCreated(player));
+        return player;
+    }
+    
+    // Register many players, e.g. an onboarding import, consuming them as they are
+    // read. Names and emails are validated as they arrive, emails repeated within
+    // the import are caught by a set, and each batch costs one lookup of taken
+    // emails plus one insert. Every player gets its own result. Unreadable input or
+    // more than limit players stops the import, keeping what was registered before.
+    public RegistrationBatchResult registerPlayers(Iterator<PlayerRegistration> registrations, int limit) {
+        long start = System.nanoTime();
+        List<RegistrationResult> results = new ArrayList<>();
+        Set<String> seenEmailKeys = new HashSet<>();
+        List<Player> batch = new ArrayList<>(REGISTRATION_BATCH);
+        // Results of the players in batch, in the same order
+        List<RegistrationResult> batchResults = new ArrayList<>(REGISTRATION_BATCH);
+        String error = null;
+        try {
+            while (error == null) {
+                PlayerRegistration registration;
+                try {
+                    if (!registrations.hasNext()) {
+                        break;
+                    }
+                    registration = registrations.next();
+                } catch (RuntimeException e) {
+                    error = "Malformed input at item " + results.size();
+                    break;
+                }
+                if (results.size() == limit) {
+                    error = "At most " + limit + " players can be registered at once";
+                    break;
+                }
+                
+                int index = results.size();
+                String email = registration == null ? null : registration.getEmail();
+                try {
+                    if (registration == null) {
+                        throw new IllegalArgumentException("Player cannot be null");
+                    }
+                    validationService.validatePlayerName(registration.getName());
+                    validationService.validatePlayerEmail(email);
+                } catch (IllegalArgumentException e) {
+                    results.add(new RegistrationResult(index, email, RegistrationResult.Status.INVALID, null,
+                        e.getMessage()));
+                    continue;
+                }
+                String key = emailKey(email);
+                if (!seenEmailKeys.add(key)) {
+                    results.add(new RegistrationResult(index, email, RegistrationResult.Status.DUPLICATE, null,
+                        "Email appears earlier in this import"));
+                    continue;
+                }
+                
+                Player player = new Player(registration.getName(), email);
+                player.setEmailKey(key);
+                // Filled in when the batch is stored
+                RegistrationResult result = new RegistrationResult(index, email, null, null, null);
+                results.add(result);
+                batch.add(player);
+                batchResults.add(result);
+                if (batch.size() == REGISTRATION_BATCH) {
+                    error = registerBatch(batch, batchResults);
+                }
+            }
+            // Players read before the input stopped are still registered
+            if (!batch.isEmpty()) {
+                String failure = registerBatch(batch, batchResults);
+                error = error != null ? error : failure;
+            }
+            return new RegistrationBatchResult(results, error);
+        } finally {
+            registrationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    // Store a batch of validated players and fill in their results, which are
+    // given in the same order; returns an error that stops the import, or null
+    private String registerBatch(List<Player> batch, List<RegistrationResult> results) {
+        try {
+            Set<String> taken = playerStore.findTakenEmailKeys(
+                batch.stream().map(Player::getEmailKey).collect(Collectors.toList()));
+            List<Player> fresh = new ArrayList<>(batch.size());
+            List<RegistrationResult> freshResults = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                RegistrationResult result = results.get(i);
+                if (taken.contains(batch.get(i).getEmailKey())) {
+                    result.setStatus(RegistrationResult.Status.DUPLICATE);
+                    result.setMessage("Player with this email already exists");
+                } else {
+                    fresh.add(batch.get(i));
+                    freshResults.add(result);
+                }
+            }
+            
+            // Emails claimed since the lookup are refused here, one by one
+            boolean[] stored = playerStore.insertAll(fresh);
+            for (int i = 0; i < stored.length; i++) {
+                Player player = fresh.get(i);
+                RegistrationResult result = freshResults.get(i);
+                if (stored[i]) {
+                    notifyListeners(listener -> listener.playerCreated(player));
+                    result.setStatus(RegistrationResult.Status.CREATED);
+                    result.setPlayerId(player.getId());
+                } else {
+                    result.setStatus(RegistrationResult.Status.DUPLICATE);
+                    result.setMessage("Player with this email already exists");
+                }
+            }
+            return null;
+        } catch (RuntimeException e) {
+            for (RegistrationResult result : results) {
+                if (result.getStatus() == null) {
+                    result.setStatus(RegistrationResult.Status.ERROR);
+                    result.setMessage("Player could not be stored");
+                }
+            }
+            return "Registration failed at item " + results.get(0).getIndex();
+        } finally {
+            batch.clear();
+            results.clear();
+        }
+    }
+    
+    // Re-create a player with their original id and creation time (journal replay)
+    public Player restorePlayer(String id, String name, String email, LocalDateTime createdAt) {
+        Player player = new Player(name, email);
+        player.setId(id);
+        player.setCreatedAt(createdAt);
+        player.setUpdatedAt(createdAt);
+        return restorePlayer(player);
+    }
+    
+    // Re-insert a fully built player, stats included (snapshot load)
+    public Player restorePlayer(Player player) {
+        player.setEmailKey(emailKey(player.getEmail()));
+        if (!playerStore.insert(player)) {
+            throw new IllegalArgumentException("Player with this email already exists");
+        }
+        if (player.getStats().getGamesPlayed() > 0) {
+            playerStore.statsChanged(player);
+        }
         return player;
     }
     
     // Get player by ID
     public Optional<Player> findById(String id) {
-        return Optional.ofNullable(players.get(id));
+        return playerStore.findById(id);
     }
     
-    // Get player by email
+    // Get player by email (case-insensitive, via the email index)
     public Optional<Player> findByEmail(String email) {
-        return players.values().stream()
-            .filter(player -> player.getEmail().equals(email))
-            .findFirst();
+        if (email == null) {
+            return Optional.empty();
+        }
+        return playerStore.findByEmailKey(emailKey(email));
     }
     
     // Get all players
     public List<Player> findAll() {
-        return new ArrayList<>(players.values());
+        return playerStore.findAll();
     }
     
     // Update player
     public Player updatePlayer(String id, String name, String email) {
-        Player player = findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Player not found"));
-        
-        // Check if email is being changed and if it conflicts with another player
-        if (!player.getEmail().equals(email)) {
-            findByEmail(email).ifPresent(existing -> {
-                if (!existing.getId().equals(id)) {
-                    throw new IllegalArgumentException("Email already in use by another player");
-                }
-            });
+        if (email == null) {
+            throw new IllegalArgumentException("Player email cannot be empty");
+        }
+        // Under the player's lock so listeners see concurrent updates in applied order
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            Player updated = playerStore.updateProfile(id, name, email, emailKey(email));
+            notifyListeners(listener -> listener.playerUpdated(updated));
+            return updated;
+        } finally {
+            lock.unlock();
         }
-        
-        player.setName(name);
-        player.setEmail(email);
-        return player;
     }
     
-    // Delete player
+    // Delete player, whether or not games still refer to them (journal replay);
+    // requests go through GameService.deletePlayer, which refuses that
     public boolean deletePlayer(String id) {
-        return players.remove(id) != null;
+        Lock lock = lockFor(id);
+        lock.lock();
+        try {
+            boolean deleted = playerStore.delete(id);
+            if (deleted) {
+                notifyListeners(listener -> listener.playerDeleted(id));
+            }
+            return deleted;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    // Lock guarding profile changes and deletion of the given player
+    Lock lockFor(String playerId) {
+        return playerLocks.forKey(playerId);
+    }
+    
+    // Re-rank a player after their stats changed (e.g. a game they played finished)
+    public void refreshRanking(Player player) {
+        playerStore.statsChanged(player);
     }
     
     // Search players by name (partial match)
@@ -75,7 +311,7 @@ public class PlayerService {
         }
         
         String searchTerm = name.toLowerCase().trim();
-        return players.values().stream()
+        return findAll().stream()
             .filter(player -> player.getName().toLowerCase().contains(searchTerm))
             .collect(Collectors.toList());
     }
@@ -94,11 +330,11 @@ public class PlayerService {
     
     // Get leaderboard with sorting options
     public List<Player> getLeaderboard(int limit, String sortBy) {
-        return players.values().stream()
-            .filter(player -> player.getStats().getGamesPlayed() > 0)
-            .sorted(getSortingComparator(sortBy))
-            .limit(limit)
-            .collect(Collectors.toList());
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must be non-negative");
+        }
+        LeaderboardSort sort = LeaderboardSort.fromParameter(sortBy);
+        return topTimers.get(sort).record(() -> playerStore.leaderboard(sort, 0, limit));
     }
     
     // Get leaderboard with pagination
@@ -116,13 +352,40 @@ public class PlayerService {
             throw new IllegalArgumentException("Page size must be positive");
         }
         
-        // Get all players with games played > 0, sorted by specified criteria
-        List<Player> allPlayers = players.values().stream()
-            .filter(player -> player.getStats().getGamesPlayed() > 0)
-            .sorted(getSortingComparator(sortBy))
-            .collect(Collectors.toList());
-        
-        long totalElements = allPlayers.size();
+        LeaderboardSort sort = LeaderboardSort.fromParameter(sortBy);
+        return pageTimers.get(sort).record(() -> leaderboardPage(sort, page, size));
+    }
+    
+    // Get the leaderboard page after an opaque cursor from a previous page (from the
+    // top if it is null). Unlike page numbers this costs the same at any depth; the
+    // ranked players are only counted if includeTotal is set.
+    public CursorPage<Player> getLeaderboardAfter(String cursor, int size, String sortBy, boolean includeTotal) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        LeaderboardSort sort = LeaderboardSort.fromParameter(sortBy);
+        LeaderboardCursor after = cursor == null || cursor.isEmpty() ? null : LeaderboardCursor.decode(cursor);
+        if (after != null && after.getSort() != sort) {
+            throw new IllegalArgumentException("Cursor belongs to a different sort order");
+        }
+        return cursorTimers.get(sort).record(() -> leaderboardAfter(sort, after, size, includeTotal));
+    }
+    
+    private CursorPage<Player> leaderboardAfter(LeaderboardSort sort, LeaderboardCursor after, int size,
+                                                boolean includeTotal) {
+        // One player more than the page tells whether another page follows
+        List<Player> content = playerStore.leaderboardAfter(sort, after, (int) Math.min(size + 1L, Integer.MAX_VALUE));
+        String nextCursor = null;
+        if (content.size() > size) {
+            content = new ArrayList<>(content.subList(0, size));
+            nextCursor = LeaderboardCursor.after(sort, content.get(size - 1)).encode();
+        }
+        Long totalElements = includeTotal ? (long) playerStore.rankedCount() : null;
+        return new CursorPage<>(content, size, nextCursor, totalElements);
+    }
+    
+    private PaginatedResponse<Player> leaderboardPage(LeaderboardSort sort, int page, int size) {
+        long totalElements = playerStore.rankedCount();
         int totalPages = (int) Math.ceil((double) totalElements / size);
         
         // Handle empty result
@@ -138,12 +401,9 @@ public class PlayerService {
             throw new IllegalArgumentException("Page number " + page + " is out of range. Total pages: " + totalPages);
         }
         
-        // Calculate pagination
-        int offset = page * size;
-        List<Player> pageContent = allPlayers.stream()
-            .skip(offset)
-            .limit(size)
-            .collect(Collectors.toList());
+        // Only the requested page is materialized
+        long offset = (long) page * size;
+        List<Player> pageContent = playerStore.leaderboard(sort, (int) offset, size);
         
         // Create page info
         PaginatedResponse.PageInfo pageInfo = new PaginatedResponse.PageInfo(
@@ -160,66 +420,65 @@ public class PlayerService {
     
     // Clear all players (for testing purposes)
     public void clearAllPlayers() {
-        players.clear();
+        playerStore.clear();
+        notifyListeners(GameEventListener::playersCleared);
     }
     
     // Get players with most games played
     public List<Player> getMostActivePlayers(int limit) {
-        return players.values().stream()
-            .sorted((p1, p2) -> Integer.compare(p2.getStats().getGamesPlayed(), p1.getStats().getGamesPlayed()))
-            .limit(limit)
-            .collect(Collectors.toList());
+        return TopK.select(findAll(), limit, MOST_ACTIVE);
     }
     
     // Get players with highest efficiency
     public List<Player> getMostEfficientPlayers(int limit) {
-        return players.values().stream()
-            .filter(player -> player.getStats().getGamesWon() > 0)
-            .sorted((p1, p2) -> Double.compare(p2.getStats().getEfficiency(), p1.getStats().getEfficiency()))
-            .limit(limit)
-            .collect(Collectors.toList());
+        return TopK.select(findAll(), player -> player.getStats().getGamesWon() > 0, limit, MOST_EFFICIENT);
     }
     
     // Update player stats after game completion
     public void updatePlayerStats(String playerId, boolean won, boolean drawn, int movesMade) {
-        Player player = findById(playerId)
-            .orElseThrow(() -> new IllegalArgumentException("Player not found"));
-        
-        PlayerStats stats = player.getStats();
-        stats.incrementGamesPlayed();
-        
-        if (won) {
-            stats.incrementGamesWon();
-        } else if (drawn) {
-            stats.incrementGamesDrawn();
-        } else {
-            stats.incrementGamesLost();
-        }
-        
-        stats.addMoves(movesMade);
+        playerStore.updateStats(playerId, stats -> {
+            stats.incrementGamesPlayed();
+            
+            if (won) {
+                stats.incrementGamesWon();
+            } else if (drawn) {
+                stats.incrementGamesDrawn();
+            } else {
+                stats.incrementGamesLost();
+            }
+            
+            stats.addMoves(movesMade);
+        });
+        notifyListeners(listener -> listener.playerStatsUpdated(playerId, won, drawn, movesMade));
     }
     
     // Get total player count
     public long getTotalPlayerCount() {
-        return players.size();
+        return playerStore.count();
     }
     
-    // Helper method to get sorting comparator based on sortBy parameter
-    private Comparator<Player> getSortingComparator(String sortBy) {
-        if (sortBy == null || sortBy.equalsIgnoreCase("winrate")) {
-            // Default: sort by win rate (descending)
-            return (p1, p2) -> Double.compare(p2.getStats().getWinRate(), p1.getStats().getWinRate());
-        } else if (sortBy.equalsIgnoreCase("wins")) {
-            // Sort by total wins (descending)
-            return (p1, p2) -> Integer.compare(p2.getStats().getGamesWon(), p1.getStats().getGamesWon());
-        } else {
-            throw new IllegalArgumentException("Invalid sortBy parameter. Supported values: 'winrate', 'wins'");
+    // Key under which an email is indexed
+    private String emailKey(String email) {
+        return validationService.normalizeEmail(email);
+    }
+    
+    private void notifyListeners(Consumer<GameEventListener> event) {
+        for (GameEventListener listener : eventListeners) {
+            event.accept(listener);
         }
     }
     
+    private static Timer leaderboardTimer(MeterRegistry registry, String sortBy, String query) {
+        return Timer.builder("leaderboard.query")
+            .description("Leaderboard query latency")
+            .tag("sort", sortBy)
+            .tag("query", query)
+            .register(registry);
+    }
+    
     // Get players created in date range
     public List<Player> getPlayersCreatedBetween(Date startDate, Date endDate) {
-        return players.values().stream()
+        return findAll().stream()
             .filter(player -> {
                 Date createdAt = java.sql.Timestamp.valueOf(player.getCreatedAt());
                 return createdAt.after(startDate) && createdAt.before(endDate);
@@ -33,6 +33,8 @@ public class ValidationService {
         "^[a-zA-Z0-9\\s\\-_']{1,100}$"
     );
     
+    private static final Pattern ID_PATTERN = Pattern.compile("^[a-zA-Z0-9-]+$");
+    
     // Player validation
     public void validatePlayer(Player player) {
         if (player == null) {
@@ -96,6 +98,17 @@ public class ValidationService {
         }
     }
     
+    // Player and game ids, as accepted by the request bodies
+    public void validateId(String id, String label) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException(label + " is required");
+        }
+        
+        if (!ID_PATTERN.matcher(id).matches()) {
+            throw new IllegalArgumentException(label + " must contain only alphanumeric characters and hyphens");
+        }
+    }
+    
     // Move validation
     public void validateMove(Move move) {
         if (move == null) {
@@ -0,0 +1,28 @@
+package com.example.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Executors for the application's own worker pools (event senders, batch workers).
+// Their tasks mostly block on sockets or the database, so with
+// spring.threads.virtual.enabled each task gets its own virtual thread; otherwise
+// they run on a fixed pool of named daemon threads. Callers that need bounded
+// parallelism bound it themselves, since the virtual executor does not.
+public final class BackgroundExecutors {
+
+    private BackgroundExecutors() {
+    }
+
+    public static ExecutorService workers(String name, int threads, boolean virtual) {
+        if (virtual) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.util;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+// A fixed set of ReentrantLocks shared out by key hash: work on one key is
+// serialized, keys on different stripes never contend, and memory stays bounded
+// however many keys there are. ReentrantLock rather than monitors, so a virtual
+// thread that blocks (on the database, or on write-behind backpressure) while
+// holding one releases its carrier thread.
+public final class StripedLocks {
+
+    private final Lock[] locks;
+
+    // stripes must be a power of two
+    public StripedLocks(int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripes must be a power of two");
+        }
+        locks = new Lock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock forKey(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return locks[h & (locks.length - 1)];
+    }
+}
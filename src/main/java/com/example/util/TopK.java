@@ -0,0 +1,92 @@
+package com.example.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+// Bounded top-K selection: keeps the best k items in a heap of size k instead of
+// sorting the whole input, i.e. O(n log k) time and O(k) memory. Large inputs are
+// scanned in parallel with one heap per worker, merged at the end.
+public final class TopK {
+
+    // Inputs at least this large are scanned in parallel
+    public static final int PARALLEL_THRESHOLD = 10_000;
+
+    private TopK() {
+    }
+
+    // The first k items of the input in the given order
+    public static <T> List<T> select(Collection<T> items, int k, Comparator<? super T> order) {
+        return select(items, item -> true, k, order);
+    }
+
+    // The first k items matching the filter, in the given order
+    public static <T> List<T> select(Collection<T> items, Predicate<? super T> filter,
+                                     int k, Comparator<? super T> order) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Limit must be non-negative");
+        }
+        if (k == 0 || items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Stream<T> stream = items.size() >= PARALLEL_THRESHOLD ? items.parallelStream() : items.stream();
+        return stream.filter(filter).collect(collector(k, order));
+    }
+
+    // Collector form, usable with sequential or parallel streams
+    public static <T> Collector<T, ?, List<T>> collector(int k, Comparator<? super T> order) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Limit must be non-negative");
+        }
+        return Collector.of(
+            () -> new BoundedHeap<T>(k, order),
+            BoundedHeap::offer,
+            BoundedHeap::merge,
+            BoundedHeap::toSortedList
+        );
+    }
+
+    // Heap of at most k items whose head is the worst item kept so far
+    private static final class BoundedHeap<T> {
+        private final int capacity;
+        private final Comparator<? super T> order;
+        private final PriorityQueue<T> heap;
+
+        private BoundedHeap(int capacity, Comparator<? super T> order) {
+            this.capacity = capacity;
+            this.order = order;
+            this.heap = new PriorityQueue<>(Math.max(1, Math.min(capacity, 1024)), Collections.reverseOrder(order));
+        }
+
+        private void offer(T item) {
+            if (capacity == 0) {
+                return;
+            }
+            if (heap.size() < capacity) {
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+
+        private BoundedHeap<T> merge(BoundedHeap<T> other) {
+            for (T item : other.heap) {
+                offer(item);
+            }
+            return this;
+        }
+
+        private List<T> toSortedList() {
+            List<T> result = new ArrayList<>(heap);
+            result.sort(order);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.websocket;
+
+// A request on the game WebSocket, e.g.
+// {"type":"move","ref":"17","gameId":"...","playerId":"...","position":4}.
+// ref is optional and echoed in the reply so clients can pipeline requests.
+public class ClientMessage {
+
+    private String type;
+    private String ref;
+    private String gameId;
+    private String playerId;
+    private Integer position;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getRef() {
+        return ref;
+    }
+
+    public void setRef(String ref) {
+        this.ref = ref;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    public void setPlayerId(String playerId) {
+        this.playerId = playerId;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+}
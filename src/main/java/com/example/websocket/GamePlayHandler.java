@@ -0,0 +1,155 @@
+package com.example.websocket;
+
+import com.example.model.GameSnapshot;
+import com.example.model.Player;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import com.example.service.ValidationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+
+// Play over one long-lived WebSocket instead of an HTTP request per move. A
+// connection acts for one player, fixed by its first join or move, and accepts:
+//
+//   {"type":"join",  "ref":"1", "gameId":"...", "playerId":"..."}
+//   {"type":"move",  "ref":"2", "gameId":"...", "playerId":"...", "position":4}
+//   {"type":"leave", "ref":"3", "gameId":"..."}
+//
+// Joining adds the player to the game unless they are in it already, and from
+// then on every state of the game (the opponent's moves included) is pushed as a
+// "state" message. Requests are validated here and rate limited per connection,
+// since the HTTP filters only see the handshake.
+@Component
+public class GamePlayHandler extends TextWebSocketHandler {
+
+    private final GameService gameService;
+    private final PlayerService playerService;
+    private final ValidationService validationService;
+    private final GameSocketHub hub;
+    private final ObjectReader messageReader;
+    private final int maxMessageBytes;
+
+    public GamePlayHandler(GameService gameService, PlayerService playerService, ValidationService validationService,
+                           GameSocketHub hub, ObjectMapper objectMapper,
+                           @Value("${ws.max-message-bytes:4096}") int maxMessageBytes) {
+        this.gameService = gameService;
+        this.playerService = playerService;
+        this.validationService = validationService;
+        this.hub = hub;
+        this.messageReader = objectMapper.readerFor(ClientMessage.class);
+        this.maxMessageBytes = maxMessageBytes;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // Requests are a few dozen bytes; a larger one closes the connection
+        session.setTextMessageSizeLimit(maxMessageBytes);
+        hub.open(session);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        hub.closed(session);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        GameSocketHub.Connection connection = hub.connection(session);
+        if (connection == null) {
+            return;
+        }
+        if (!connection.tryAcquire()) {
+            hub.send(connection, ServerMessage.error(null, "Rate limit exceeded"));
+            return;
+        }
+        ClientMessage request;
+        try {
+            request = messageReader.readValue(message.getPayload());
+        } catch (IOException e) {
+            request = null;
+        }
+        if (request == null) {
+            hub.send(connection, ServerMessage.error(null, "Malformed message"));
+            return;
+        }
+        try {
+            String type = request.getType() == null ? "" : request.getType();
+            switch (type) {
+                case "join" -> join(connection, request);
+                case "move" -> move(connection, request);
+                case "leave" -> leave(connection, request);
+                default -> throw new IllegalArgumentException("Unknown message type: " + type);
+            }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            hub.send(connection, ServerMessage.error(request.getRef(), e.getMessage()));
+        }
+    }
+
+    private void join(GameSocketHub.Connection connection, ClientMessage request) {
+        String gameId = request.getGameId();
+        validationService.validateId(gameId, "Game ID");
+        String playerId = actingPlayer(connection, request);
+        Player player = playerService.findById(playerId)
+            .orElseThrow(() -> new IllegalArgumentException("Player not found"));
+        gameService.findSnapshotById(gameId).orElseThrow(() -> new IllegalArgumentException("Game not found"));
+
+        // Followed before joining, so the state the join produces is pushed too
+        hub.follow(connection, gameId);
+        try {
+            if (!gameService.isPlayerInGame(gameId, playerId) && !gameService.addPlayerToGame(gameId, player)) {
+                throw new IllegalStateException("Cannot join this game");
+            }
+        } catch (RuntimeException e) {
+            hub.unfollow(connection, gameId);
+            throw e;
+        }
+        hub.send(connection, ServerMessage.joined(request.getRef(), gameId));
+        GameSnapshot current = gameService.findSnapshotById(gameId).orElse(null);
+        if (current != null) {
+            hub.sendState(connection, current);
+        }
+    }
+
+    private void move(GameSocketHub.Connection connection, ClientMessage request) {
+        String gameId = request.getGameId();
+        validationService.validateId(gameId, "Game ID");
+        validationService.validateMovePosition(request.getPosition());
+        String playerId = actingPlayer(connection, request);
+        int position = request.getPosition();
+        boolean accepted = gameService.makeMove(gameId, playerId, position);
+        hub.send(connection, ServerMessage.moved(request.getRef(), gameId, position, accepted));
+    }
+
+    private void leave(GameSocketHub.Connection connection, ClientMessage request) {
+        validationService.validateId(request.getGameId(), "Game ID");
+        hub.unfollow(connection, request.getGameId());
+        hub.send(connection, ServerMessage.left(request.getRef(), request.getGameId()));
+    }
+
+    // The player a request acts for. The first request that names one binds the
+    // connection to it; later requests may omit it but cannot name another.
+    private String actingPlayer(GameSocketHub.Connection connection, ClientMessage request) {
+        String playerId = request.getPlayerId();
+        if (playerId == null) {
+            if (connection.getPlayerId() == null) {
+                throw new IllegalArgumentException("Player ID is required");
+            }
+            return connection.getPlayerId();
+        }
+        validationService.validateId(playerId, "Player ID");
+        if (connection.getPlayerId() == null) {
+            connection.setPlayerId(playerId);
+        } else if (!connection.getPlayerId().equals(playerId)) {
+            throw new IllegalArgumentException("Connection acts for another player");
+        }
+        return playerId;
+    }
+}
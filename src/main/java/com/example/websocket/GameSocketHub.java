@@ -0,0 +1,274 @@
+package com.example.websocket;
+
+import com.example.config.RateLimitingConfig.TokenBucket;
+import com.example.events.GameUpdateBroadcaster;
+import com.example.model.Game;
+import com.example.model.GameSnapshot;
+import com.example.model.Move;
+import com.example.model.Player;
+import com.example.service.GameEventListener;
+import com.example.util.BackgroundExecutors;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Open game WebSocket connections and the games each one follows. Game events
+// arrive under the game's lock, so a state change is serialized once and only
+// queued on the followers' connections; a small sender pool writes each queue in
+// order. A connection whose queue outgrows the limit is closed rather than
+// buffering without bound. Kept apart from GamePlayHandler so that GameService,
+// which collects the listeners, does not depend on itself.
+@Component
+public class GameSocketHub implements GameEventListener, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameSocketHub.class);
+
+    private final ObjectMapper objectMapper;
+    private final int messagesPerSecond;
+    private final int maxQueuedMessages;
+    private final ExecutorService sender;
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> followers = new ConcurrentHashMap<>();
+
+    public GameSocketHub(ObjectMapper objectMapper,
+                         @Value("${ws.messages-per-second:200}") int messagesPerSecond,
+                         @Value("${ws.max-queued-messages:1000}") int maxQueuedMessages,
+                         @Value("${ws.sender-threads:4}") int senderThreads,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.objectMapper = objectMapper;
+        this.messagesPerSecond = messagesPerSecond;
+        this.maxQueuedMessages = maxQueuedMessages;
+        this.sender = BackgroundExecutors.workers("ws-sender", senderThreads, virtualThreads);
+    }
+
+    Connection open(WebSocketSession session) {
+        Connection connection = new Connection(session);
+        connections.put(session.getId(), connection);
+        return connection;
+    }
+
+    Connection connection(WebSocketSession session) {
+        return connections.get(session.getId());
+    }
+
+    void closed(WebSocketSession session) {
+        Connection connection = connections.remove(session.getId());
+        if (connection != null) {
+            connection.closed.set(true);
+            for (String gameId : List.copyOf(connection.games)) {
+                unfollow(connection, gameId);
+            }
+        }
+    }
+
+    // Push the game's changes to the connection from now on
+    void follow(Connection connection, String gameId) {
+        followers.compute(gameId, (id, set) -> {
+            Set<Connection> gameFollowers = set != null ? set : ConcurrentHashMap.newKeySet();
+            gameFollowers.add(connection);
+            return gameFollowers;
+        });
+        connection.games.add(gameId);
+    }
+
+    void unfollow(Connection connection, String gameId) {
+        connection.games.remove(gameId);
+        followers.computeIfPresent(gameId, (id, set) -> {
+            set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    void send(Connection connection, ServerMessage message) {
+        connection.enqueue(new Outbound(message.getGameId(), -1, serialize(message)));
+    }
+
+    // States carry their sequence, so one the connection has already been sent is skipped
+    void sendState(Connection connection, GameSnapshot snapshot) {
+        connection.enqueue(stateMessage(snapshot));
+    }
+
+    @Override
+    public void playerJoined(Game game, Player player) {
+        publish(game.getSnapshot());
+    }
+
+    @Override
+    public void moveMade(Game game, Move move) {
+        publish(game.getSnapshot());
+    }
+
+    @Override
+    public void gameDeleted(String gameId) {
+        Set<Connection> gameFollowers = followers.remove(gameId);
+        if (gameFollowers != null) {
+            Outbound deleted = new Outbound(gameId, -1, serialize(ServerMessage.deleted(gameId)));
+            for (Connection connection : gameFollowers) {
+                connection.games.remove(gameId);
+                connection.enqueue(deleted);
+            }
+        }
+    }
+
+    @Override
+    public void gamesCleared() {
+        List.copyOf(followers.keySet()).forEach(this::gameDeleted);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("ws.connections", connections, Map::size)
+            .description("Open game WebSocket connections")
+            .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdown();
+    }
+
+    private void publish(GameSnapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        Set<Connection> gameFollowers = followers.get(snapshot.getId());
+        if (gameFollowers == null || gameFollowers.isEmpty()) {
+            return;
+        }
+        Outbound state = stateMessage(snapshot);
+        gameFollowers.forEach(connection -> connection.enqueue(state));
+    }
+
+    private Outbound stateMessage(GameSnapshot snapshot) {
+        return new Outbound(snapshot.getId(), GameUpdateBroadcaster.sequence(snapshot),
+            serialize(ServerMessage.state(snapshot)));
+    }
+
+    private TextMessage serialize(ServerMessage message) {
+        try {
+            return new TextMessage(objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // A queued message; states carry their game's sequence, everything else -1
+    private record Outbound(String gameId, long sequence, TextMessage message) {
+    }
+
+    final class Connection {
+        private final WebSocketSession session;
+        private final TokenBucket messages;
+        // Games this connection follows
+        private final Set<String> games = ConcurrentHashMap.newKeySet();
+        private final ConcurrentLinkedQueue<Outbound> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Only touched by the running drain
+        private final Map<String, Long> sentSequences = new HashMap<>();
+        // The player this connection acts for, fixed by its first request; only
+        // touched by the session's message handling
+        private String playerId;
+
+        private Connection(WebSocketSession session) {
+            this.session = session;
+            this.messages = new TokenBucket(messagesPerSecond, TimeUnit.SECONDS.toNanos(1), System.nanoTime());
+        }
+
+        String getPlayerId() {
+            return playerId;
+        }
+
+        void setPlayerId(String playerId) {
+            this.playerId = playerId;
+        }
+
+        // Take one message from the connection's rate limit
+        boolean tryAcquire() {
+            return messages.tryAcquire(System.nanoTime());
+        }
+
+        private void enqueue(Outbound outbound) {
+            if (closed.get()) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueuedMessages) {
+                close(CloseStatus.SESSION_NOT_RELIABLE);
+                return;
+            }
+            queue.add(outbound);
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down
+                    close(CloseStatus.SERVICE_RESTARTED);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                Outbound outbound;
+                while ((outbound = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    if (!closed.get()) {
+                        write(outbound);
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void write(Outbound outbound) {
+            if (outbound.sequence() >= 0) {
+                Long sent = sentSequences.get(outbound.gameId());
+                if (sent != null && sent >= outbound.sequence()) {
+                    return;
+                }
+                sentSequences.put(outbound.gameId(), outbound.sequence());
+            }
+            try {
+                session.sendMessage(outbound.message());
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Closing game socket {}: {}", session.getId(), e.getMessage());
+                close(CloseStatus.SERVER_ERROR);
+            }
+        }
+
+        private void close(CloseStatus status) {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    session.close(status);
+                } catch (IOException e) {
+                    logger.debug("Closing game socket {} failed: {}", session.getId(), e.getMessage());
+                }
+            }
+        }
+    }
+}
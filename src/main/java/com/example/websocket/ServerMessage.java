@@ -0,0 +1,93 @@
+package com.example.websocket;
+
+import com.example.events.GameUpdateBroadcaster;
+import com.example.model.GameSnapshot;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+// A message from the server on the game WebSocket: a reply to a request (joined,
+// moved, left or error, carrying the request's ref) or a pushed game state. State
+// messages carry the game's sequence (players joined plus moves made), the same
+// value the SSE stream uses as its event id.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"type", "ref", "gameId", "seq", "position", "accepted", "message", "game"})
+public final class ServerMessage {
+
+    private final String type;
+    private final String ref;
+    private final String gameId;
+    private final Long seq;
+    private final Integer position;
+    private final Boolean accepted;
+    private final String message;
+    private final GameSnapshot game;
+
+    private ServerMessage(String type, String ref, String gameId, Long seq, Integer position, Boolean accepted,
+                          String message, GameSnapshot game) {
+        this.type = type;
+        this.ref = ref;
+        this.gameId = gameId;
+        this.seq = seq;
+        this.position = position;
+        this.accepted = accepted;
+        this.message = message;
+        this.game = game;
+    }
+
+    public static ServerMessage state(GameSnapshot game) {
+        return new ServerMessage("state", null, game.getId(), GameUpdateBroadcaster.sequence(game), null, null,
+            null, game);
+    }
+
+    public static ServerMessage joined(String ref, String gameId) {
+        return new ServerMessage("joined", ref, gameId, null, null, null, null, null);
+    }
+
+    public static ServerMessage moved(String ref, String gameId, int position, boolean accepted) {
+        return new ServerMessage("moved", ref, gameId, null, position, accepted, null, null);
+    }
+
+    public static ServerMessage left(String ref, String gameId) {
+        return new ServerMessage("left", ref, gameId, null, null, null, null, null);
+    }
+
+    public static ServerMessage deleted(String gameId) {
+        return new ServerMessage("deleted", null, gameId, null, null, null, null, null);
+    }
+
+    public static ServerMessage error(String ref, String message) {
+        return new ServerMessage("error", ref, null, null, null, null, message, null);
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getRef() {
+        return ref;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public Boolean getAccepted() {
+        return accepted;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public GameSnapshot getGame() {
+        return game;
+    }
+}
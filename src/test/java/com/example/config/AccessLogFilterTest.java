@@ -0,0 +1,125 @@
+package com.example.config;
+
+import com.example.config.RequestLoggingConfig.AccessLogFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessLogFilterTest {
+
+    private final List<String> lines = new CopyOnWriteArrayList<>();
+    private AccessLogFilter filter;
+
+    @AfterEach
+    void tearDown() {
+        if (filter != null) {
+            filter.destroy();
+        }
+    }
+
+    @Test
+    void testErrorsAndSlowRequestsAreAlwaysLogged() throws Exception {
+        filter = new AccessLogFilter(true, 0.0, 50, 500, 100, lines::add, false);
+
+        call("/api/games", 200, 0);
+        call("/api/games/missing", 404, 0);
+        call("/api/games/broken", 503, 0);
+        call("/api/games/slow", 200, 80);
+        filter.drain();
+
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("uri=\"/api/games/broken\" status=503"));
+        assertTrue(lines.get(0).endsWith("reason=error"));
+        assertTrue(lines.get(1).contains("uri=\"/api/games/slow\" status=200"));
+        assertTrue(lines.get(1).endsWith("reason=slow"));
+    }
+
+    @Test
+    void testSamplingLogsEverythingAtRateOne() throws Exception {
+        filter = new AccessLogFilter(true, 1.0, 10_000, 500, 100, lines::add, false);
+
+        for (int i = 0; i < 10; i++) {
+            call("/api/players", 200, 0);
+        }
+        assertEquals(10, filter.getQueuedCount());
+        assertEquals(10, filter.drain());
+        assertTrue(lines.stream().allMatch(line -> line.endsWith("reason=sampled")));
+    }
+
+    @Test
+    void testFullQueueDropsAndCounts() throws Exception {
+        filter = new AccessLogFilter(true, 1.0, 10_000, 500, 3, lines::add, false);
+
+        for (int i = 0; i < 5; i++) {
+            call("/api/players", 200, 0);
+        }
+        assertEquals(3, filter.getQueuedCount());
+        assertEquals(2, filter.getDroppedCount());
+
+        // Draining frees capacity again
+        filter.drain();
+        call("/api/players", 200, 0);
+        assertEquals(1, filter.getQueuedCount());
+        assertEquals(3, filter.getWrittenCount());
+    }
+
+    @Test
+    void testExceptionIsLoggedAsServerError() {
+        filter = new AccessLogFilter(true, 0.0, 10_000, 500, 100, lines::add, false);
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                throw new IllegalStateException("boom");
+            }
+        });
+
+        assertThrows(IllegalStateException.class,
+            () -> filter.doFilter(new MockHttpServletRequest("POST", "/api/games"), new MockHttpServletResponse(), chain));
+        filter.drain();
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("status=500"));
+    }
+
+    @Test
+    void testBackgroundWriterFlushesOnDestroy() throws Exception {
+        filter = new AccessLogFilter(true, 1.0, 10_000, 500, 1000, lines::add, true);
+        for (int i = 0; i < 50; i++) {
+            call("/api/games/count", 200, 0);
+        }
+        filter.destroy();
+        filter = null;
+
+        assertEquals(50, lines.size());
+    }
+
+    private void call(String uri, int status, long delayMillis) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException {
+                if (delayMillis > 0) {
+                    try {
+                        TimeUnit.MILLISECONDS.sleep(delayMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                resp.setStatus(status);
+            }
+        });
+        filter.doFilter(request, response, chain);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.config;
+
+import com.example.config.RateLimitingConfig.RateLimitingFilter;
+import com.example.config.RateLimitingConfig.TokenBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitingFilterTest {
+
+    private RateLimitingFilter filter;
+
+    @AfterEach
+    void tearDown() {
+        if (filter != null) {
+            filter.destroy();
+        }
+    }
+
+    @Test
+    void testMinuteLimitReturns429() throws Exception {
+        filter = new RateLimitingFilter(true, 5, 1000, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call("10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse rejected = call("10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("{\"error\":\"Rate limit exceeded. Maximum 5 requests per minute allowed.\"}",
+            rejected.getContentAsString());
+
+        // Other clients are unaffected
+        assertEquals(200, call("10.0.0.2").getStatus());
+    }
+
+    @Test
+    void testHourLimitDoesNotConsumeMinuteTokens() throws Exception {
+        filter = new RateLimitingFilter(true, 10, 3, 0);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, call("10.0.0.1").getStatus());
+        }
+        MockHttpServletResponse rejected = call("10.0.0.1");
+        assertEquals(429, rejected.getStatus());
+        assertTrue(rejected.getContentAsString().contains("per hour"));
+    }
+
+    @Test
+    void testRejectionsAndClientsAreMetered() throws Exception {
+        filter = new RateLimitingFilter(true, 2, 1000, 0);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        for (int i = 0; i < 4; i++) {
+            call("10.0.0.1");
+        }
+        call("10.0.0.2");
+
+        assertEquals(2.0, registry.get("ratelimit.rejections").tag("window", "minute").functionCounter().count());
+        assertEquals(0.0, registry.get("ratelimit.rejections").tag("window", "hour").functionCounter().count());
+        assertEquals(2.0, registry.get("ratelimit.clients").gauge().value());
+    }
+
+    @Test
+    void testConcurrentRequestsNeverOvershoot() throws Exception {
+        int limit = 50;
+        filter = new RateLimitingFilter(true, limit, 10_000, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 100; i++) {
+                    if (call("10.0.0.9").getStatus() == 200) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // A few tokens may refill during the run (one per 1.2s), never dozens
+        assertTrue(allowed.get() >= limit && allowed.get() <= limit + 2, "allowed=" + allowed.get());
+    }
+
+    @Test
+    void testIdleClientsAreEvicted() throws Exception {
+        filter = new RateLimitingFilter(true, 60, 1000, 0);
+        call("10.0.0.1");
+        call("10.0.0.2");
+        assertEquals(2, filter.getTrackedClientCount());
+
+        // Buckets still hold consumed tokens, so nothing is evicted yet
+        filter.evictIdleClients();
+        assertEquals(2, filter.getTrackedClientCount());
+
+        // After an hour both buckets have refilled completely
+        filter.evictIdleClients(System.nanoTime() + TimeUnit.MINUTES.toNanos(61));
+        assertEquals(0, filter.getTrackedClientCount());
+    }
+
+    @Test
+    void testTokenBucketRefills() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(2, 1_000, now);
+
+        assertTrue(bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now));
+        assertFalse(bucket.tryAcquire(now));
+        assertFalse(bucket.isFull(now));
+
+        // One token every 500ns
+        assertTrue(bucket.tryAcquire(now + 500));
+        assertFalse(bucket.tryAcquire(now + 500));
+        assertTrue(bucket.isFull(now + 1_500));
+
+        bucket.release();
+        assertTrue(bucket.tryAcquire(now + 500));
+    }
+
+    private MockHttpServletResponse call(String clientIp) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/players");
+        request.setRemoteAddr(clientIp);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -96,6 +96,40 @@ public class GameControllerTest {
                 .andExpect(status().isOk());
     }
     
+    @Test
+    void makeMoves_MixedBatch_ReturnsResultPerMove() throws Exception {
+        when(gameService.makeMove("game-1", "player-1", 4)).thenReturn(true);
+        when(gameService.makeMove("game-2", "player-2", 0)).thenThrow(new IllegalStateException("Not player's turn"));
+        when(gameService.makeMove("game-3", "player-3", 0)).thenReturn(false);
+    
+        mockMvc.perform(post("/api/games/moves/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"moves\":["
+                    + "{\"gameId\":\"game-1\",\"playerId\":\"player-1\",\"position\":4},"
+                    + "{\"gameId\":\"game-2\",\"playerId\":\"player-2\",\"position\":0},"
+                    + "{\"gameId\":\"game-3\",\"playerId\":\"player-3\",\"position\":0},"
+                    + "{\"gameId\":\"game-1\",\"playerId\":\"player-1\",\"position\":9},"
+                    + "{\"playerId\":\"player-1\",\"position\":1}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.failed").value(4))
+                .andExpect(jsonPath("$.results[0].status").value("ACCEPTED"))
+                .andExpect(jsonPath("$.results[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$.results[1].message").value("Not player's turn"))
+                .andExpect(jsonPath("$.results[2].status").value("REJECTED"))
+                .andExpect(jsonPath("$.results[3].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[3].index").value(3))
+                .andExpect(jsonPath("$.results[4].status").value("INVALID"));
+    }
+    
+    @Test
+    void makeMoves_EmptyBatch_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/games/moves/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"moves\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+    
     @Test
     void getGameStatus_ExistingGame_ReturnsStatus() throws Exception {
         when(gameService.getGameStatus("game-id")).thenReturn(Game.GameStatus.WAITING);
@@ -0,0 +1,124 @@
+package com.example.integration;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.profiles.active=test"})
+class GameEventsIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void testEventsFollowTheGameAndResume() {
+        Player alice = playerService.createPlayer("Alice", "events-alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "events-bob@example.com");
+        Game game = gameService.createGame("Events Game");
+        String id = game.getId();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            HttpResponse<Stream<String>> response = open(id, null);
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/event-stream"));
+            Iterator<String> lines = response.body().iterator();
+
+            // The current state comes first
+            Event current = next(lines);
+            assertEquals(0, current.id);
+            assertTrue(current.data.contains("\"status\":\"WAITING\""));
+
+            // Later states may be coalesced, but the last one always arrives
+            gameService.addPlayerToGame(id, alice);
+            gameService.addPlayerToGame(id, bob);
+            Event started = nextUntil(lines, 2);
+            assertTrue(started.data.contains("\"status\":\"ACTIVE\""));
+
+            // Alice wins down the left column
+            int[] sequence = {0, 1, 3, 4, 6};
+            for (int m = 0; m < sequence.length; m++) {
+                gameService.makeMove(id, (m % 2 == 0 ? alice : bob).getId(), sequence[m]);
+            }
+            Event finished = nextUntil(lines, 7);
+            assertTrue(finished.data.contains("\"status\":\"COMPLETED\""));
+            assertTrue(finished.data.contains("\"moveCount\":5"));
+            // The stream ends with the final state
+            assertFalse(lines.hasNext());
+
+            // A client that saw the final state is told to stop reconnecting
+            assertEquals(204, open(id, "7").statusCode());
+            // One that missed moves gets the latest state at once
+            HttpResponse<Stream<String>> resumed = open(id, "3");
+            assertEquals(7, next(resumed.body().iterator()).id);
+
+            assertEquals(404, open("missing", null).statusCode());
+            assertEquals(400, open(id, "not-a-number").statusCode());
+        });
+    }
+
+    private HttpResponse<Stream<String>> open(String gameId, String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/games/" + gameId + "/events"))
+            .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+    }
+
+    // Next event with data, skipping comments such as heartbeats
+    private static Event next(Iterator<String> lines) {
+        Event event = new Event();
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty()) {
+                if (event.data != null) {
+                    return event;
+                }
+            } else if (line.startsWith("id:")) {
+                event.id = Long.parseLong(line.substring(3).trim());
+            } else if (line.startsWith("data:")) {
+                event.data = line.substring(5);
+            }
+        }
+        fail("Stream ended before the next event");
+        return event;
+    }
+
+    private static Event nextUntil(Iterator<String> lines, long id) {
+        Event event;
+        do {
+            event = next(lines);
+            assertTrue(event.id <= id, "Skipped past event " + id);
+        } while (event.id < id);
+        return event;
+    }
+
+    private static final class Event {
+        private long id = -1;
+        private String data;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.integration;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"spring.profiles.active=test", "ws.messages-per-second=40"})
+class GameWebSocketIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<WebSocket> sockets = new ArrayList<>();
+
+    @AfterEach
+    void closeSockets() {
+        sockets.forEach(socket -> socket.sendClose(WebSocket.NORMAL_CLOSURE, "done"));
+    }
+
+    @Test
+    void testPlayersJoinAndMoveOverOneConnectionEach() throws Exception {
+        Player alice = playerService.createPlayer("Alice", "ws-alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "ws-bob@example.com");
+        Game game = gameService.createGame("Socket Game");
+        String id = game.getId();
+        BlockingQueue<JsonNode> aliceInbox = new LinkedBlockingQueue<>();
+        BlockingQueue<JsonNode> bobInbox = new LinkedBlockingQueue<>();
+        WebSocket aliceSocket = connect(aliceInbox);
+        WebSocket bobSocket = connect(bobInbox);
+
+        send(aliceSocket, "{\"type\":\"join\",\"ref\":\"a1\",\"gameId\":\"" + id + "\",\"playerId\":\"" + alice.getId() + "\"}");
+        assertEquals(1, next(aliceInbox, "state").get("seq").asInt());
+        assertEquals("a1", next(aliceInbox, "joined").get("ref").asText());
+
+        send(bobSocket, "{\"type\":\"join\",\"ref\":\"b1\",\"gameId\":\"" + id + "\",\"playerId\":\"" + bob.getId() + "\"}");
+        assertEquals("ACTIVE", next(bobInbox, "state").get("game").get("status").asText());
+        next(bobInbox, "joined");
+        // Alice sees Bob join without asking
+        assertEquals(2, next(aliceInbox, "state").get("seq").asInt());
+
+        // Validated in the channel: wrong player, bad position, unknown type, bad JSON
+        send(bobSocket, "{\"type\":\"move\",\"ref\":\"b2\",\"gameId\":\"" + id + "\",\"playerId\":\"" + alice.getId() + "\",\"position\":0}");
+        assertEquals("b2", next(bobInbox, "error").get("ref").asText());
+        send(bobSocket, "{\"type\":\"move\",\"ref\":\"b3\",\"gameId\":\"" + id + "\",\"position\":9}");
+        assertEquals("Move position must be between 0 and 8", next(bobInbox, "error").get("message").asText());
+        send(bobSocket, "{\"type\":\"resign\",\"gameId\":\"" + id + "\"}");
+        next(bobInbox, "error");
+        send(bobSocket, "{not json");
+        assertEquals("Malformed message", next(bobInbox, "error").get("message").asText());
+        // Out of turn is reported, not fatal
+        send(bobSocket, "{\"type\":\"move\",\"ref\":\"b4\",\"gameId\":\"" + id + "\",\"position\":4}");
+        assertEquals("Not player's turn", next(bobInbox, "error").get("message").asText());
+
+        // Alice wins down the left column; the player id is bound after the first request
+        int[] sequence = {0, 1, 3, 4, 6};
+        for (int m = 0; m < sequence.length; m++) {
+            boolean aliceMoves = m % 2 == 0;
+            WebSocket mover = aliceMoves ? aliceSocket : bobSocket;
+            BlockingQueue<JsonNode> moverInbox = aliceMoves ? aliceInbox : bobInbox;
+            BlockingQueue<JsonNode> opponentInbox = aliceMoves ? bobInbox : aliceInbox;
+            send(mover, "{\"type\":\"move\",\"ref\":\"m" + m + "\",\"gameId\":\"" + id + "\",\"position\":" + sequence[m] + "}");
+            assertEquals(3 + m, next(moverInbox, "state").get("seq").asInt());
+            JsonNode moved = next(moverInbox, "moved");
+            assertEquals("m" + m, moved.get("ref").asText());
+            assertTrue(moved.get("accepted").asBoolean());
+            // The opponent is sent the move without asking
+            assertEquals(m + 1, next(opponentInbox, "state").get("game").get("moveCount").asInt());
+        }
+        assertEquals(Game.GameStatus.COMPLETED, gameService.findById(id).orElseThrow().getStatus());
+        assertEquals(alice.getId(), gameService.findById(id).orElseThrow().getWinner().getId());
+    }
+
+    @Test
+    void testConnectionsAreRateLimited() throws Exception {
+        BlockingQueue<JsonNode> inbox = new LinkedBlockingQueue<>();
+        WebSocket socket = connect(inbox);
+        for (int i = 0; i < 60; i++) {
+            send(socket, "{\"type\":\"leave\",\"ref\":\"" + i + "\",\"gameId\":\"g" + i + "\"}");
+        }
+        int limited = 0;
+        for (int i = 0; i < 60; i++) {
+            JsonNode message = inbox.poll(5, TimeUnit.SECONDS);
+            assertNotNull(message);
+            if ("Rate limit exceeded".equals(message.path("message").asText())) {
+                limited++;
+            }
+        }
+        assertTrue(limited > 0);
+        assertTrue(limited < 60);
+    }
+
+    private WebSocket connect(BlockingQueue<JsonNode> inbox) {
+        WebSocket socket = HttpClient.newHttpClient().newWebSocketBuilder()
+            .buildAsync(URI.create("ws://localhost:" + port + "/ws/games"), new WebSocket.Listener() {
+                private final StringBuilder partial = new StringBuilder();
+
+                @Override
+                public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+                    partial.append(data);
+                    if (last) {
+                        try {
+                            inbox.add(objectMapper.readTree(partial.toString()));
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                        partial.setLength(0);
+                    }
+                    webSocket.request(1);
+                    return null;
+                }
+            })
+            .join();
+        sockets.add(socket);
+        return socket;
+    }
+
+    private static void send(WebSocket socket, String message) {
+        socket.sendText(message, true).join();
+    }
+
+    private static JsonNode next(BlockingQueue<JsonNode> inbox, String type) throws InterruptedException {
+        JsonNode message = inbox.poll(5, TimeUnit.SECONDS);
+        assertNotNull(message, "No " + type + " message");
+        assertEquals(type, message.get("type").asText(), message.toString());
+        return message;
+    }
+}
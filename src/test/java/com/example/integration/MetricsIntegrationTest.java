@@ -0,0 +1,60 @@
+package com.example.integration;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Metrics export is switched off in tests unless requested explicitly
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"spring.profiles.active=test"})
+public class MetricsIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Test
+    void testPrometheusEndpointExposesServiceMetrics() {
+        gameService.clearAllGames();
+        Player alice = playerService.createPlayer("Alice", "metrics-alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "metrics-bob@example.com");
+        Game game = gameService.createGame("Metrics Game");
+        gameService.addPlayerToGame(game.getId(), alice);
+        gameService.addPlayerToGame(game.getId(), bob);
+
+        // Alice wins down the left column
+        gameService.makeMove(game.getId(), alice.getId(), 0);
+        gameService.makeMove(game.getId(), bob.getId(), 1);
+        gameService.makeMove(game.getId(), alice.getId(), 3);
+        gameService.makeMove(game.getId(), bob.getId(), 4);
+        gameService.makeMove(game.getId(), alice.getId(), 6);
+        playerService.getLeaderboard(10, "wins");
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/actuator/prometheus", String.class);
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        String body = response.getBody();
+
+        assertTrue(body.contains("game_move_seconds_count{result=\"accepted\",} 5.0"), body);
+        assertTrue(body.contains("game_move_seconds_bucket{result=\"accepted\""));
+        assertTrue(body.contains("games_live{status=\"COMPLETED\",} 1.0"));
+        assertTrue(body.contains("games_live{status=\"ACTIVE\",} 0.0"));
+        assertTrue(body.matches("(?s).*game_outcomes_total\\{outcome=\"win\",} [1-9].*"));
+        assertTrue(body.contains("leaderboard_query_seconds_count{query=\"top\",sort=\"wins\",}"));
+        assertTrue(body.contains("ratelimit_clients "));
+        assertTrue(body.contains("ratelimit_rejections_total{window=\"minute\",}"));
+    }
+}
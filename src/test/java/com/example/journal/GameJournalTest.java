@@ -0,0 +1,224 @@
+package com.example.journal;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import com.example.repository.InMemoryGameStore;
+import com.example.repository.InMemoryPlayerStore;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import com.example.service.ValidationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<GameJournal> opened = new ArrayList<>();
+
+    private GameService gameService;
+    private PlayerService playerService;
+
+    @AfterEach
+    void closeJournals() throws IOException {
+        for (GameJournal journal : opened) {
+            journal.destroy();
+        }
+    }
+
+    // Open the journal and wire fresh in-memory services to it, as on startup
+    private GameJournal start(FsyncPolicy policy) throws IOException {
+        GameJournal journal = new GameJournal(directory, policy, 10, 1024, 1 << 20);
+        opened.add(journal);
+        playerService = new PlayerService(new ValidationService(), new InMemoryPlayerStore(),
+            new SimpleMeterRegistry(), List.of(journal));
+        gameService = new GameService(playerService, new InMemoryGameStore(),
+            new SimpleMeterRegistry(), List.of(journal));
+        return journal;
+    }
+
+    private long restart(FsyncPolicy policy) throws IOException {
+        opened.remove(opened.size() - 1).destroy();
+        GameJournal journal = start(policy);
+        return journal.replay(new JournalRecovery(gameService, playerService), 1);
+    }
+
+    @Test
+    void testReplayRebuildsGamesAndPlayers() throws IOException {
+        start(FsyncPolicy.ALWAYS);
+        Player alice = playerService.createPlayer("Alice", "Alice@Example.com");
+        Player bob = playerService.createPlayer("Bob", "bob@example.com");
+        Player carol = playerService.createPlayer("Carol", "carol@example.com");
+        playerService.updatePlayer(carol.getId(), "Caroline", "caroline@example.com");
+        playerService.updatePlayerStats(carol.getId(), true, false, 4);
+
+        Game finished = gameService.createGame("Finished");
+        gameService.addPlayerToGame(finished.getId(), alice);
+        gameService.addPlayerToGame(finished.getId(), bob);
+        // Alice wins on the top row; the rejected move is not journaled
+        gameService.makeMove(finished.getId(), alice.getId(), 0);
+        assertFalse(gameService.makeMove(finished.getId(), bob.getId(), 0));
+        gameService.makeMove(finished.getId(), bob.getId(), 3);
+        gameService.makeMove(finished.getId(), alice.getId(), 1);
+        gameService.makeMove(finished.getId(), bob.getId(), 4);
+        gameService.makeMove(finished.getId(), alice.getId(), 2);
+
+        Game inProgress = gameService.createGame("In Progress");
+        gameService.addPlayerToGame(inProgress.getId(), bob);
+        gameService.addPlayerToGame(inProgress.getId(), carol);
+        gameService.makeMove(inProgress.getId(), bob.getId(), 4);
+
+        Game deleted = gameService.createGame("Deleted");
+        gameService.deleteGame(deleted.getId());
+
+        // 3 players, 1 update, 1 stats change, 3 games, 4 joins, 6 moves, 1 delete
+        assertEquals(19, restart(FsyncPolicy.ALWAYS));
+
+        Game replayed = gameService.findById(finished.getId()).orElseThrow();
+        assertEquals(Game.GameStatus.COMPLETED, replayed.getStatus());
+        assertEquals(alice.getId(), replayed.getWinner().getId());
+        assertEquals(finished.getCreatedAt(), replayed.getCreatedAt());
+        assertEquals(finished.getBoard(), replayed.getBoard());
+        assertEquals(5, replayed.getMoves().size());
+
+        Game resumed = gameService.findById(inProgress.getId()).orElseThrow();
+        assertEquals(Game.GameStatus.ACTIVE, resumed.getStatus());
+        assertEquals(carol.getId(), gameService.getCurrentPlayer(inProgress.getId()).orElseThrow().getId());
+        assertTrue(gameService.makeMove(inProgress.getId(), carol.getId(), 0));
+
+        assertTrue(gameService.findById(deleted.getId()).isEmpty());
+        assertEquals(1, playerService.getPlayerStats(alice.getId()).getGamesWon());
+        assertEquals(1, playerService.getPlayerStats(bob.getId()).getGamesLost());
+        assertEquals("Caroline", playerService.findById(carol.getId()).orElseThrow().getName());
+        assertTrue(playerService.findByEmail("carol@example.com").isEmpty());
+        assertEquals(carol, playerService.findByEmail("caroline@example.com").orElseThrow());
+        assertEquals(1, playerService.getPlayerStats(carol.getId()).getGamesWon());
+        assertEquals(alice, playerService.findByEmail("alice@example.com").orElseThrow());
+        assertEquals(alice.getCreatedAt(), playerService.findById(alice.getId()).orElseThrow().getCreatedAt());
+
+        // Replaying did not append the replayed events again; the new move did
+        assertEquals(20, restart(FsyncPolicy.ALWAYS));
+    }
+
+    @Test
+    void testRefusedWithDatabaseStorage() throws IOException {
+        for (String mode : List.of("jpa", "write-behind")) {
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> new GameJournal(directory.toString(), "interval", 50, 1024, 64, mode));
+            assertTrue(e.getMessage().contains("storage.mode=memory"));
+        }
+        // Refused before any segment is created
+        assertEquals(List.of(), GameJournal.segmentNumbers(directory));
+        opened.add(new GameJournal(directory.toString(), "interval", 50, 1024, 64, "memory"));
+    }
+
+    @Test
+    void testTornTailIsDiscardedOnOpen() throws IOException {
+        start(FsyncPolicy.NEVER);
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        playerService.createPlayer("Bob", "bob@example.com");
+        opened.remove(0).destroy();
+
+        Path file = GameJournal.segmentFile(directory, 1);
+        long intactLength = Files.size(file);
+        // Half of a move record, as if the process died mid-write
+        ByteBuffer move = JournalCodec.moveMade(alice.getId(), alice.getId(), 4);
+        move.limit(move.limit() / 2);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            channel.write(move);
+        }
+
+        GameJournal journal = start(FsyncPolicy.NEVER);
+        assertEquals(intactLength, Files.size(file));
+        assertEquals(2, journal.replay(new JournalRecovery(gameService, playerService), 1));
+
+        // Records appended after recovery follow the intact prefix and replay too
+        playerService.createPlayer("Carol", "carol@example.com");
+        assertEquals(3, restart(FsyncPolicy.NEVER));
+        assertEquals(3, playerService.getTotalPlayerCount());
+    }
+
+    @Test
+    void testCorruptedRecordEndsReplay() throws IOException {
+        start(FsyncPolicy.NEVER);
+        playerService.createPlayer("Alice", "alice@example.com");
+        playerService.createPlayer("Bob", "bob@example.com");
+        opened.remove(0).destroy();
+
+        // Flip a byte inside the second record's body so its checksum fails
+        Path file = GameJournal.segmentFile(directory, 1);
+        byte[] content = Files.readAllBytes(file);
+        content[content.length - 10] ^= 0x5A;
+        Files.write(file, content);
+
+        GameJournal journal = start(FsyncPolicy.NEVER);
+        assertEquals(1, journal.replay(new JournalRecovery(gameService, playerService), 1));
+        assertTrue(playerService.findByEmail("alice@example.com").isPresent());
+        assertTrue(playerService.findByEmail("bob@example.com").isEmpty());
+    }
+
+    @Test
+    void testConcurrentMovesAreGroupCommitted() throws Exception {
+        GameJournal journal = start(FsyncPolicy.ALWAYS);
+        int gameCount = 32;
+        List<Game> games = new ArrayList<>();
+        List<Player[]> pairs = new ArrayList<>();
+        for (int i = 0; i < gameCount; i++) {
+            Player x = playerService.createPlayer("X" + i, "x" + i + "@example.com");
+            Player o = playerService.createPlayer("O" + i, "o" + i + "@example.com");
+            Game game = gameService.createGame("Game " + i);
+            gameService.addPlayerToGame(game.getId(), x);
+            gameService.addPlayerToGame(game.getId(), o);
+            games.add(game);
+            pairs.add(new Player[]{x, o});
+        }
+        long before = journal.getRecordCount();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < gameCount; i++) {
+            Game game = games.get(i);
+            Player[] pair = pairs.get(i);
+            futures.add(executor.submit(() -> {
+                // X wins on the left column
+                gameService.makeMove(game.getId(), pair[0].getId(), 0);
+                gameService.makeMove(game.getId(), pair[1].getId(), 1);
+                gameService.makeMove(game.getId(), pair[0].getId(), 3);
+                gameService.makeMove(game.getId(), pair[1].getId(), 4);
+                gameService.makeMove(game.getId(), pair[0].getId(), 6);
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Every move was durable before makeMove returned
+        assertEquals(before + 5L * gameCount, journal.getRecordCount());
+
+        restart(FsyncPolicy.ALWAYS);
+        assertEquals(gameCount, gameService.getCompletedGames().size());
+        for (Player[] pair : pairs) {
+            assertEquals(1, playerService.getPlayerStats(pair[0].getId()).getGamesWon());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.journal;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import com.example.repository.InMemoryGameStore;
+import com.example.repository.InMemoryPlayerStore;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import com.example.service.ValidationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournalSnapshotterTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<GameJournal> opened = new ArrayList<>();
+
+    private GameJournal journal;
+    private JournalSnapshotter snapshotter;
+    private GameService gameService;
+    private PlayerService playerService;
+
+    @AfterEach
+    void closeJournals() throws IOException {
+        for (GameJournal open : opened) {
+            open.destroy();
+        }
+    }
+
+    // Open the journal with small segments and chunks, wire fresh services to it and
+    // run startup recovery
+    private void start() throws IOException {
+        journal = new GameJournal(directory, FsyncPolicy.NEVER, 10, 1024, 512);
+        opened.add(journal);
+        snapshotter = new JournalSnapshotter(journal, 0, 4, false, 3);
+        playerService = new PlayerService(new ValidationService(), new InMemoryPlayerStore(),
+            new SimpleMeterRegistry(), List.of(journal));
+        gameService = new GameService(playerService, new InMemoryGameStore(),
+            new SimpleMeterRegistry(), List.of(journal));
+        new JournalRecovery(journal, snapshotter, gameService, playerService).afterSingletonsInstantiated();
+    }
+
+    private void restart() throws IOException {
+        opened.remove(opened.size() - 1).destroy();
+        start();
+    }
+
+    private Game playedGame(String name, Player x, Player o, int... positions) {
+        Game game = gameService.createGame(name);
+        gameService.addPlayerToGame(game.getId(), x);
+        gameService.addPlayerToGame(game.getId(), o);
+        for (int i = 0; i < positions.length; i++) {
+            assertTrue(gameService.makeMove(game.getId(), (i % 2 == 0 ? x : o).getId(), positions[i]));
+        }
+        return game;
+    }
+
+    @Test
+    void testSnapshotPlusTailRestoresState() throws IOException {
+        start();
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            players.add(playerService.createPlayer("Player " + i, "player" + i + "@example.com"));
+        }
+        playerService.updatePlayer(players.get(7).getId(), "Renamed", "renamed@example.com");
+        playerService.updatePlayerStats(players.get(6).getId(), false, true, 5);
+        Game won = playedGame("Won", players.get(0), players.get(1), 0, 3, 1, 4, 2);
+        Game drawn = playedGame("Drawn", players.get(2), players.get(3), 0, 1, 2, 4, 3, 5, 7, 6, 8);
+        Game active = playedGame("Active", players.get(4), players.get(5), 4);
+        // A deleted player still appears in the game they finished
+        long sealedUpTo = journal.rotate();
+        playerService.deletePlayer(players.get(1).getId());
+
+        SnapshotFile snapshot = snapshotter.takeSnapshot();
+        // Seven registered players plus the deleted one
+        assertEquals(8, snapshot.getPlayerCount());
+        assertEquals(3, snapshot.getGameCount());
+        assertTrue(snapshot.getCoveredSegment() > sealedUpTo);
+        // Everything before the snapshot's segment is folded into it and deleted
+        assertEquals(List.of(snapshot.getCoveredSegment()), GameJournal.segmentNumbers(directory));
+        assertEquals(List.of(snapshot.getCoveredSegment()), SnapshotFile.coveredSegments(directory));
+
+        // The tail after the snapshot
+        assertTrue(gameService.makeMove(active.getId(), players.get(5).getId(), 0));
+        Player late = playerService.createPlayer("Late", "late@example.com");
+
+        restart();
+        Game restoredWon = gameService.findById(won.getId()).orElseThrow();
+        assertEquals(Game.GameStatus.COMPLETED, restoredWon.getStatus());
+        assertEquals(players.get(0).getId(), restoredWon.getWinner().getId());
+        assertEquals(won.getBoard(), restoredWon.getBoard());
+        assertEquals(won.getCreatedAt(), restoredWon.getCreatedAt());
+        assertEquals(players.get(1).getId(), restoredWon.getPlayers().get(1).getId());
+        assertTrue(playerService.findById(players.get(1).getId()).isEmpty());
+
+        assertEquals(Game.GameStatus.DRAW, gameService.findById(drawn.getId()).orElseThrow().getStatus());
+        Game restoredActive = gameService.findById(active.getId()).orElseThrow();
+        assertEquals(2, restoredActive.getMoves().size());
+        assertTrue(gameService.makeMove(active.getId(), players.get(4).getId(), 8));
+
+        assertEquals(1, playerService.getPlayerStats(players.get(0).getId()).getGamesWon());
+        assertEquals(1, playerService.getPlayerStats(players.get(2).getId()).getGamesDrawn());
+        assertEquals(1, playerService.getPlayerStats(players.get(6).getId()).getGamesDrawn());
+        assertEquals(players.get(0).getId(), playerService.getLeaderboard(1).get(0).getId());
+        assertEquals("Renamed", playerService.findByEmail("renamed@example.com").orElseThrow().getName());
+        assertEquals(late, playerService.findById(late.getId()).orElseThrow());
+        // Restored players are the instances linked into the restored games
+        assertSame(playerService.findById(players.get(0).getId()).orElseThrow(), restoredWon.getPlayers().get(0));
+        assertEquals(8, playerService.getTotalPlayerCount());
+    }
+
+    @Test
+    void testSnapshotsDuringLiveTraffic() throws Exception {
+        start();
+        int gameCount = 24;
+        List<Game> games = new ArrayList<>();
+        List<Player[]> pairs = new ArrayList<>();
+        for (int i = 0; i < gameCount; i++) {
+            Player x = playerService.createPlayer("X" + i, "x" + i + "@example.com");
+            Player o = playerService.createPlayer("O" + i, "o" + i + "@example.com");
+            games.add(gameService.createGame("Game " + i));
+            pairs.add(new Player[]{x, o});
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < gameCount; i++) {
+            Game game = games.get(i);
+            Player[] pair = pairs.get(i);
+            futures.add(executor.submit(() -> {
+                gameService.addPlayerToGame(game.getId(), pair[0]);
+                gameService.addPlayerToGame(game.getId(), pair[1]);
+                // X wins on the left column
+                int[] positions = {0, 1, 3, 4, 6};
+                for (int move = 0; move < positions.length; move++) {
+                    gameService.makeMove(game.getId(), pair[move % 2].getId(), positions[move]);
+                    Thread.yield();
+                }
+                return null;
+            }));
+        }
+        try {
+            // Snapshots race with the moves; each one is still a consistent cut
+            while (!futures.stream().allMatch(Future::isDone)) {
+                snapshotter.takeSnapshot();
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        snapshotter.takeSnapshot();
+
+        restart();
+        assertEquals(gameCount, gameService.getCompletedGames().size());
+        for (Player[] pair : pairs) {
+            assertEquals(1, playerService.getPlayerStats(pair[0].getId()).getGamesWon());
+            assertEquals(1, playerService.getPlayerStats(pair[1].getId()).getGamesLost());
+        }
+    }
+
+    @Test
+    void testCorruptSnapshotFailsRecovery() throws IOException {
+        start();
+        for (int i = 0; i < 5; i++) {
+            playerService.createPlayer("Player " + i, "player" + i + "@example.com");
+        }
+        Path file = snapshotter.takeSnapshot().getFile();
+        opened.remove(0).destroy();
+
+        byte[] content = Files.readAllBytes(file);
+        content[content.length - 10] ^= 0x5A;
+        Files.write(file, content);
+
+        // The folded segments are gone, so silently starting empty would lose data
+        IllegalStateException error = assertThrows(IllegalStateException.class, this::start);
+        assertTrue(error.getMessage().startsWith("Corrupt snapshot chunk"));
+    }
+}
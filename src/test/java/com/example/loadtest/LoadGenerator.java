@@ -0,0 +1,423 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop load generator for a running server. Requests are issued on a fixed
+// schedule at the target rate whether or not earlier ones have completed, and each
+// latency is measured from the request's *intended* start time, so a stalled server
+// shows up in the percentiles instead of silently lowering the offered load
+// (coordinated omission).
+//
+// Each scheduled request advances one simulated session: create two players, create
+// a game, both join, then alternate moves (each followed by a board and a status
+// poll) until the game ends, and finally read the leaderboard.
+//
+// Run against a local server:
+//   mvn -Ploadtest test-compile exec:java -Dloadtest.baseUrl=http://localhost:8080 -Dloadtest.tps=500 -Dloadtest.duration=60
+public class LoadGenerator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Config config;
+    private final HttpClient client;
+    private final Map<String, ConcurrentHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    // LIFO: the session that was answered most recently goes next, so sessions run to
+    // completion instead of every session spawned during a latency spike crawling along
+    private final ConcurrentLinkedDeque<Session> readySessions = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong completedSessions = new AtomicLong();
+    private final AtomicLong failedSessions = new AtomicLong();
+    private final AtomicLong sessionIds = new AtomicLong();
+    private volatile long measureStart;
+
+    public LoadGenerator(Config config) {
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.fromSystemProperties();
+        Report report = new LoadGenerator(config).run();
+        report.print(System.out);
+        report.writeHistograms(new File("target/loadtest"));
+        if (report.errorRate() > config.maxErrorRate) {
+            System.err.printf("Error rate %.2f%% exceeds %.2f%%%n", report.errorRate() * 100, config.maxErrorRate * 100);
+            System.exit(1);
+        }
+    }
+
+    public Report run() throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.tps;
+        long start = System.nanoTime();
+        measureStart = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds);
+        long end = measureStart + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+        long scheduled = 0;
+
+        for (long intended = start; intended - end < 0; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = intended - measureStart >= 0;
+            if (measured) {
+                scheduled++;
+            }
+            if (inFlight.get() >= config.maxInFlight) {
+                // Still counted against the schedule: the server could not keep up
+                if (measured) {
+                    dropped.incrementAndGet();
+                }
+                continue;
+            }
+            Session session = readySessions.pollFirst();
+            if (session == null) {
+                session = new Session(sessionIds.incrementAndGet());
+            }
+            dispatch(session, intended);
+        }
+
+        // Let in-flight requests finish, but don't wait forever on a stuck server
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (inFlight.get() > 0 && System.nanoTime() - drainDeadline < 0) {
+            Thread.sleep(10);
+        }
+        double elapsedSeconds = (System.nanoTime() - measureStart) / 1e9;
+        return new Report(config, scheduled, dropped.get(), completedSessions.get(), failedSessions.get(),
+            elapsedSeconds, snapshot(latencies), snapshotCounts(errors));
+    }
+
+    private void dispatch(Session session, long intendedStart) {
+        Step step = session.nextStep();
+        inFlight.incrementAndGet();
+        client.sendAsync(step.request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, failure) -> {
+                // Warmup requests drive sessions forward but are not reported
+                boolean measured = intendedStart - measureStart >= 0;
+                if (measured) {
+                    long latencyMicros = (System.nanoTime() - intendedStart) / 1_000;
+                    latencies.computeIfAbsent(step.endpoint, k -> new ConcurrentHistogram(3)).recordValue(latencyMicros);
+                    if (failure != null || response.statusCode() >= 400) {
+                        errors.computeIfAbsent(step.endpoint, k -> new AtomicLong()).incrementAndGet();
+                    }
+                }
+                try {
+                    // A finished or failed session is dropped; a new one takes its place
+                    Outcome outcome = session.advance(step, failure == null ? response : null);
+                    if (outcome == Outcome.CONTINUE) {
+                        readySessions.addFirst(session);
+                    } else if (measured) {
+                        (outcome == Outcome.FINISHED ? completedSessions : failedSessions).incrementAndGet();
+                    }
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+    }
+
+    private static Map<String, Histogram> snapshot(Map<String, ConcurrentHistogram> histograms) {
+        Map<String, Histogram> copy = new TreeMap<>();
+        histograms.forEach((endpoint, histogram) -> copy.put(endpoint, histogram.copy()));
+        return copy;
+    }
+
+    private static Map<String, Long> snapshotCounts(Map<String, AtomicLong> counts) {
+        Map<String, Long> copy = new TreeMap<>();
+        counts.forEach((endpoint, count) -> copy.put(endpoint, count.get()));
+        return copy;
+    }
+
+    // One request of a session, with the endpoint template it is reported under
+    private static final class Step {
+        private final String endpoint;
+        private final HttpRequest request;
+        private final Phase phase;
+
+        private Step(String endpoint, HttpRequest request, Phase phase) {
+            this.endpoint = endpoint;
+            this.request = request;
+            this.phase = phase;
+        }
+    }
+
+    private enum Outcome {
+        CONTINUE, FINISHED, FAILED
+    }
+
+    private enum Phase {
+        CREATE_PLAYER_1, CREATE_PLAYER_2, CREATE_GAME, JOIN_1, JOIN_2, MOVE, POLL_BOARD, POLL_STATUS, LEADERBOARD
+    }
+
+    // State machine for one simulated game session. Only one request per session is
+    // in flight at a time, so fields need no synchronization beyond the handoff.
+    private final class Session {
+        private final long id;
+        private Phase phase = Phase.CREATE_PLAYER_1;
+        private String player1;
+        private String player2;
+        private String gameId;
+        private int occupied;
+        private int turn;
+        private int pendingPosition = -1;
+
+        private Session(long id) {
+            this.id = id;
+        }
+
+        private Step nextStep() {
+            String base = config.baseUrl;
+            switch (phase) {
+                case CREATE_PLAYER_1:
+                case CREATE_PLAYER_2: {
+                    int n = phase == Phase.CREATE_PLAYER_1 ? 1 : 2;
+                    String body = "{\"name\":\"Load Player " + n + "\",\"email\":\"load-" + config.runId + "-" + id + "-" + n + "@example.com\"}";
+                    return new Step("POST /api/players", post(base + "/api/players", body), phase);
+                }
+                case CREATE_GAME:
+                    return new Step("POST /api/games", post(base + "/api/games", "{\"name\":\"Load Game " + id + "\"}"), phase);
+                case JOIN_1:
+                case JOIN_2: {
+                    String playerId = phase == Phase.JOIN_1 ? player1 : player2;
+                    return new Step("POST /api/games/{id}/players",
+                        post(base + "/api/games/" + gameId + "/players", "{\"playerId\":\"" + playerId + "\"}"), phase);
+                }
+                case MOVE: {
+                    pendingPosition = randomFreeCell();
+                    String playerId = turn % 2 == 0 ? player1 : player2;
+                    return new Step("POST /api/games/{id}/moves",
+                        post(base + "/api/games/" + gameId + "/moves",
+                            "{\"playerId\":\"" + playerId + "\",\"position\":" + pendingPosition + "}"), phase);
+                }
+                case POLL_BOARD:
+                    return new Step("GET /api/games/{id}/board", get(base + "/api/games/" + gameId + "/board"), phase);
+                case POLL_STATUS:
+                    return new Step("GET /api/games/{id}/status", get(base + "/api/games/" + gameId + "/status"), phase);
+                case LEADERBOARD:
+                default:
+                    return new Step("GET /api/games/leaderboard", get(base + "/api/games/leaderboard?limit=10"), phase);
+            }
+        }
+
+        // Apply a response and say whether the session goes on
+        private Outcome advance(Step step, HttpResponse<String> response) {
+            boolean ok = response != null && response.statusCode() < 400;
+            if (!ok) {
+                return Outcome.FAILED;
+            }
+            switch (step.phase) {
+                case CREATE_PLAYER_1:
+                    player1 = idOf(response.body());
+                    phase = Phase.CREATE_PLAYER_2;
+                    return Outcome.CONTINUE;
+                case CREATE_PLAYER_2:
+                    player2 = idOf(response.body());
+                    phase = Phase.CREATE_GAME;
+                    return Outcome.CONTINUE;
+                case CREATE_GAME:
+                    gameId = idOf(response.body());
+                    phase = Phase.JOIN_1;
+                    return Outcome.CONTINUE;
+                case JOIN_1:
+                    phase = Phase.JOIN_2;
+                    return Outcome.CONTINUE;
+                case JOIN_2:
+                    phase = Phase.MOVE;
+                    return Outcome.CONTINUE;
+                case MOVE:
+                    occupied |= 1 << pendingPosition;
+                    turn++;
+                    phase = Phase.POLL_BOARD;
+                    return Outcome.CONTINUE;
+                case POLL_BOARD:
+                    phase = Phase.POLL_STATUS;
+                    return Outcome.CONTINUE;
+                case POLL_STATUS:
+                    boolean active = response.body().contains("ACTIVE");
+                    phase = active && occupied != 0x1FF ? Phase.MOVE : Phase.LEADERBOARD;
+                    return Outcome.CONTINUE;
+                case LEADERBOARD:
+                default:
+                    return Outcome.FINISHED;
+            }
+        }
+
+        private int randomFreeCell() {
+            int free = 9 - Integer.bitCount(occupied);
+            int pick = ThreadLocalRandom.current().nextInt(free);
+            for (int cell = 0; cell < 9; cell++) {
+                if ((occupied & (1 << cell)) == 0 && pick-- == 0) {
+                    return cell;
+                }
+            }
+            throw new IllegalStateException("Board is full");
+        }
+    }
+
+    private HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(config.requestTimeoutSeconds))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .timeout(Duration.ofSeconds(config.requestTimeoutSeconds))
+            .GET()
+            .build();
+    }
+
+    private static String idOf(String json) {
+        try {
+            JsonNode id = MAPPER.readTree(json).get("id");
+            return id == null ? null : id.asText();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static class Config {
+        public String baseUrl = "http://localhost:8080";
+        public int tps = 500;
+        public int durationSeconds = 60;
+        public int warmupSeconds = 10;
+        public int maxInFlight = 10_000;
+        public int requestTimeoutSeconds = 30;
+        public double maxErrorRate = 0.01;
+        public String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        public static Config fromSystemProperties() {
+            Config config = new Config();
+            config.baseUrl = System.getProperty("loadtest.baseUrl", config.baseUrl);
+            config.tps = Integer.getInteger("loadtest.tps", config.tps);
+            config.durationSeconds = Integer.getInteger("loadtest.duration", config.durationSeconds);
+            config.warmupSeconds = Integer.getInteger("loadtest.warmup", config.warmupSeconds);
+            config.maxInFlight = Integer.getInteger("loadtest.maxInFlight", config.maxInFlight);
+            config.maxErrorRate = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01"));
+            return config;
+        }
+    }
+
+    public static class Report {
+        private final Config config;
+        private final long scheduled;
+        private final long dropped;
+        private final long completedSessions;
+        private final long failedSessions;
+        private final double elapsedSeconds;
+        private final Map<String, Histogram> latencies;
+        private final Map<String, Long> errors;
+
+        Report(Config config, long scheduled, long dropped, long completedSessions, long failedSessions,
+               double elapsedSeconds,
+               Map<String, Histogram> latencies, Map<String, Long> errors) {
+            this.config = config;
+            this.scheduled = scheduled;
+            this.dropped = dropped;
+            this.completedSessions = completedSessions;
+            this.failedSessions = failedSessions;
+            this.elapsedSeconds = elapsedSeconds;
+            this.latencies = latencies;
+            this.errors = errors;
+        }
+
+        public long getTotalRequests() {
+            return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        }
+
+        public long getTotalErrors() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public long getCompletedSessions() {
+            return completedSessions;
+        }
+
+        public long getFailedSessions() {
+            return failedSessions;
+        }
+
+        public Map<String, Histogram> getLatencies() {
+            return latencies;
+        }
+
+        // All endpoints' latencies in one histogram
+        public Histogram getOverall() {
+            Histogram overall = new Histogram(3);
+            latencies.values().forEach(overall::add);
+            return overall;
+        }
+
+        // Completed requests per second over the measured period
+        public double getThroughput() {
+            return elapsedSeconds == 0 ? 0 : getTotalRequests() / elapsedSeconds;
+        }
+
+        // Errors and dropped requests as a share of everything scheduled
+        public double errorRate() {
+            return scheduled == 0 ? 0 : (double) (getTotalErrors() + dropped) / scheduled;
+        }
+
+        public void print(PrintStream out) {
+            out.printf("Load test: target %d req/s for %ds (after %ds warmup) against %s%n",
+                config.tps, config.durationSeconds, config.warmupSeconds, config.baseUrl);
+            out.printf("Scheduled %d, completed %d, dropped %d, errors %d, sessions finished %d, sessions failed %d, "
+                + "achieved %.1f req/s%n",
+                scheduled, getTotalRequests(), dropped, getTotalErrors(), completedSessions, failedSessions,
+                getThroughput());
+            out.println("Latency from intended start (ms, corrected for coordinated omission):");
+            out.printf("%-32s %8s %8s %8s %8s %8s %8s %8s%n", "endpoint", "count", "errors", "p50", "p90", "p99", "p99.9", "max");
+            latencies.forEach((endpoint, h) -> out.printf("%-32s %8d %8d %8.2f %8.2f %8.2f %8.2f %8.2f%n",
+                endpoint, h.getTotalCount(), errors.getOrDefault(endpoint, 0L),
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                h.getMaxValue() / 1000.0));
+        }
+
+        // One HdrHistogram percentile distribution file per endpoint
+        public void writeHistograms(File directory) throws Exception {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IllegalStateException("Cannot create " + directory);
+            }
+            for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+                String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+                try (PrintStream out = new PrintStream(new FileOutputStream(new File(directory, fileName)))) {
+                    // Values are recorded in microseconds; report milliseconds
+                    entry.getValue().outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = "rate.limiting.enabled=false")
+public class LoadGeneratorSmokeTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testShortRunReachesMoves() throws Exception {
+        LoadGenerator.Config config = new LoadGenerator.Config();
+        config.baseUrl = "http://localhost:" + port;
+        config.tps = 50;
+        config.warmupSeconds = 5;
+        config.durationSeconds = 3;
+
+        LoadGenerator.Report report = new LoadGenerator(config).run();
+        report.print(System.out);
+
+        assertTrue(report.getTotalRequests() > 0);
+        assertEquals(0, report.getTotalErrors());
+        assertEquals(0, report.getDropped());
+        assertTrue(report.getLatencies().containsKey("POST /api/games/{id}/moves"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.loadtest;
+
+import com.example.Application;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Platform vs virtual request threads under the same open-loop load. For each mode
+// a fresh embedded server is started in this JVM, by default with JPA storage so
+// requests block on JDBC the way production ones do, and with a deliberately small
+// Tomcat pool (loadtest.platformThreads) standing in for a right-sized deployment.
+// LoadGenerator then offers both the same schedule; push loadtest.tps and
+// loadtest.maxInFlight up until the platform pool saturates.
+//
+// Client and server share the machine, so compare the two rows with each other
+// rather than with production numbers.
+//
+//   mvn -Ploadtest test-compile exec:java -Dloadtest.main=com.example.loadtest.ThreadModeBenchmark \
+//       -Dloadtest.tps=2000 -Dloadtest.duration=30 -Dloadtest.platformThreads=50 -Dloadtest.storage=jpa
+public class ThreadModeBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        LoadGenerator.Config config = LoadGenerator.Config.fromSystemProperties();
+        int platformThreads = Integer.getInteger("loadtest.platformThreads", 50);
+        String storage = System.getProperty("loadtest.storage", "jpa");
+
+        // Both servers share this JVM, so whichever mode ran first would also pay
+        // for JIT compilation. A throwaway pass through both modes (its own
+        // warmup period long, unreported) comes first; loadtest.modes=virtual,platform
+        // swaps the measured order to check that it no longer matters.
+        String[] modes = System.getProperty("loadtest.modes", "platform,virtual").split(",");
+        LoadGenerator.Config warmup = warmupConfig(config);
+        for (String mode : modes) {
+            run(warmup, storage, isVirtual(mode), platformThreads);
+        }
+        Map<String, LoadGenerator.Report> reports = new LinkedHashMap<>();
+        for (String mode : modes) {
+            reports.put(mode.trim(), run(config, storage, isVirtual(mode), platformThreads));
+        }
+        print(System.out, config, storage, platformThreads, reports);
+    }
+
+    private static boolean isVirtual(String mode) {
+        switch (mode.trim()) {
+            case "platform":
+                return false;
+            case "virtual":
+                return true;
+            default:
+                throw new IllegalArgumentException("Unknown thread mode: " + mode);
+        }
+    }
+
+    // Same load for as long as the measured runs' warmup, with no warmup of its own
+    private static LoadGenerator.Config warmupConfig(LoadGenerator.Config config) {
+        LoadGenerator.Config warmup = new LoadGenerator.Config();
+        warmup.tps = config.tps;
+        warmup.maxInFlight = config.maxInFlight;
+        warmup.requestTimeoutSeconds = config.requestTimeoutSeconds;
+        warmup.warmupSeconds = 0;
+        warmup.durationSeconds = Math.max(1, config.warmupSeconds);
+        return warmup;
+    }
+
+    // Start a server in the given mode, load it, and shut it down again
+    static LoadGenerator.Report run(LoadGenerator.Config config, String storage, boolean virtual, int platformThreads)
+            throws InterruptedException {
+        String mode = virtual ? "virtual" : "platform";
+        config.runId = mode + "-" + Long.toString(System.nanoTime(), 36);
+        // As command-line arguments: properties() only sets defaults, which
+        // application.properties would override
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .run(
+                    "--server.port=0",
+                    "--storage.mode=" + storage,
+                    // A database of its own per run, so each starts empty
+                    "--spring.datasource.url=jdbc:h2:mem:bench-" + config.runId,
+                    "--spring.threads.virtual.enabled=" + virtual,
+                    "--server.tomcat.threads.max=" + platformThreads,
+                    "--rate.limiting.enabled=false",
+                    "--request.logging.enabled=false",
+                    "--spring.jmx.enabled=false")) {
+            config.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            LoadGenerator.Report report = new LoadGenerator(config).run();
+            System.out.println("== " + mode + " threads");
+            report.print(System.out);
+            return report;
+        }
+    }
+
+    static void print(PrintStream out, LoadGenerator.Config config, String storage, int platformThreads,
+                      Map<String, LoadGenerator.Report> reports) {
+        out.printf("%nThread modes at %d req/s offered for %ds (%s storage, platform pool of %d):%n",
+            config.tps, config.durationSeconds, storage, platformThreads);
+        out.printf("%-10s %10s %8s %8s %8s %8s %8s %8s%n",
+            "threads", "req/s", "p50", "p99", "p99.9", "max", "errors", "dropped");
+        reports.forEach((mode, report) -> {
+            Histogram all = report.getOverall();
+            out.printf("%-10s %10.1f %8.2f %8.2f %8.2f %8.2f %8d %8d%n",
+                mode, report.getThroughput(),
+                all.getValueAtPercentile(50) / 1000.0, all.getValueAtPercentile(99) / 1000.0,
+                all.getValueAtPercentile(99.9) / 1000.0, all.getMaxValue() / 1000.0,
+                report.getTotalErrors(), report.getDropped());
+        });
+        out.println("Latencies in ms from each request's intended start, over all endpoints.");
+    }
+}
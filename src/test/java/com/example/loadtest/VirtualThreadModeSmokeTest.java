@@ -0,0 +1,43 @@
+package com.example.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"rate.limiting.enabled=false", "spring.threads.virtual.enabled=true"})
+public class VirtualThreadModeSmokeTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Test
+    void testRequestsAreServedOnVirtualThreads() throws Exception {
+        TomcatWebServer server = (TomcatWebServer) context.getWebServer();
+        Executor executor = server.getTomcat().getConnector().getProtocolHandler().getExecutor();
+        assertTrue(executor.getClass().getSimpleName().contains("VirtualThread"), executor.getClass().getName());
+
+        LoadGenerator.Config config = new LoadGenerator.Config();
+        config.baseUrl = "http://localhost:" + port;
+        config.tps = 50;
+        config.warmupSeconds = 2;
+        config.durationSeconds = 3;
+
+        LoadGenerator.Report report = new LoadGenerator(config).run();
+        report.print(System.out);
+
+        assertTrue(report.getTotalRequests() > 0);
+        assertEquals(0, report.getTotalErrors());
+        assertEquals(0, report.getDropped());
+    }
+}
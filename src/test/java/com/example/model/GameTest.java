@@ -0,0 +1,162 @@
+package com.example.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameTest {
+
+    private Game game;
+    private Player alice;
+    private Player bob;
+
+    @BeforeEach
+    void setUp() {
+        game = new Game("Bitboard Game");
+        alice = new Player("Alice", "alice@example.com");
+        bob = new Player("Bob", "bob@example.com");
+        game.addPlayer(alice);
+        game.addPlayer(bob);
+    }
+
+    @Test
+    void testEveryLineWins() {
+        int[][] lines = {
+            {0, 1, 2}, {3, 4, 5}, {6, 7, 8},
+            {0, 3, 6}, {1, 4, 7}, {2, 5, 8},
+            {0, 4, 8}, {2, 4, 6}
+        };
+
+        for (int[] line : lines) {
+            Game g = new Game("Line Game");
+            g.addPlayer(alice);
+            g.addPlayer(bob);
+
+            // Bob plays two cells that are never on the line being tested
+            int[] filler = Arrays.stream(new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8})
+                .filter(p -> Arrays.stream(line).noneMatch(l -> l == p))
+                .toArray();
+
+            assertTrue(g.makeMove(alice, line[0]));
+            assertTrue(g.makeMove(bob, filler[0]));
+            assertTrue(g.makeMove(alice, line[1]));
+            assertTrue(g.makeMove(bob, filler[filler.length - 1]));
+            assertTrue(g.makeMove(alice, line[2]));
+
+            assertEquals(Game.GameStatus.COMPLETED, g.getStatus(), "Line " + Arrays.toString(line) + " should win");
+            assertEquals(alice, g.getWinner());
+        }
+    }
+
+    @Test
+    void testDrawWhenBoardFills() {
+        // X O X / X O O / O X X
+        int[] sequence = {0, 1, 2, 4, 3, 5, 7, 6, 8};
+        for (int i = 0; i < sequence.length; i++) {
+            assertTrue(game.makeMove(i % 2 == 0 ? alice : bob, sequence[i]));
+        }
+
+        assertEquals(Game.GameStatus.DRAW, game.getStatus());
+        assertNull(game.getWinner());
+        assertEquals(1, alice.getStats().getGamesDrawn());
+        assertEquals(1, bob.getStats().getGamesDrawn());
+    }
+
+    @Test
+    void testOccupiedCellRejected() {
+        assertTrue(game.makeMove(alice, 4));
+        assertFalse(game.makeMove(bob, 4));
+        assertEquals(bob, game.getCurrentPlayer());
+    }
+
+    @Test
+    void testBoardListMirrorsBitboards() {
+        game.makeMove(alice, 0);
+        game.makeMove(bob, 8);
+
+        assertEquals(Arrays.asList("X", null, null, null, null, null, null, null, "O"), game.getBoard());
+        assertEquals(0b000_000_001, game.getXMask());
+        assertEquals(0b100_000_000, game.getOMask());
+    }
+
+    @Test
+    void testSetBoardRebuildsBitboards() {
+        List<String> board = Arrays.asList("X", "X", null, "O", "O", null, null, null, null);
+        game.setBoard(board);
+
+        assertEquals(0b000_000_011, game.getXMask());
+        assertEquals(0b000_011_000, game.getOMask());
+
+        // Alice completes the top row on the restored board
+        assertTrue(game.makeMove(alice, 2));
+        assertEquals(Game.GameStatus.COMPLETED, game.getStatus());
+    }
+
+    @Test
+    void testSnapshotPublishedOnEveryChange() {
+        GameSnapshot beforeMove = game.getSnapshot();
+        assertEquals(Game.GameStatus.ACTIVE, beforeMove.getStatus());
+        assertEquals(alice, beforeMove.getCurrentPlayer());
+
+        game.makeMove(alice, 4);
+        GameSnapshot afterMove = game.getSnapshot();
+
+        assertEquals(beforeMove.getVersion() + 1, afterMove.getVersion());
+        assertEquals("X", afterMove.getBoard().get(4));
+        assertEquals(bob, afterMove.getCurrentPlayer());
+        assertEquals(1, afterMove.getMoveCount());
+
+        // Earlier snapshots are never modified
+        assertNull(beforeMove.getBoard().get(4));
+        assertEquals(alice, beforeMove.getCurrentPlayer());
+        assertThrows(UnsupportedOperationException.class, () -> afterMove.getBoard().set(0, "O"));
+    }
+
+    @Test
+    void testRejectedMoveDoesNotPublish() {
+        long version = game.getSnapshot().getVersion();
+        assertFalse(game.makeMove(bob, 0));
+        assertEquals(version, game.getSnapshot().getVersion());
+    }
+
+    @Test
+    void testPackedColumnsRoundTrip() {
+        game.makeMove(alice, 4);
+        game.makeMove(bob, 0);
+        game.makeMove(alice, 8);
+
+        String board = new BoardConverter().convertToDatabaseColumn(game.getBoard());
+        String history = new MoveHistoryConverter().convertToDatabaseColumn(game.getMoves());
+        assertEquals("O---X---X", board);
+
+        // As JPA loads it: columns converted, players set, then derived state rebuilt
+        Game loaded = new Game();
+        loaded.setId(game.getId());
+        loaded.setPlayers(List.of(alice, bob));
+        loaded.setBoard(new BoardConverter().convertToEntityAttribute(board));
+        loaded.setMoves(new MoveHistoryConverter().convertToEntityAttribute(history));
+        loaded.restoreDerivedState();
+
+        assertEquals(game.getBoard(), loaded.getBoard());
+        assertEquals(game.getXMask(), loaded.getXMask());
+        assertEquals(game.getOMask(), loaded.getOMask());
+        assertEquals(game.getMoves(), loaded.getMoves());
+        for (int i = 0; i < 3; i++) {
+            Move original = game.getMoves().get(i);
+            Move restored = loaded.getMoves().get(i);
+            assertEquals(original.getPosition(), restored.getPosition());
+            assertEquals(original.getSymbol(), restored.getSymbol());
+            assertEquals(original.getCreatedAt().withNano(original.getCreatedAt().getNano() / 1000 * 1000),
+                restored.getCreatedAt());
+            assertSame(original.getPlayer(), restored.getPlayer());
+            assertSame(loaded, restored.getGame());
+        }
+
+        assertNull(new MoveHistoryConverter().convertToDatabaseColumn(List.of()));
+        assertEquals(Arrays.asList(new String[9]), new BoardConverter().convertToEntityAttribute(null));
+    }
+}
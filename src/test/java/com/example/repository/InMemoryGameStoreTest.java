@@ -0,0 +1,75 @@
+package com.example.repository;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryGameStoreTest {
+
+    private InMemoryGameStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryGameStore();
+    }
+
+    @Test
+    void testCountByStatusAgreesWithFindByStatusMidTransition() {
+        Game game = new Game("Transition");
+        store.insert(game);
+
+        store.update(game.getId(), g -> {
+            // Still in the WAITING set, but no longer WAITING
+            g.setStatus(Game.GameStatus.ACTIVE);
+            assertEquals(store.findByStatus(Game.GameStatus.WAITING).size(),
+                store.countByStatus(Game.GameStatus.WAITING));
+            return null;
+        });
+
+        assertEquals(0, store.countByStatus(Game.GameStatus.WAITING));
+        assertEquals(1, store.countByStatus(Game.GameStatus.ACTIVE));
+    }
+
+    @Test
+    void testPlayerIndexSurvivesConcurrentDeletes() throws Exception {
+        Player player = new Player("Alice", "alice@example.com");
+        int threads = 4;
+        int rounds = 2000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicInteger missing = new AtomicInteger();
+
+        // Every thread keeps emptying the player's set, so inserts race with the
+        // deletes that drop it; a game indexed into a dropped set goes missing
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < rounds; i++) {
+                    Game game = new Game("Game " + thread + "-" + i);
+                    game.addPlayer(player);
+                    store.insert(game);
+                    if (!store.findByPlayer(player.getId()).contains(game)) {
+                        missing.incrementAndGet();
+                    }
+                    store.delete(game.getId());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(0, missing.get());
+        assertTrue(store.findByPlayer(player.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.repository;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"spring.profiles.active=test", "storage.mode=memory"})
+class InMemoryStorageContractTest extends StorageContractTest {
+}
@@ -0,0 +1,140 @@
+package com.example.repository;
+
+import com.example.model.CursorPage;
+import com.example.model.Game;
+import com.example.model.Player;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Listing games in JPA mode must cost a fixed number of SQL statements, however
+// many games there are and however many distinct players they refer to
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"spring.profiles.active=test", "storage.mode=jpa", "rate.limiting.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:query-count;DB_CLOSE_DELAY=-1"})
+class JpaGameStoreQueryCountTest {
+
+    private static final int GAMES = 1000;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private Statistics statistics;
+    private List<Player> players;
+
+    @BeforeEach
+    void populate() {
+        gameService.clearAllGames();
+        playerService.clearAllPlayers();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        players = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            players.add(playerService.createPlayer("Player " + i, "player" + i + "@example.com"));
+        }
+        // A third each of waiting, active and finished games, so the list queries see
+        // current players and winners as well as players
+        for (int i = 0; i < GAMES; i++) {
+            Game game = gameService.createGame("Game " + i);
+            if (i % 3 == 0) {
+                continue;
+            }
+            Player x = players.get(i % players.size());
+            Player o = players.get((i + 1) % players.size());
+            gameService.addPlayerToGame(game.getId(), x);
+            gameService.addPlayerToGame(game.getId(), o);
+            if (i % 3 == 2) {
+                int[] sequence = {0, 3, 1, 4, 2};
+                for (int m = 0; m < sequence.length; m++) {
+                    gameService.makeMove(game.getId(), (m % 2 == 0 ? x : o).getId(), sequence[m]);
+                }
+            }
+        }
+    }
+
+    private <T> T countStatements(long maxStatements, Supplier<T> query) {
+        statistics.clear();
+        T result = query.get();
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= maxStatements, "Expected at most " + maxStatements + " statements, got " + statements);
+        return result;
+    }
+
+    @Test
+    void testListQueriesUseConstantStatements() {
+        List<Game> all = countStatements(1, gameService::findAll);
+        assertEquals(GAMES, all.size());
+        // Every association is already loaded
+        Game finished = all.stream().filter(g -> g.getStatus() == Game.GameStatus.COMPLETED).findFirst().orElseThrow();
+        assertEquals(2, finished.getPlayers().size());
+        assertSame(finished.getPlayers().get(0), finished.getWinner());
+        assertEquals(5, finished.getSnapshot().getMoveCount());
+
+        assertEquals(GAMES / 3, countStatements(1, () -> gameService.findByStatus(Game.GameStatus.ACTIVE)).size());
+        // Completed plus drawn
+        assertEquals(GAMES / 3, countStatements(2, gameService::getCompletedGames).size());
+
+        // Player 0 is X in 13 of the games numbered 0 mod 50 and O in 13 of those numbered 49 mod 50
+        List<Game> byPlayer = countStatements(1, () -> gameService.getGamesByPlayer(players.get(0).getId()));
+        assertEquals(26, byPlayer.size());
+        assertTrue(byPlayer.stream().allMatch(g -> g.getPlayers().size() == 2));
+    }
+
+    @Test
+    void testCursorPagesUseConstantStatements() {
+        // Every page, however deep, is an id query plus one fetch
+        Set<String> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            String after = cursor;
+            CursorPage<Game> page = countStatements(2,
+                () -> gameService.getGamesPage(Game.GameStatus.COMPLETED, after, 100, false));
+            page.getContent().forEach(game -> {
+                assertEquals(2, game.getPlayers().size());
+                assertTrue(seen.add(game.getId()));
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(GAMES / 3, seen.size());
+    }
+
+    @Test
+    void testListEndpointReturnsSnapshots() {
+        statistics.clear();
+        ResponseEntity<List> response = restTemplate.getForEntity("/api/games?status=COMPLETED", List.class);
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        Map<?, ?> first = (Map<?, ?>) response.getBody().get(0);
+        assertEquals(GAMES / 3, response.getBody().size());
+        assertEquals(5, first.get("moveCount"));
+        assertNotNull(((Map<?, ?>) first.get("winner")).get("id"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.repository;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Uses its own H2 database so it never shares tables with other test contexts
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"spring.profiles.active=test", "storage.mode=jpa",
+        "spring.datasource.url=jdbc:h2:mem:storage-contract;DB_CLOSE_DELAY=-1"})
+class JpaStorageContractTest extends StorageContractTest {
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Test
+    void testFindGamesByMoveCountCountsPackedMoves() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "bob@example.com");
+        Game none = gameService.createGame("No Moves");
+        Game three = gameService.createGame("Three Moves");
+        Game one = gameService.createGame("One Move");
+        for (Game game : List.of(three, one)) {
+            gameService.addPlayerToGame(game.getId(), alice);
+            gameService.addPlayerToGame(game.getId(), bob);
+        }
+        gameService.makeMove(three.getId(), alice.getId(), 0);
+        gameService.makeMove(three.getId(), bob.getId(), 4);
+        gameService.makeMove(three.getId(), alice.getId(), 8);
+        gameService.makeMove(one.getId(), alice.getId(), 4);
+
+        assertEquals(List.of(three.getId(), one.getId(), none.getId()),
+            gameRepository.findGamesByMoveCount().stream().map(Game::getId).collect(Collectors.toList()));
+    }
+}
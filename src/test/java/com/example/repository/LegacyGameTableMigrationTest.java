@@ -0,0 +1,81 @@
+package com.example.repository;
+
+import com.example.model.Game;
+import com.example.model.Move;
+import com.example.model.Player;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.profiles.active=test", "storage.mode=jpa",
+    "spring.datasource.url=jdbc:h2:mem:legacy-migration;DB_CLOSE_DELAY=-1"})
+class LegacyGameTableMigrationTest {
+
+    @Autowired
+    private LegacyGameTableMigration migration;
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testLegacyRowsArePackedAndTablesDropped() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "bob@example.com");
+        Game game = gameService.createGame("Legacy Game");
+        gameService.addPlayerToGame(game.getId(), alice);
+        gameService.addPlayerToGame(game.getId(), bob);
+
+        // The game as the original mapping stored it: two moves in the side tables, none
+        // in its row. game_board has no order column, so its rows are listed out of order.
+        jdbcTemplate.execute("CREATE TABLE game_board (game_id VARCHAR(255) NOT NULL, cell_value VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE moves (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+            + "game_id VARCHAR(255) NOT NULL, player_id VARCHAR(255) NOT NULL, row_position INT NOT NULL, "
+            + "col_position INT NOT NULL, move_number INT NOT NULL, position INT NOT NULL, "
+            + "symbol VARCHAR(255) NOT NULL, created_at TIMESTAMP(6) NOT NULL)");
+        jdbcTemplate.update("UPDATE games SET board = NULL, move_history = NULL WHERE id = ?", game.getId());
+        LocalDateTime first = LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_000);
+        jdbcTemplate.update("INSERT INTO game_board VALUES (?, 'O'), (?, 'X')", game.getId(), game.getId());
+        jdbcTemplate.update("INSERT INTO moves (game_id, player_id, row_position, col_position, move_number, "
+            + "position, symbol, created_at) VALUES (?, ?, 1, 1, 1, 4, 'X', ?), (?, ?, 0, 0, 2, 0, 'O', ?)",
+            game.getId(), alice.getId(), first, game.getId(), bob.getId(), first.plusSeconds(1));
+
+        migration.afterPropertiesSet();
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) IN ('GAME_BOARD', 'MOVES')",
+            Integer.class));
+        Game migrated = gameService.findById(game.getId()).orElseThrow();
+        assertEquals(Arrays.asList("O", null, null, null, "X", null, null, null, null), migrated.getBoard());
+        List<Move> moves = migrated.getMoves();
+        assertEquals(2, moves.size());
+        assertEquals(4, moves.get(0).getPosition());
+        assertEquals(alice.getId(), moves.get(0).getPlayerId());
+        assertEquals(first, moves.get(0).getCreatedAt());
+        assertEquals(bob.getId(), moves.get(1).getPlayerId());
+        assertEquals(2, moves.get(1).getMoveNumber());
+
+        // The migrated game plays on from where it stopped
+        assertTrue(gameService.makeMove(game.getId(), alice.getId(), 8));
+        assertEquals("O---X---X", jdbcTemplate.queryForObject(
+            "SELECT board FROM games WHERE id = ?", String.class, game.getId()));
+
+        // Running again without the legacy tables changes nothing
+        migration.afterPropertiesSet();
+        assertEquals(3, gameService.findById(game.getId()).orElseThrow().getMoves().size());
+    }
+}
@@ -0,0 +1,433 @@
+package com.example.repository;
+
+import com.example.model.Game;
+import com.example.model.Move;
+import com.example.model.Player;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Service-level behavior every storage backend must preserve. Subclasses start the
+// application with a specific storage.mode.
+abstract class StorageContractTest {
+
+    @Autowired
+    protected GameService gameService;
+
+    @Autowired
+    protected PlayerService playerService;
+
+    @Autowired
+    protected TestRestTemplate restTemplate;
+
+    @Autowired
+    protected PlayerStore playerStore;
+
+    @BeforeEach
+    void clearStores() {
+        gameService.clearAllGames();
+        playerService.clearAllPlayers();
+    }
+
+    @Test
+    void testPlayerEmailsAreUniqueAndCaseInsensitive() {
+        Player alice = playerService.createPlayer("Alice", "Alice@Example.com");
+
+        assertEquals(alice, playerService.findByEmail(" alice@example.com ").orElseThrow());
+        assertEquals("Alice@Example.com", playerService.findById(alice.getId()).orElseThrow().getEmail());
+        assertThrows(IllegalArgumentException.class, () -> playerService.createPlayer("Copy", "ALICE@example.com"));
+        assertEquals(1, playerService.getTotalPlayerCount());
+    }
+
+    @Test
+    void testProfileUpdateMovesEmailClaim() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        playerService.createPlayer("Bob", "bob@example.com");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> playerService.updatePlayer(alice.getId(), "Alice", "BOB@example.com"));
+
+        Player renamed = playerService.updatePlayer(alice.getId(), "Alice Smith", "alice.smith@example.com");
+        assertEquals("Alice Smith", renamed.getName());
+        assertTrue(playerService.findByEmail("alice@example.com").isEmpty());
+        assertEquals(alice, playerService.findByEmail("alice.smith@example.com").orElseThrow());
+
+        // The released email can be claimed again
+        assertNotNull(playerService.createPlayer("Carol", "alice@example.com"));
+        assertThrows(IllegalArgumentException.class,
+            () -> playerService.updatePlayer("missing", "Nobody", "nobody@example.com"));
+    }
+
+    @Test
+    void testCompleteGameUpdatesGamesPlayersAndLeaderboard() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "bob@example.com");
+        Game game = gameService.createGame("Contract Game");
+
+        assertEquals(List.of(game), gameService.getWaitingGames());
+        assertTrue(gameService.addPlayerToGame(game.getId(), alice));
+        assertTrue(gameService.addPlayerToGame(game.getId(), bob));
+        assertThrows(IllegalStateException.class,
+            () -> gameService.addPlayerToGame(game.getId(), playerService.createPlayer("Carol", "carol@example.com")));
+        assertEquals(List.of(game), gameService.getActiveGames());
+        assertEquals(alice, gameService.getCurrentPlayer(game.getId()).orElseThrow());
+
+        // Alice wins down the left column; an occupied cell and out-of-turn move are rejected
+        assertTrue(gameService.makeMove(game.getId(), alice.getId(), 0));
+        assertFalse(gameService.makeMove(game.getId(), bob.getId(), 0));
+        assertThrows(IllegalStateException.class, () -> gameService.makeMove(game.getId(), alice.getId(), 1));
+        assertTrue(gameService.makeMove(game.getId(), bob.getId(), 1));
+        assertTrue(gameService.makeMove(game.getId(), alice.getId(), 3));
+        assertTrue(gameService.makeMove(game.getId(), bob.getId(), 4));
+        assertTrue(gameService.makeMove(game.getId(), alice.getId(), 6));
+
+        assertEquals(Game.GameStatus.COMPLETED, gameService.getGameStatus(game.getId()));
+        assertEquals(alice, gameService.getWinner(game.getId()).orElseThrow());
+        assertEquals(Arrays.asList("X", "O", null, "X", "O", null, "X", null, null),
+            gameService.getGameBoard(game.getId()));
+        assertThrows(IllegalStateException.class, () -> gameService.makeMove(game.getId(), bob.getId(), 8));
+
+        List<Move> moves = gameService.getGameMoves(game.getId());
+        assertEquals(5, moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+            assertEquals(i + 1, move.getMoveNumber());
+            assertEquals(game.getId(), move.getGameId());
+            assertEquals(i % 2 == 0 ? alice.getId() : bob.getId(), move.getPlayerId());
+            assertEquals(move.getPosition() / 3, move.getRow());
+            assertEquals(move.getPosition() % 3, move.getCol());
+        }
+
+        assertTrue(gameService.getActiveGames().isEmpty());
+        assertEquals(List.of(game), gameService.getCompletedGames());
+        assertEquals(List.of(game), gameService.getGamesByPlayer(bob.getId()));
+        assertTrue(gameService.getPlayerActiveGames(alice.getId()).isEmpty());
+
+        assertEquals(1, playerService.getPlayerStats(alice.getId()).getGamesWon());
+        assertEquals(1, playerService.getPlayerStats(bob.getId()).getGamesLost());
+        assertEquals(List.of(alice, bob), playerService.getLeaderboard(10, "winrate"));
+        assertEquals(List.of(alice, bob), playerService.getLeaderboard(10, "wins"));
+    }
+
+    @Test
+    void testDrawAndDelete() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "bob@example.com");
+        Game game = gameService.createGame("Draw Game");
+        gameService.addPlayerToGame(game.getId(), alice);
+        gameService.addPlayerToGame(game.getId(), bob);
+
+        // X O X / X O O / O X X
+        int[] sequence = {0, 1, 2, 4, 3, 5, 7, 6, 8};
+        for (int i = 0; i < sequence.length; i++) {
+            assertTrue(gameService.makeMove(game.getId(), (i % 2 == 0 ? alice : bob).getId(), sequence[i]));
+        }
+        assertEquals(Game.GameStatus.DRAW, gameService.getGameStatus(game.getId()));
+        assertTrue(gameService.getWinner(game.getId()).isEmpty());
+        assertEquals(1, playerService.getPlayerStats(bob.getId()).getGamesDrawn());
+
+        assertTrue(gameService.deleteGame(game.getId()));
+        assertFalse(gameService.deleteGame(game.getId()));
+        assertTrue(gameService.findById(game.getId()).isEmpty());
+        assertTrue(gameService.getGamesByPlayer(alice.getId()).isEmpty());
+        assertEquals(0, gameService.getTotalGameCount());
+        assertThrows(IllegalArgumentException.class, () -> gameService.getGameStatus(game.getId()));
+    }
+
+    @Test
+    void testPlayerInGameCannotBeDeleted() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "bob@example.com");
+        Game game = gameService.createGame("Kept");
+        gameService.addPlayerToGame(game.getId(), alice);
+
+        assertThrows(IllegalStateException.class, () -> gameService.deletePlayer(alice.getId()));
+        ResponseEntity<Void> refused = restTemplate.exchange("/api/players/" + alice.getId(), HttpMethod.DELETE,
+            null, Void.class);
+        assertEquals(HttpStatus.CONFLICT, refused.getStatusCode());
+        assertTrue(playerService.findById(alice.getId()).isPresent());
+
+        assertTrue(gameService.deletePlayer(bob.getId()));
+        assertFalse(gameService.deletePlayer(bob.getId()));
+
+        // Once the game is gone, so can the player be
+        assertTrue(gameService.deleteGame(game.getId()));
+        assertTrue(gameService.deletePlayer(alice.getId()));
+        assertEquals(0, playerService.getTotalPlayerCount());
+    }
+
+    @Test
+    void testLeaderboardPagination() {
+        List<Player> created = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            created.add(playerService.createPlayer("Player " + i, "player" + i + "@example.com"));
+        }
+        // Player i wins i games and loses one
+        for (int i = 0; i < created.size(); i++) {
+            for (int w = 0; w < i; w++) {
+                playerService.updatePlayerStats(created.get(i).getId(), true, false, 3);
+            }
+            playerService.updatePlayerStats(created.get(i).getId(), false, false, 3);
+        }
+
+        var first = playerService.getLeaderboardPaginated(0, 5, "wins");
+        var last = playerService.getLeaderboardPaginated(2, 5, "wins");
+        assertEquals(12, first.getPage().getTotalElements());
+        assertEquals(3, first.getPage().getTotalPages());
+        assertEquals(created.get(11), first.getContent().get(0));
+        assertEquals(List.of(created.get(1), created.get(0)), last.getContent());
+        assertThrows(IllegalArgumentException.class, () -> playerService.getLeaderboardPaginated(3, 5, "wins"));
+        assertThrows(IllegalArgumentException.class, () -> playerService.getLeaderboard(5, "losses"));
+    }
+
+    @Test
+    void testCursorPagination() {
+        List<Player> created = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            created.add(playerService.createPlayer("Player " + i, "player" + i + "@example.com"));
+        }
+        // Pairs of players tie on wins, so pages split ties and the id decides
+        for (int i = 0; i < created.size(); i++) {
+            for (int w = 0; w < i / 2; w++) {
+                playerService.updatePlayerStats(created.get(i).getId(), true, false, 3);
+            }
+            playerService.updatePlayerStats(created.get(i).getId(), false, false, 3);
+        }
+        List<Player> expected = playerService.getLeaderboard(created.size(), "wins");
+        List<Player> paged = new ArrayList<>();
+        var page = playerService.getLeaderboardAfter(null, 4, "wins", true);
+        assertEquals(created.size(), page.getTotalElements());
+        paged.addAll(page.getContent());
+        while (page.getNextCursor() != null) {
+            page = playerService.getLeaderboardAfter(page.getNextCursor(), 4, "wins", false);
+            paged.addAll(page.getContent());
+        }
+        assertEquals(expected, paged);
+
+        // Games newest first; finishing one moves it to another status, not another position
+        for (int i = 0; i < 7; i++) {
+            gameService.createGame("Cursor Game " + i);
+        }
+        List<String> gameIds = gameService.findAll().stream()
+            .sorted(Comparator.comparing(Game::getCreatedAt).reversed().thenComparing(Game::getId))
+            .map(Game::getId)
+            .collect(Collectors.toList());
+        var games = gameService.getGamesPage(null, null, 3, false);
+        assertNull(games.getTotalElements());
+        List<String> listed = new ArrayList<>();
+        games.getContent().forEach(game -> listed.add(game.getId()));
+        gameService.addPlayerToGame(gameIds.get(4), created.get(0));
+        gameService.addPlayerToGame(gameIds.get(4), created.get(1));
+        while (games.getNextCursor() != null) {
+            games = gameService.getGamesPage(null, games.getNextCursor(), 3, false);
+            games.getContent().forEach(game -> listed.add(game.getId()));
+        }
+        assertEquals(gameIds, listed);
+        var active = gameService.getGamesPage(Game.GameStatus.ACTIVE, null, 3, true);
+        assertEquals(1, active.getTotalElements());
+        assertEquals(gameIds.get(4), active.getContent().get(0).getId());
+        assertNull(active.getNextCursor());
+
+        ResponseEntity<Map> response = restTemplate.getForEntity(
+            "/api/games/cursor?status=waiting&size=5&cursor=" + gameService.getGamesPage(null, null, 1, false).getNextCursor(),
+            Map.class);
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+        assertEquals(5, ((List<?>) response.getBody().get("content")).size());
+        assertFalse(response.getBody().containsKey("totalElements"));
+        assertTrue(response.getBody().containsKey("nextCursor"));
+        assertNull(response.getBody().get("nextCursor"));
+        assertEquals(400, restTemplate.getForEntity("/api/players/leaderboard/cursor?cursor=bogus", Map.class)
+            .getStatusCode().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGamesPaginatedAndStreamed() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "bob@example.com");
+        for (int i = 0; i < 11; i++) {
+            Game game = gameService.createGame("Listed Game " + i);
+            if (i % 2 == 0) {
+                gameService.addPlayerToGame(game.getId(), alice);
+                gameService.addPlayerToGame(game.getId(), bob);
+            }
+        }
+        List<String> newestFirst = gameService.findAll().stream()
+            .sorted(Comparator.comparing(Game::getCreatedAt).reversed().thenComparing(Game::getId))
+            .map(Game::getId)
+            .collect(Collectors.toList());
+
+        var last = gameService.getGamesPaginated(null, 2, 4);
+        assertEquals(11, last.getPage().getTotalElements());
+        assertEquals(3, last.getPage().getTotalPages());
+        assertTrue(last.getPage().isLast());
+        assertEquals(newestFirst.subList(8, 11),
+            last.getContent().stream().map(Game::getId).collect(Collectors.toList()));
+        assertEquals(6, gameService.getGamesPaginated(Game.GameStatus.ACTIVE, 0, 10).getContent().size());
+        assertThrows(IllegalArgumentException.class, () -> gameService.getGamesPaginated(null, 3, 4));
+
+        ResponseEntity<Map> page = restTemplate.getForEntity("/api/games/paginated?status=waiting&size=3", Map.class);
+        assertTrue(page.getStatusCode().is2xxSuccessful());
+        assertEquals(3, ((List<?>) page.getBody().get("content")).size());
+        assertEquals(5, ((Map<String, Object>) page.getBody().get("page")).get("totalElements"));
+
+        ResponseEntity<String> stream = restTemplate.getForEntity("/api/games/stream", String.class);
+        assertTrue(stream.getStatusCode().is2xxSuccessful());
+        assertEquals("application/x-ndjson", stream.getHeaders().getContentType().toString());
+        String[] lines = stream.getBody().split("\n");
+        assertEquals(11, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":\"" + newestFirst.get(0) + "\""));
+        assertEquals(400, restTemplate.getForEntity("/api/games/stream?status=bogus", String.class)
+            .getStatusCode().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBulkRegistration() {
+        playerService.createPlayer("Existing", "existing@example.com");
+        StringBuilder ndjson = new StringBuilder();
+        int players = 1200;
+        for (int i = 0; i < players; i++) {
+            ndjson.append("{\"name\":\"Player ").append(i).append("\",\"email\":\"p").append(i)
+                .append("@example.com\"}\n");
+        }
+        ndjson.append("{\"name\":\"Copy\",\"email\":\"P7@Example.com\"}\n");
+        ndjson.append("{\"name\":\"Again\",\"email\":\"existing@example.com\"}\n");
+        ndjson.append("{\"name\":\"Broken\",\"email\":\"not-an-email\"}\n");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/x-ndjson"));
+
+        ResponseEntity<Map> response = restTemplate.postForEntity("/api/players/bulk",
+            new HttpEntity<>(ndjson.toString(), headers), Map.class);
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(players, response.getBody().get("created"));
+        assertEquals(3, response.getBody().get("failed"));
+        List<Map<String, Object>> results = (List<Map<String, Object>>) response.getBody().get("results");
+        assertEquals(players + 3, results.size());
+        assertEquals("CREATED", results.get(0).get("status"));
+        assertEquals("DUPLICATE", results.get(players).get("status"));
+        assertEquals("DUPLICATE", results.get(players + 1).get("status"));
+        assertEquals("INVALID", results.get(players + 2).get("status"));
+        assertEquals(players + 1, playerService.getTotalPlayerCount());
+        String id = (String) results.get(42).get("playerId");
+        assertEquals(id, playerService.findByEmail("p42@example.com").orElseThrow().getId());
+
+        // A JSON array works too; a body that is not JSON at all is refused
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<Map> array = restTemplate.postForEntity("/api/players/bulk",
+            new HttpEntity<>("[{\"name\":\"Zed\",\"email\":\"zed@example.com\"}]", headers), Map.class);
+        assertEquals(1, array.getBody().get("created"));
+        assertEquals(400, restTemplate.postForEntity("/api/players/bulk",
+            new HttpEntity<>("nonsense", headers), Map.class).getStatusCode().value());
+    }
+
+    @Test
+    void testInsertAllRefusesOnlyTakenEmails() {
+        playerService.createPlayer("Taken", "taken@example.com");
+        List<Player> players = new ArrayList<>();
+        for (String email : List.of("a@example.com", "taken@example.com", "b@example.com")) {
+            Player player = new Player(email.substring(0, 1), email);
+            player.setEmailKey(email);
+            players.add(player);
+        }
+
+        assertEquals(Set.of("taken@example.com"),
+            playerStore.findTakenEmailKeys(List.of("a@example.com", "taken@example.com")));
+        assertArrayEquals(new boolean[] {true, false, true}, playerStore.insertAll(players));
+        assertEquals(3, playerService.getTotalPlayerCount());
+        assertEquals(players.get(2), playerService.findByEmail("b@example.com").orElseThrow());
+    }
+
+    @Test
+    void testConcurrentGamesForSamePlayerKeepAllStats() throws Exception {
+        // One player finishes many games at once; no stats update may be lost
+        Player hub = playerService.createPlayer("Hub", "hub@example.com");
+        int gameCount = 24;
+        List<Game> games = new ArrayList<>();
+        List<Player> opponents = new ArrayList<>();
+        for (int i = 0; i < gameCount; i++) {
+            Player opponent = playerService.createPlayer("Opponent " + i, "opponent" + i + "@example.com");
+            Game game = gameService.createGame("Hub Game " + i);
+            gameService.addPlayerToGame(game.getId(), hub);
+            gameService.addPlayerToGame(game.getId(), opponent);
+            games.add(game);
+            opponents.add(opponent);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < gameCount; i++) {
+            String gameId = games.get(i).getId();
+            String opponentId = opponents.get(i).getId();
+            futures.add(executor.submit(() -> {
+                start.await();
+                // Hub wins on the top row
+                gameService.makeMove(gameId, hub.getId(), 0);
+                gameService.makeMove(gameId, opponentId, 3);
+                gameService.makeMove(gameId, hub.getId(), 1);
+                gameService.makeMove(gameId, opponentId, 4);
+                gameService.makeMove(gameId, hub.getId(), 2);
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(gameCount, playerService.getPlayerStats(hub.getId()).getGamesWon());
+        assertEquals(gameCount, playerService.getPlayerStats(hub.getId()).getGamesPlayed());
+        assertEquals(gameCount, gameService.getCompletedGames().size());
+        assertEquals(hub, playerService.getLeaderboard(1, "wins").get(0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testGamesSerializeOverHttp() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "bob@example.com");
+        Game game = gameService.createGame("Http Game");
+        gameService.addPlayerToGame(game.getId(), alice);
+        gameService.addPlayerToGame(game.getId(), bob);
+        gameService.makeMove(game.getId(), alice.getId(), 4);
+
+        ResponseEntity<Map> body = restTemplate.getForEntity("/api/games/" + game.getId(), Map.class);
+        assertTrue(body.getStatusCode().is2xxSuccessful());
+        assertEquals("ACTIVE", body.getBody().get("status"));
+        assertEquals(2, ((List<?>) body.getBody().get("players")).size());
+
+        ResponseEntity<List> moves = restTemplate.getForEntity("/api/games/" + game.getId() + "/moves", List.class);
+        assertTrue(moves.getStatusCode().is2xxSuccessful());
+        assertEquals(1, moves.getBody().size());
+
+        ResponseEntity<List> all = restTemplate.getForEntity("/api/games", List.class);
+        assertTrue(all.getStatusCode().is2xxSuccessful());
+        assertEquals(1, all.getBody().size());
+    }
+}
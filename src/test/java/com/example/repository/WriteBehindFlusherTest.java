@@ -0,0 +1,167 @@
+package com.example.repository;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import com.example.service.GameService;
+import com.example.service.PlayerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"spring.profiles.active=test", "storage.mode=write-behind",
+    "spring.datasource.url=jdbc:h2:mem:write-behind;DB_CLOSE_DELAY=-1"})
+class WriteBehindFlusherTest {
+
+    @Autowired
+    private GameService gameService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private WriteBehindFlusher flusher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private GameRepository gameRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void clearStores() {
+        gameService.clearAllGames();
+        playerService.clearAllPlayers();
+        assertTrue(flusher.flush());
+    }
+
+    @Test
+    void testFlushedStateIsReloadedOnRestart() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "bob@example.com");
+        Game game = gameService.createGame("Durable Game");
+        gameService.addPlayerToGame(game.getId(), alice);
+        gameService.addPlayerToGame(game.getId(), bob);
+        // Alice wins on the top row
+        gameService.makeMove(game.getId(), alice.getId(), 0);
+        gameService.makeMove(game.getId(), bob.getId(), 3);
+        gameService.makeMove(game.getId(), alice.getId(), 1);
+        gameService.makeMove(game.getId(), bob.getId(), 4);
+        gameService.makeMove(game.getId(), alice.getId(), 2);
+        Game waiting = gameService.createGame("Still Waiting");
+
+        assertTrue(flusher.flush());
+        assertEquals(0, flusher.getPendingCount());
+        assertEquals("COMPLETED", jdbcTemplate.queryForObject(
+            "SELECT status FROM games WHERE id = ?", String.class, game.getId()));
+        assertEquals("XXXOO----", jdbcTemplate.queryForObject(
+            "SELECT board FROM games WHERE id = ?", String.class, game.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT games_won FROM players WHERE id = ?", Integer.class, alice.getId()));
+
+        // A fresh pair of stores sees exactly what the old ones held
+        WriteBehindPlayerStore players = new WriteBehindPlayerStore(flusher, playerRepository, transactionManager);
+        WriteBehindGameStore games = new WriteBehindGameStore(flusher, players, gameRepository, transactionManager);
+
+        Game reloaded = games.findById(game.getId()).orElseThrow();
+        Player reloadedAlice = players.findById(alice.getId()).orElseThrow();
+        assertEquals(Game.GameStatus.COMPLETED, reloaded.getStatus());
+        assertSame(reloadedAlice, reloaded.getWinner());
+        assertSame(reloadedAlice, reloaded.getPlayers().get(0));
+        assertEquals(Arrays.asList("X", "X", "X", "O", "O", null, null, null, null), reloaded.getBoard());
+        assertEquals(5, reloaded.getMoves().size());
+        assertEquals(1, reloadedAlice.getStats().getGamesWon());
+        assertEquals(alice, players.findByEmailKey("alice@example.com").orElseThrow());
+        assertEquals(List.of(reloadedAlice), players.leaderboard(LeaderboardSort.WINS, 0, 1));
+        assertEquals(List.of(waiting), games.findByStatus(Game.GameStatus.WAITING));
+    }
+
+    @Test
+    void testDeletesAreFlushed() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        Game game = gameService.createGame("Short Lived");
+        gameService.addPlayerToGame(game.getId(), alice);
+        assertTrue(flusher.flush());
+
+        gameService.deleteGame(game.getId());
+        playerService.deletePlayer(alice.getId());
+        assertTrue(flusher.flush());
+
+        assertTrue(gameRepository.findById(game.getId()).isEmpty());
+        assertTrue(playerRepository.findById(alice.getId()).isEmpty());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM game_players", Integer.class));
+    }
+
+    @Test
+    void testDeleteRejectedByDatabaseIsDroppedAndCounted() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        Game game = gameService.createGame("Still Referenced");
+        gameService.addPlayerToGame(game.getId(), alice);
+        assertTrue(flusher.flush());
+        long dropped = flusher.getDroppedCount();
+
+        // Bypasses GameService.deletePlayer, which would refuse: game_players
+        // still refers to Alice, so the database rejects the delete every time
+        playerService.deletePlayer(alice.getId());
+        // The background flusher may take some of the attempts
+        for (int i = 0; i < 10 && flusher.getDroppedCount() == dropped; i++) {
+            flusher.flush();
+        }
+
+        assertEquals(dropped + 1, flusher.getDroppedCount());
+        assertEquals(0, flusher.getPendingCount());
+        assertTrue(playerRepository.findById(alice.getId()).isPresent());
+
+        gameService.deleteGame(game.getId());
+        assertTrue(flusher.flush());
+        jdbcTemplate.update("DELETE FROM players WHERE id = ?", alice.getId());
+    }
+
+    @Test
+    void testBackpressureHoldsWritersUntilFlushed() throws Exception {
+        // No background thread: nothing is written until flush() is called
+        WriteBehindFlusher manual = new WriteBehindFlusher(jdbcTemplate, transactionManager, 10, 1000, 2, false);
+        Player first = new Player("First", "first@example.com");
+        Player second = new Player("Second", "second@example.com");
+        Player third = new Player("Third", "third@example.com");
+        List.of(first, second, third).forEach(p -> p.setEmailKey(p.getEmail()));
+
+        manual.playerChanged(first);
+        manual.playerChanged(second);
+        // Re-recording a pending player coalesces instead of growing the backlog
+        manual.playerChanged(second);
+        assertEquals(2, manual.getPendingCount());
+
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> manual.playerChanged(third));
+        Thread.sleep(200);
+        assertFalse(blocked.isDone(), "Writer should wait while the backlog is over the limit");
+
+        // The waiting change was already recorded, so it is part of this flush
+        assertTrue(manual.flush());
+        blocked.get(5, TimeUnit.SECONDS);
+        assertEquals(0, manual.getPendingCount());
+        assertEquals(3, manual.getWrittenCount());
+
+        // Shutdown writes what is still pending
+        third.getStats().incrementGamesPlayed();
+        manual.playerChanged(third);
+        manual.destroy();
+        assertEquals(0, manual.getPendingCount());
+        assertEquals(1, playerRepository.findById(third.getId()).orElseThrow().getStats().getGamesPlayed());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.repository;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"spring.profiles.active=test", "storage.mode=write-behind",
+        "spring.datasource.url=jdbc:h2:mem:storage-contract-write-behind;DB_CLOSE_DELAY=-1"})
+class WriteBehindStorageContractTest extends StorageContractTest {
+}
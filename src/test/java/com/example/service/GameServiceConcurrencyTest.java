@@ -0,0 +1,154 @@
+package com.example.service;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServiceConcurrencyTest {
+
+    private GameService gameService;
+    private PlayerService playerService;
+
+    @BeforeEach
+    void setUp() {
+        playerService = new PlayerService(new ValidationService());
+        gameService = new GameService(playerService);
+    }
+
+    @Test
+    void testConcurrentJoinsAdmitExactlyTwoPlayers() throws Exception {
+        Game game = gameService.createGame("Join Race");
+        int contenders = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(contenders);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger joined = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < contenders; i++) {
+            Player player = playerService.createPlayer("Player " + i, "player" + i + "@example.com");
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    if (gameService.addPlayerToGame(game.getId(), player)) {
+                        joined.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    // Game already full or active
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(2, joined.get());
+        assertEquals(2, game.getPlayers().size());
+        assertEquals(Game.GameStatus.ACTIVE, game.getStatus());
+    }
+
+    @Test
+    void testJoinRacingPlayerDeletionNeverLeavesDanglingPlayer() throws Exception {
+        int rounds = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        for (int i = 0; i < rounds; i++) {
+            Game game = gameService.createGame("Delete Race " + i);
+            Player player = playerService.createPlayer("Racer " + i, "racer" + i + "@example.com");
+            CountDownLatch start = new CountDownLatch(1);
+
+            Future<?> join = executor.submit(() -> {
+                start.await();
+                try {
+                    gameService.addPlayerToGame(game.getId(), player);
+                } catch (IllegalArgumentException e) {
+                    // Player deleted first
+                }
+                return null;
+            });
+            Future<?> delete = executor.submit(() -> {
+                start.await();
+                try {
+                    gameService.deletePlayer(player.getId());
+                } catch (IllegalStateException e) {
+                    // Player joined first
+                }
+                return null;
+            });
+            start.countDown();
+            join.get(10, TimeUnit.SECONDS);
+            delete.get(10, TimeUnit.SECONDS);
+
+            boolean inGame = game.getPlayers().stream().anyMatch(p -> p.getId().equals(player.getId()));
+            boolean exists = playerService.findById(player.getId()).isPresent();
+            assertEquals(inGame, exists, "A player is either deleted and in no game, or joined and still present");
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void testConcurrentMovesKeepGameConsistent() throws Exception {
+        int gameCount = 200;
+        List<Game> games = new ArrayList<>();
+        List<Player[]> pairs = new ArrayList<>();
+        for (int i = 0; i < gameCount; i++) {
+            Game game = gameService.createGame("Move Race " + i);
+            Player x = playerService.createPlayer("X" + i, "x" + i + "@example.com");
+            Player o = playerService.createPlayer("O" + i, "o" + i + "@example.com");
+            gameService.addPlayerToGame(game.getId(), x);
+            gameService.addPlayerToGame(game.getId(), o);
+            games.add(game);
+            pairs.add(new Player[]{x, o});
+        }
+
+        // Every thread hammers every game with both players on every cell
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int offset = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < gameCount; i++) {
+                    Game game = games.get(i);
+                    Player[] pair = pairs.get(i);
+                    for (int cell = 0; cell < 9; cell++) {
+                        int position = (cell + offset) % 9;
+                        for (Player player : pair) {
+                            try {
+                                gameService.makeMove(game.getId(), player.getId(), position);
+                            } catch (IllegalStateException e) {
+                                // Not this player's turn or game finished
+                            }
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (Game game : games) {
+            long filled = game.getBoard().stream().filter(Objects::nonNull).count();
+            assertEquals(game.getMoves().size(), filled, "Each recorded move must occupy exactly one cell");
+            assertNotEquals(Game.GameStatus.ACTIVE, game.getStatus(), "Every game should have finished");
+            for (int i = 0; i < game.getMoves().size(); i++) {
+                assertEquals(i % 2 == 0 ? "X" : "O", game.getMoves().get(i).getSymbol(), "Turns must alternate");
+            }
+        }
+    }
+}
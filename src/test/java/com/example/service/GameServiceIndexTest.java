@@ -0,0 +1,79 @@
+package com.example.service;
+
+import com.example.model.Game;
+import com.example.model.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameServiceIndexTest {
+
+    private GameService gameService;
+    private Player alice;
+    private Player bob;
+
+    @BeforeEach
+    void setUp() {
+        PlayerService playerService = new PlayerService(new ValidationService());
+        gameService = new GameService(playerService);
+        alice = playerService.createPlayer("Alice", "alice@example.com");
+        bob = playerService.createPlayer("Bob", "bob@example.com");
+    }
+
+    @Test
+    void testStatusIndexFollowsTransitions() {
+        Game game = gameService.createGame("Indexed Game");
+        assertEquals(List.of(game), gameService.getWaitingGames());
+        assertTrue(gameService.getActiveGames().isEmpty());
+
+        gameService.addPlayerToGame(game.getId(), alice);
+        assertEquals(List.of(game), gameService.getWaitingGames());
+
+        gameService.addPlayerToGame(game.getId(), bob);
+        assertTrue(gameService.getWaitingGames().isEmpty());
+        assertEquals(List.of(game), gameService.getActiveGames());
+
+        // Alice wins on the top row
+        gameService.makeMove(game.getId(), alice.getId(), 0);
+        gameService.makeMove(game.getId(), bob.getId(), 3);
+        gameService.makeMove(game.getId(), alice.getId(), 1);
+        gameService.makeMove(game.getId(), bob.getId(), 4);
+        assertEquals(List.of(game), gameService.getActiveGames());
+        gameService.makeMove(game.getId(), alice.getId(), 2);
+
+        assertTrue(gameService.getActiveGames().isEmpty());
+        assertEquals(List.of(game), gameService.findByStatus(Game.GameStatus.COMPLETED));
+        assertEquals(List.of(game), gameService.getCompletedGames());
+    }
+
+    @Test
+    void testPlayerIndex() {
+        Game first = gameService.createGame("First");
+        Game second = gameService.createGame("Second");
+        gameService.addPlayerToGame(first.getId(), alice);
+        gameService.addPlayerToGame(first.getId(), bob);
+        gameService.addPlayerToGame(second.getId(), alice);
+
+        assertEquals(2, gameService.getGamesByPlayer(alice.getId()).size());
+        assertEquals(List.of(first), gameService.getGamesByPlayer(bob.getId()));
+        assertEquals(List.of(first), gameService.getPlayerActiveGames(alice.getId()));
+        assertTrue(gameService.getGamesByPlayer("unknown").isEmpty());
+    }
+
+    @Test
+    void testDeleteRemovesFromIndexes() {
+        Game game = gameService.createGame("Doomed");
+        gameService.addPlayerToGame(game.getId(), alice);
+        gameService.addPlayerToGame(game.getId(), bob);
+
+        assertTrue(gameService.deleteGame(game.getId()));
+
+        assertTrue(gameService.getActiveGames().isEmpty());
+        assertTrue(gameService.getGamesByPlayer(alice.getId()).isEmpty());
+        assertTrue(gameService.getGamesByPlayer(bob.getId()).isEmpty());
+        assertFalse(gameService.deleteGame(game.getId()));
+    }
+}
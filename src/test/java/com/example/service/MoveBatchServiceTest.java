@@ -0,0 +1,114 @@
+package com.example.service;
+
+import com.example.model.Game;
+import com.example.model.MoveBatchResult;
+import com.example.model.MoveCommand;
+import com.example.model.MoveResult;
+import com.example.model.Player;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveBatchServiceTest {
+
+    private GameService gameService;
+    private PlayerService playerService;
+    private MoveBatchService moveBatchService;
+
+    @BeforeEach
+    void setUp() {
+        ValidationService validationService = new ValidationService();
+        playerService = new PlayerService(validationService);
+        gameService = new GameService(playerService);
+        moveBatchService = new MoveBatchService(gameService, validationService, new SimpleMeterRegistry(), 1000, 4, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        moveBatchService.shutdown();
+    }
+
+    @Test
+    void testInterleavedGamesArePlayedInOrderPerGame() {
+        int games = 50;
+        // X wins down the left column
+        int[] sequence = {0, 1, 3, 4, 6};
+        List<Game> created = new ArrayList<>();
+        List<Player[]> players = new ArrayList<>();
+        for (int g = 0; g < games; g++) {
+            Game game = gameService.createGame("Batch " + g);
+            Player x = playerService.createPlayer("X" + g, "x" + g + "@example.com");
+            Player o = playerService.createPlayer("O" + g, "o" + g + "@example.com");
+            gameService.addPlayerToGame(game.getId(), x);
+            gameService.addPlayerToGame(game.getId(), o);
+            created.add(game);
+            players.add(new Player[] {x, o});
+        }
+
+        // Round-robin across games, as a bot would submit one move per game per turn
+        List<MoveCommand> moves = new ArrayList<>();
+        for (int m = 0; m < sequence.length; m++) {
+            for (int g = 0; g < games; g++) {
+                moves.add(new MoveCommand(created.get(g).getId(), players.get(g)[m % 2].getId(), sequence[m]));
+            }
+        }
+
+        MoveBatchResult result = moveBatchService.makeMoves(moves);
+        assertEquals(moves.size(), result.getResults().size());
+        assertEquals(moves.size(), result.getAccepted());
+        assertEquals(0, result.getFailed());
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(i, result.getResults().get(i).getIndex());
+            assertEquals(moves.get(i).getGameId(), result.getResults().get(i).getGameId());
+        }
+        for (int g = 0; g < games; g++) {
+            Game game = gameService.findById(created.get(g).getId()).orElseThrow();
+            assertEquals(Game.GameStatus.COMPLETED, game.getStatus());
+            assertEquals(players.get(g)[0].getId(), game.getWinner().getId());
+        }
+    }
+
+    @Test
+    void testEachMoveFailsOnItsOwn() {
+        Game game = gameService.createGame("Batch");
+        Player x = playerService.createPlayer("X", "x@example.com");
+        Player o = playerService.createPlayer("O", "o@example.com");
+        gameService.addPlayerToGame(game.getId(), x);
+        gameService.addPlayerToGame(game.getId(), o);
+
+        MoveBatchResult result = moveBatchService.makeMoves(List.of(
+            new MoveCommand(game.getId(), o.getId(), 4),
+            new MoveCommand(game.getId(), x.getId(), 4),
+            new MoveCommand(game.getId(), o.getId(), 4),
+            new MoveCommand("missing", x.getId(), 0),
+            new MoveCommand(game.getId(), x.getId(), null),
+            new MoveCommand(game.getId(), o.getId(), 0)));
+
+        List<MoveResult.Status> statuses = result.getResults().stream().map(MoveResult::getStatus).toList();
+        assertEquals(List.of(
+            MoveResult.Status.CONFLICT,
+            MoveResult.Status.ACCEPTED,
+            MoveResult.Status.REJECTED,
+            MoveResult.Status.INVALID,
+            MoveResult.Status.INVALID,
+            MoveResult.Status.ACCEPTED), statuses);
+        assertEquals("Not player's turn", result.getResults().get(0).getMessage());
+        assertEquals(2, gameService.findById(game.getId()).orElseThrow().getMoves().size());
+    }
+
+    @Test
+    void testBatchLimits() {
+        assertThrows(IllegalArgumentException.class, () -> moveBatchService.makeMoves(List.of()));
+        List<MoveCommand> tooMany = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            tooMany.add(new MoveCommand("game", "player", 0));
+        }
+        assertThrows(IllegalArgumentException.class, () -> moveBatchService.makeMoves(tooMany));
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.service;
+
+import com.example.model.Player;
+import com.example.model.PlayerRegistration;
+import com.example.model.RegistrationBatchResult;
+import com.example.model.RegistrationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlayerServiceTest {
+
+    private PlayerService playerService;
+
+    @BeforeEach
+    void setUp() {
+        playerService = new PlayerService(new ValidationService());
+    }
+
+    @Test
+    void testFindByEmailIsCaseInsensitive() {
+        Player alice = playerService.createPlayer("Alice", "Alice@Example.com");
+
+        assertEquals(alice, playerService.findByEmail("alice@example.com").orElseThrow());
+        assertEquals(alice, playerService.findByEmail(" ALICE@EXAMPLE.COM ").orElseThrow());
+        assertThrows(IllegalArgumentException.class,
+            () -> playerService.createPlayer("Alice Again", "alice@example.com"));
+    }
+
+    @Test
+    void testUpdateReleasesOldEmail() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        playerService.createPlayer("Bob", "bob@example.com");
+
+        assertThrows(IllegalArgumentException.class,
+            () -> playerService.updatePlayer(alice.getId(), "Alice", "bob@example.com"));
+
+        playerService.updatePlayer(alice.getId(), "Alice", "alice.new@example.com");
+        assertTrue(playerService.findByEmail("alice@example.com").isEmpty());
+        assertEquals(alice, playerService.findByEmail("alice.new@example.com").orElseThrow());
+
+        // The released email can be claimed again
+        Player carol = playerService.createPlayer("Carol", "alice@example.com");
+        assertEquals(carol, playerService.findByEmail("alice@example.com").orElseThrow());
+    }
+
+    @Test
+    void testDeleteReleasesEmail() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        assertTrue(playerService.deletePlayer(alice.getId()));
+
+        assertTrue(playerService.findByEmail("alice@example.com").isEmpty());
+        assertNotNull(playerService.createPlayer("Alice", "alice@example.com"));
+    }
+
+    @Test
+    void testConcurrentSignupsWithSameEmail() throws Exception {
+        int contenders = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(contenders);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < contenders; i++) {
+            final int n = i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    playerService.createPlayer("Racer " + n, "race@example.com");
+                    created.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    // Lost the race
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, created.get());
+        assertEquals(1, playerService.getTotalPlayerCount());
+    }
+
+    @Test
+    void testLeaderboardPagesMatchFullSort() {
+        Random random = new Random(42);
+        List<Player> created = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            created.add(playerService.createPlayer("Player " + i, "player" + i + "@example.com"));
+        }
+        // Random results, including repeated updates of the same player
+        for (int i = 0; i < 1000; i++) {
+            Player player = created.get(random.nextInt(created.size()));
+            boolean won = random.nextBoolean();
+            boolean drawn = !won && random.nextInt(4) == 0;
+            playerService.updatePlayerStats(player.getId(), won, drawn, 3 + random.nextInt(3));
+        }
+
+        Comparator<Player> byWins = Comparator
+            .comparingInt((Player p) -> p.getStats().getGamesWon()).reversed()
+            .thenComparing(Comparator.comparingDouble((Player p) -> p.getStats().getWinRate()).reversed())
+            .thenComparing(Player::getId);
+        List<Player> expected = created.stream()
+            .filter(p -> p.getStats().getGamesPlayed() > 0)
+            .sorted(byWins)
+            .collect(Collectors.toList());
+
+        List<Player> paged = new ArrayList<>();
+        int page = 0;
+        int totalPages;
+        do {
+            var response = playerService.getLeaderboardPaginated(page++, 7, "wins");
+            paged.addAll(response.getContent());
+            totalPages = response.getPage().getTotalPages();
+            assertEquals(expected.size(), response.getPage().getTotalElements());
+        } while (page < totalPages);
+
+        assertEquals(expected, paged);
+        assertEquals(expected.subList(0, 10), playerService.getLeaderboard(10, "wins"));
+    }
+
+    @Test
+    void testLeaderboardCursorPagesMatchFullSort() {
+        Random random = new Random(7);
+        List<Player> created = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            created.add(playerService.createPlayer("Player " + i, "player" + i + "@example.com"));
+        }
+        // Few distinct results, so many players tie on win rate and wins
+        for (int i = 0; i < 600; i++) {
+            Player player = created.get(random.nextInt(created.size()));
+            playerService.updatePlayerStats(player.getId(), random.nextBoolean(), false, 3);
+        }
+
+        for (String sortBy : List.of("winrate", "wins")) {
+            List<Player> expected = playerService.getLeaderboard(created.size(), sortBy);
+            List<Player> paged = new ArrayList<>();
+            String cursor = null;
+            do {
+                var response = playerService.getLeaderboardAfter(cursor, 8, sortBy, false);
+                assertNull(response.getTotalElements());
+                assertTrue(response.getContent().size() <= 8);
+                paged.addAll(response.getContent());
+                cursor = response.getNextCursor();
+            } while (cursor != null);
+            assertEquals(expected, paged);
+        }
+
+        var first = playerService.getLeaderboardAfter(null, 5, "wins", true);
+        assertEquals(playerService.getLeaderboard(150, "wins").size(), first.getTotalElements());
+        assertThrows(IllegalArgumentException.class,
+            () -> playerService.getLeaderboardAfter(first.getNextCursor(), 5, "winrate", false));
+        assertThrows(IllegalArgumentException.class,
+            () -> playerService.getLeaderboardAfter("not-a-cursor", 5, "wins", false));
+        assertThrows(IllegalArgumentException.class, () -> playerService.getLeaderboardAfter(null, 0, "wins", false));
+    }
+
+    @Test
+    void testDeletedPlayerLeavesLeaderboard() {
+        Player alice = playerService.createPlayer("Alice", "alice@example.com");
+        Player bob = playerService.createPlayer("Bob", "bob@example.com");
+        playerService.updatePlayerStats(alice.getId(), true, false, 3);
+        playerService.updatePlayerStats(bob.getId(), false, false, 3);
+
+        assertEquals(List.of(alice, bob), playerService.getLeaderboard(10));
+
+        playerService.deletePlayer(alice.getId());
+        assertEquals(List.of(bob), playerService.getLeaderboard(10));
+    }
+
+    @Test
+    void testRegisterPlayersKeepsWhatWasReadBeforeBadInput() {
+        Iterator<PlayerRegistration> input = new Iterator<>() {
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                if (read == 3) {
+                    throw new IllegalStateException("Unexpected end of input");
+                }
+                return true;
+            }
+
+            @Override
+            public PlayerRegistration next() {
+                read++;
+                return read == 2 ? null : new PlayerRegistration("Player " + read, "player" + read + "@example.com");
+            }
+        };
+
+        RegistrationBatchResult result = playerService.registerPlayers(input, 100);
+        assertEquals("Malformed input at item 3", result.getError());
+        assertEquals(List.of(RegistrationResult.Status.CREATED, RegistrationResult.Status.INVALID,
+                RegistrationResult.Status.CREATED),
+            result.getResults().stream().map(RegistrationResult::getStatus).collect(Collectors.toList()));
+        assertEquals(2, playerService.getTotalPlayerCount());
+    }
+
+    @Test
+    void testRegisterPlayersInterleavedWithRejectsAcrossBatches() {
+        // Every third item is invalid and every fifth repeats an earlier email, so
+        // rejected items fall between batched ones in each of the three batches
+        List<PlayerRegistration> input = new ArrayList<>();
+        List<RegistrationResult.Status> expected = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            if (i % 3 == 1) {
+                input.add(new PlayerRegistration("", "invalid" + i + "@example.com"));
+                expected.add(RegistrationResult.Status.INVALID);
+            } else if (i % 5 == 4) {
+                input.add(new PlayerRegistration("Player " + i, "player0@example.com"));
+                expected.add(RegistrationResult.Status.DUPLICATE);
+            } else {
+                input.add(new PlayerRegistration("Player " + i, "player" + i + "@example.com"));
+                expected.add(RegistrationResult.Status.CREATED);
+            }
+        }
+
+        RegistrationBatchResult result = playerService.registerPlayers(input.iterator(), 10000);
+        assertNull(result.getError());
+        assertEquals(expected,
+            result.getResults().stream().map(RegistrationResult::getStatus).collect(Collectors.toList()));
+        for (int i = 0; i < input.size(); i++) {
+            RegistrationResult item = result.getResults().get(i);
+            assertEquals(i, item.getIndex());
+            if (item.getStatus() == RegistrationResult.Status.CREATED) {
+                Player player = playerService.findById(item.getPlayerId()).orElseThrow();
+                assertEquals(input.get(i).getEmail(), player.getEmail());
+            } else {
+                assertNull(item.getPlayerId());
+            }
+        }
+        long created = expected.stream().filter(s -> s == RegistrationResult.Status.CREATED).count();
+        assertEquals(created, result.getCreated());
+        assertEquals(created, playerService.getTotalPlayerCount());
+    }
+
+    @Test
+    void testRegisterPlayersStopsAtLimit() {
+        List<PlayerRegistration> input = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            input.add(new PlayerRegistration("Player " + i, "player" + i + "@example.com"));
+        }
+
+        RegistrationBatchResult result = playerService.registerPlayers(input.iterator(), 3);
+        assertEquals(3, result.getCreated());
+        assertNotNull(result.getError());
+        assertEquals(3, playerService.getTotalPlayerCount());
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopKTest {
+
+    @Test
+    void testMatchesSortedPrefix() {
+        Random random = new Random(7);
+        List<Integer> small = random.ints(500, 0, 100).boxed().collect(Collectors.toList());
+        List<Integer> large = random.ints(TopK.PARALLEL_THRESHOLD * 5, 0, 1_000_000).boxed().collect(Collectors.toList());
+        Comparator<Integer> descending = Comparator.reverseOrder();
+
+        for (List<Integer> input : List.of(small, large)) {
+            for (int k : new int[]{0, 1, 10, 499}) {
+                List<Integer> expected = input.stream().sorted(descending).limit(k).collect(Collectors.toList());
+                assertEquals(expected, TopK.select(input, k, descending), "k=" + k + ", n=" + input.size());
+            }
+        }
+    }
+
+    @Test
+    void testFilterAndShortInput() {
+        List<Integer> input = new ArrayList<>(List.of(5, 3, 8, 1, 9, 2));
+
+        assertEquals(List.of(2, 8), TopK.select(input, n -> n % 2 == 0, 10, Comparator.naturalOrder()));
+        assertEquals(List.of(9, 8, 5, 3, 2, 1), TopK.select(input, 100, Comparator.reverseOrder()));
+        assertTrue(TopK.select(new ArrayList<Integer>(), 5, Comparator.naturalOrder()).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> TopK.select(input, -1, Comparator.naturalOrder()));
+    }
+}